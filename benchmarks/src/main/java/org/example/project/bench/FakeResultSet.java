@@ -0,0 +1,334 @@
+package org.example.project.bench;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * In-memory, forward-only ResultSet over pre-built rows, so row mapping can be measured
+ * without a database. Supports the getters the DAOs and ReportTable use (by index and by
+ * label); everything else throws SQLFeatureNotSupportedException.
+ * {@link #rewind()} moves back before the first row so one instance serves every iteration.
+ */
+public final class FakeResultSet implements ResultSet {
+
+    private final String[] labels;
+    private final int[] types;
+    private final Object[][] rows;
+    private final Map<String, Integer> index = new HashMap<>();
+    private int row = -1;
+    private boolean wasNull;
+
+    /** types are java.sql.Types constants; DATE cells are java.sql.Date, the rest their JDBC Java type. */
+    public FakeResultSet(String[] labels, int[] types, Object[][] rows) {
+        this.labels = labels;
+        this.types = types;
+        this.rows = rows;
+        for (int i = 0; i < labels.length; i++) index.put(labels[i].toLowerCase(), i + 1);
+    }
+
+    public void rewind() {
+        row = -1;
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    // ---- SUPPORTED ----
+    @Override public boolean next() { return ++row < rows.length; }
+    @Override public void close() {}
+    @Override public boolean isClosed() { return false; }
+    @Override public boolean wasNull() { return wasNull; }
+
+    @Override
+    public int findColumn(String label) throws SQLException {
+        Integer i = index.get(label.toLowerCase());
+        if (i == null) throw new SQLException("Column '" + label + "' not found.");
+        return i;
+    }
+
+    @Override public Object getObject(int column) { return cell(column); }
+    @Override public Object getObject(String label) throws SQLException { return getObject(findColumn(label)); }
+
+    @Override
+    public <T> T getObject(int column, Class<T> type) throws SQLException {
+        Object v = cell(column);
+        if (v instanceof Date d && type == LocalDate.class) return type.cast(d.toLocalDate());
+        return type.cast(v);
+    }
+
+    @Override
+    public <T> T getObject(String label, Class<T> type) throws SQLException {
+        return getObject(findColumn(label), type);
+    }
+
+    @Override
+    public String getString(int column) {
+        Object v = cell(column);
+        return v == null ? null : v.toString();
+    }
+
+    @Override public String getString(String label) throws SQLException { return getString(findColumn(label)); }
+
+    @Override
+    public int getInt(int column) {
+        Object v = cell(column);
+        return v == null ? 0 : ((Number) v).intValue();
+    }
+
+    @Override public int getInt(String label) throws SQLException { return getInt(findColumn(label)); }
+
+    @Override
+    public long getLong(int column) {
+        Object v = cell(column);
+        return v == null ? 0 : ((Number) v).longValue();
+    }
+
+    @Override public long getLong(String label) throws SQLException { return getLong(findColumn(label)); }
+
+    @Override
+    public double getDouble(int column) {
+        Object v = cell(column);
+        return v == null ? 0 : ((Number) v).doubleValue();
+    }
+
+    @Override public double getDouble(String label) throws SQLException { return getDouble(findColumn(label)); }
+
+    @Override
+    public boolean getBoolean(int column) {
+        Object v = cell(column);
+        return v instanceof Boolean b ? b : v != null && ((Number) v).intValue() != 0;
+    }
+
+    @Override public boolean getBoolean(String label) throws SQLException { return getBoolean(findColumn(label)); }
+
+    @Override
+    public BigDecimal getBigDecimal(int column) {
+        Object v = cell(column);
+        return v == null ? null : v instanceof BigDecimal d ? d : BigDecimal.valueOf(((Number) v).doubleValue());
+    }
+
+    @Override public BigDecimal getBigDecimal(String label) throws SQLException { return getBigDecimal(findColumn(label)); }
+
+    @Override public Date getDate(int column) { return (Date) cell(column); }
+    @Override public Date getDate(String label) throws SQLException { return getDate(findColumn(label)); }
+
+    @Override
+    public ResultSetMetaData getMetaData() {
+        return new MetaData();
+    }
+
+    private Object cell(int column) {
+        Object v = rows[row][column - 1];
+        wasNull = v == null;
+        return v;
+    }
+
+    private static SQLException unsupported() {
+        return new SQLFeatureNotSupportedException("Not supported by FakeResultSet");
+    }
+
+    private final class MetaData implements ResultSetMetaData {
+        @Override public int getColumnCount() { return labels.length; }
+        @Override public String getColumnLabel(int column) { return labels[column - 1]; }
+        @Override public String getColumnName(int column) { return labels[column - 1]; }
+        @Override public int getColumnType(int column) { return types[column - 1]; }
+        @Override public boolean isSigned(int column) { return true; }
+
+        // ---- UNSUPPORTED ----
+        @Override public String getCatalogName(int a0) throws SQLException { throw unsupported(); }
+        @Override public String getColumnClassName(int a0) throws SQLException { throw unsupported(); }
+        @Override public int getColumnDisplaySize(int a0) throws SQLException { throw unsupported(); }
+        @Override public String getColumnTypeName(int a0) throws SQLException { throw unsupported(); }
+        @Override public int getPrecision(int a0) throws SQLException { throw unsupported(); }
+        @Override public int getScale(int a0) throws SQLException { throw unsupported(); }
+        @Override public String getSchemaName(int a0) throws SQLException { throw unsupported(); }
+        @Override public String getTableName(int a0) throws SQLException { throw unsupported(); }
+        @Override public boolean isAutoIncrement(int a0) throws SQLException { throw unsupported(); }
+        @Override public boolean isCaseSensitive(int a0) throws SQLException { throw unsupported(); }
+        @Override public boolean isCurrency(int a0) throws SQLException { throw unsupported(); }
+        @Override public boolean isDefinitelyWritable(int a0) throws SQLException { throw unsupported(); }
+        @Override public int isNullable(int a0) throws SQLException { throw unsupported(); }
+        @Override public boolean isReadOnly(int a0) throws SQLException { throw unsupported(); }
+        @Override public boolean isSearchable(int a0) throws SQLException { throw unsupported(); }
+        @Override public boolean isWrapperFor(Class<?> a0) throws SQLException { throw unsupported(); }
+        @Override public boolean isWritable(int a0) throws SQLException { throw unsupported(); }
+        @Override public <T> T unwrap(Class<T> a0) throws SQLException { throw unsupported(); }
+    }
+
+    // ---- UNSUPPORTED ----
+    @Override public boolean absolute(int a0) throws SQLException { throw unsupported(); }
+    @Override public void afterLast() throws SQLException { throw unsupported(); }
+    @Override public void beforeFirst() throws SQLException { throw unsupported(); }
+    @Override public void cancelRowUpdates() throws SQLException { throw unsupported(); }
+    @Override public void clearWarnings() throws SQLException { throw unsupported(); }
+    @Override public void deleteRow() throws SQLException { throw unsupported(); }
+    @Override public boolean first() throws SQLException { throw unsupported(); }
+    @Override public Array getArray(String a0) throws SQLException { throw unsupported(); }
+    @Override public Array getArray(int a0) throws SQLException { throw unsupported(); }
+    @Override public InputStream getAsciiStream(String a0) throws SQLException { throw unsupported(); }
+    @Override public InputStream getAsciiStream(int a0) throws SQLException { throw unsupported(); }
+    @Override public BigDecimal getBigDecimal(String a0, int a1) throws SQLException { throw unsupported(); }
+    @Override public BigDecimal getBigDecimal(int a0, int a1) throws SQLException { throw unsupported(); }
+    @Override public InputStream getBinaryStream(String a0) throws SQLException { throw unsupported(); }
+    @Override public InputStream getBinaryStream(int a0) throws SQLException { throw unsupported(); }
+    @Override public Blob getBlob(String a0) throws SQLException { throw unsupported(); }
+    @Override public Blob getBlob(int a0) throws SQLException { throw unsupported(); }
+    @Override public byte getByte(String a0) throws SQLException { throw unsupported(); }
+    @Override public byte getByte(int a0) throws SQLException { throw unsupported(); }
+    @Override public byte[] getBytes(String a0) throws SQLException { throw unsupported(); }
+    @Override public byte[] getBytes(int a0) throws SQLException { throw unsupported(); }
+    @Override public Reader getCharacterStream(String a0) throws SQLException { throw unsupported(); }
+    @Override public Reader getCharacterStream(int a0) throws SQLException { throw unsupported(); }
+    @Override public Clob getClob(String a0) throws SQLException { throw unsupported(); }
+    @Override public Clob getClob(int a0) throws SQLException { throw unsupported(); }
+    @Override public int getConcurrency() throws SQLException { throw unsupported(); }
+    @Override public String getCursorName() throws SQLException { throw unsupported(); }
+    @Override public Date getDate(String a0, Calendar a1) throws SQLException { throw unsupported(); }
+    @Override public Date getDate(int a0, Calendar a1) throws SQLException { throw unsupported(); }
+    @Override public int getFetchDirection() throws SQLException { throw unsupported(); }
+    @Override public int getFetchSize() throws SQLException { throw unsupported(); }
+    @Override public float getFloat(String a0) throws SQLException { throw unsupported(); }
+    @Override public float getFloat(int a0) throws SQLException { throw unsupported(); }
+    @Override public int getHoldability() throws SQLException { throw unsupported(); }
+    @Override public Reader getNCharacterStream(String a0) throws SQLException { throw unsupported(); }
+    @Override public Reader getNCharacterStream(int a0) throws SQLException { throw unsupported(); }
+    @Override public NClob getNClob(String a0) throws SQLException { throw unsupported(); }
+    @Override public NClob getNClob(int a0) throws SQLException { throw unsupported(); }
+    @Override public String getNString(String a0) throws SQLException { throw unsupported(); }
+    @Override public String getNString(int a0) throws SQLException { throw unsupported(); }
+    @Override public Object getObject(String a0, Map<String, Class<?>> a1) throws SQLException { throw unsupported(); }
+    @Override public Object getObject(int a0, Map<String, Class<?>> a1) throws SQLException { throw unsupported(); }
+    @Override public Ref getRef(String a0) throws SQLException { throw unsupported(); }
+    @Override public Ref getRef(int a0) throws SQLException { throw unsupported(); }
+    @Override public int getRow() throws SQLException { throw unsupported(); }
+    @Override public RowId getRowId(String a0) throws SQLException { throw unsupported(); }
+    @Override public RowId getRowId(int a0) throws SQLException { throw unsupported(); }
+    @Override public SQLXML getSQLXML(String a0) throws SQLException { throw unsupported(); }
+    @Override public SQLXML getSQLXML(int a0) throws SQLException { throw unsupported(); }
+    @Override public short getShort(String a0) throws SQLException { throw unsupported(); }
+    @Override public short getShort(int a0) throws SQLException { throw unsupported(); }
+    @Override public Statement getStatement() throws SQLException { throw unsupported(); }
+    @Override public Time getTime(String a0, Calendar a1) throws SQLException { throw unsupported(); }
+    @Override public Time getTime(String a0) throws SQLException { throw unsupported(); }
+    @Override public Time getTime(int a0, Calendar a1) throws SQLException { throw unsupported(); }
+    @Override public Time getTime(int a0) throws SQLException { throw unsupported(); }
+    @Override public Timestamp getTimestamp(String a0, Calendar a1) throws SQLException { throw unsupported(); }
+    @Override public Timestamp getTimestamp(String a0) throws SQLException { throw unsupported(); }
+    @Override public Timestamp getTimestamp(int a0, Calendar a1) throws SQLException { throw unsupported(); }
+    @Override public Timestamp getTimestamp(int a0) throws SQLException { throw unsupported(); }
+    @Override public int getType() throws SQLException { throw unsupported(); }
+    @Override public URL getURL(String a0) throws SQLException { throw unsupported(); }
+    @Override public URL getURL(int a0) throws SQLException { throw unsupported(); }
+    @Override public InputStream getUnicodeStream(String a0) throws SQLException { throw unsupported(); }
+    @Override public InputStream getUnicodeStream(int a0) throws SQLException { throw unsupported(); }
+    @Override public SQLWarning getWarnings() throws SQLException { throw unsupported(); }
+    @Override public void insertRow() throws SQLException { throw unsupported(); }
+    @Override public boolean isAfterLast() throws SQLException { throw unsupported(); }
+    @Override public boolean isBeforeFirst() throws SQLException { throw unsupported(); }
+    @Override public boolean isFirst() throws SQLException { throw unsupported(); }
+    @Override public boolean isLast() throws SQLException { throw unsupported(); }
+    @Override public boolean isWrapperFor(Class<?> a0) throws SQLException { throw unsupported(); }
+    @Override public boolean last() throws SQLException { throw unsupported(); }
+    @Override public void moveToCurrentRow() throws SQLException { throw unsupported(); }
+    @Override public void moveToInsertRow() throws SQLException { throw unsupported(); }
+    @Override public boolean previous() throws SQLException { throw unsupported(); }
+    @Override public void refreshRow() throws SQLException { throw unsupported(); }
+    @Override public boolean relative(int a0) throws SQLException { throw unsupported(); }
+    @Override public boolean rowDeleted() throws SQLException { throw unsupported(); }
+    @Override public boolean rowInserted() throws SQLException { throw unsupported(); }
+    @Override public boolean rowUpdated() throws SQLException { throw unsupported(); }
+    @Override public void setFetchDirection(int a0) throws SQLException { throw unsupported(); }
+    @Override public void setFetchSize(int a0) throws SQLException { throw unsupported(); }
+    @Override public <T> T unwrap(Class<T> a0) throws SQLException { throw unsupported(); }
+    @Override public void updateArray(String a0, Array a1) throws SQLException { throw unsupported(); }
+    @Override public void updateArray(int a0, Array a1) throws SQLException { throw unsupported(); }
+    @Override public void updateAsciiStream(String a0, InputStream a1, int a2) throws SQLException { throw unsupported(); }
+    @Override public void updateAsciiStream(String a0, InputStream a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateAsciiStream(String a0, InputStream a1) throws SQLException { throw unsupported(); }
+    @Override public void updateAsciiStream(int a0, InputStream a1, int a2) throws SQLException { throw unsupported(); }
+    @Override public void updateAsciiStream(int a0, InputStream a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateAsciiStream(int a0, InputStream a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBigDecimal(String a0, BigDecimal a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBigDecimal(int a0, BigDecimal a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBinaryStream(String a0, InputStream a1, int a2) throws SQLException { throw unsupported(); }
+    @Override public void updateBinaryStream(String a0, InputStream a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateBinaryStream(String a0, InputStream a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBinaryStream(int a0, InputStream a1, int a2) throws SQLException { throw unsupported(); }
+    @Override public void updateBinaryStream(int a0, InputStream a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateBinaryStream(int a0, InputStream a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBlob(String a0, InputStream a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateBlob(String a0, InputStream a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBlob(String a0, Blob a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBlob(int a0, InputStream a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateBlob(int a0, InputStream a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBlob(int a0, Blob a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBoolean(String a0, boolean a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBoolean(int a0, boolean a1) throws SQLException { throw unsupported(); }
+    @Override public void updateByte(String a0, byte a1) throws SQLException { throw unsupported(); }
+    @Override public void updateByte(int a0, byte a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBytes(String a0, byte[] a1) throws SQLException { throw unsupported(); }
+    @Override public void updateBytes(int a0, byte[] a1) throws SQLException { throw unsupported(); }
+    @Override public void updateCharacterStream(String a0, Reader a1, int a2) throws SQLException { throw unsupported(); }
+    @Override public void updateCharacterStream(String a0, Reader a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateCharacterStream(String a0, Reader a1) throws SQLException { throw unsupported(); }
+    @Override public void updateCharacterStream(int a0, Reader a1, int a2) throws SQLException { throw unsupported(); }
+    @Override public void updateCharacterStream(int a0, Reader a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateCharacterStream(int a0, Reader a1) throws SQLException { throw unsupported(); }
+    @Override public void updateClob(String a0, Reader a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateClob(String a0, Reader a1) throws SQLException { throw unsupported(); }
+    @Override public void updateClob(String a0, Clob a1) throws SQLException { throw unsupported(); }
+    @Override public void updateClob(int a0, Reader a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateClob(int a0, Reader a1) throws SQLException { throw unsupported(); }
+    @Override public void updateClob(int a0, Clob a1) throws SQLException { throw unsupported(); }
+    @Override public void updateDate(String a0, Date a1) throws SQLException { throw unsupported(); }
+    @Override public void updateDate(int a0, Date a1) throws SQLException { throw unsupported(); }
+    @Override public void updateDouble(String a0, double a1) throws SQLException { throw unsupported(); }
+    @Override public void updateDouble(int a0, double a1) throws SQLException { throw unsupported(); }
+    @Override public void updateFloat(String a0, float a1) throws SQLException { throw unsupported(); }
+    @Override public void updateFloat(int a0, float a1) throws SQLException { throw unsupported(); }
+    @Override public void updateInt(String a0, int a1) throws SQLException { throw unsupported(); }
+    @Override public void updateInt(int a0, int a1) throws SQLException { throw unsupported(); }
+    @Override public void updateLong(String a0, long a1) throws SQLException { throw unsupported(); }
+    @Override public void updateLong(int a0, long a1) throws SQLException { throw unsupported(); }
+    @Override public void updateNCharacterStream(String a0, Reader a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateNCharacterStream(String a0, Reader a1) throws SQLException { throw unsupported(); }
+    @Override public void updateNCharacterStream(int a0, Reader a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateNCharacterStream(int a0, Reader a1) throws SQLException { throw unsupported(); }
+    @Override public void updateNClob(String a0, Reader a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateNClob(String a0, Reader a1) throws SQLException { throw unsupported(); }
+    @Override public void updateNClob(String a0, NClob a1) throws SQLException { throw unsupported(); }
+    @Override public void updateNClob(int a0, Reader a1, long a2) throws SQLException { throw unsupported(); }
+    @Override public void updateNClob(int a0, Reader a1) throws SQLException { throw unsupported(); }
+    @Override public void updateNClob(int a0, NClob a1) throws SQLException { throw unsupported(); }
+    @Override public void updateNString(String a0, String a1) throws SQLException { throw unsupported(); }
+    @Override public void updateNString(int a0, String a1) throws SQLException { throw unsupported(); }
+    @Override public void updateNull(String a0) throws SQLException { throw unsupported(); }
+    @Override public void updateNull(int a0) throws SQLException { throw unsupported(); }
+    @Override public void updateObject(String a0, Object a1, int a2) throws SQLException { throw unsupported(); }
+    @Override public void updateObject(String a0, Object a1) throws SQLException { throw unsupported(); }
+    @Override public void updateObject(int a0, Object a1, int a2) throws SQLException { throw unsupported(); }
+    @Override public void updateObject(int a0, Object a1) throws SQLException { throw unsupported(); }
+    @Override public void updateRef(String a0, Ref a1) throws SQLException { throw unsupported(); }
+    @Override public void updateRef(int a0, Ref a1) throws SQLException { throw unsupported(); }
+    @Override public void updateRow() throws SQLException { throw unsupported(); }
+    @Override public void updateRowId(String a0, RowId a1) throws SQLException { throw unsupported(); }
+    @Override public void updateRowId(int a0, RowId a1) throws SQLException { throw unsupported(); }
+    @Override public void updateSQLXML(String a0, SQLXML a1) throws SQLException { throw unsupported(); }
+    @Override public void updateSQLXML(int a0, SQLXML a1) throws SQLException { throw unsupported(); }
+    @Override public void updateShort(String a0, short a1) throws SQLException { throw unsupported(); }
+    @Override public void updateShort(int a0, short a1) throws SQLException { throw unsupported(); }
+    @Override public void updateString(String a0, String a1) throws SQLException { throw unsupported(); }
+    @Override public void updateString(int a0, String a1) throws SQLException { throw unsupported(); }
+    @Override public void updateTime(String a0, Time a1) throws SQLException { throw unsupported(); }
+    @Override public void updateTime(int a0, Time a1) throws SQLException { throw unsupported(); }
+    @Override public void updateTimestamp(String a0, Timestamp a1) throws SQLException { throw unsupported(); }
+    @Override public void updateTimestamp(int a0, Timestamp a1) throws SQLException { throw unsupported(); }
+}
@@ -0,0 +1,83 @@
+package org.example.project.bench;
+
+import org.example.project.util.Csv;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares a JMH CSV result ({@code -rf csv}) against the checked-in baseline and exits with
+ * status 1 if any benchmark got slower by more than the tolerance (default 10%).
+ * Throughput modes count higher as better, all other modes lower.
+ * <pre>
+ *   java -cp target/benchmarks.jar org.example.project.bench.RegressionCheck baseline/baseline.csv result.csv [10]
+ * </pre>
+ */
+public final class RegressionCheck {
+
+    private record Result(String key, String mode, double score, String unit) {}
+
+    private RegressionCheck() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: RegressionCheck <baseline.csv> <result.csv> [tolerance %]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        Map<String, Result> baseline = read(Path.of(args[0]));
+        Map<String, Result> current = read(Path.of(args[1]));
+
+        List<String> regressions = new ArrayList<>();
+        for (Result now : current.values()) {
+            Result before = baseline.get(now.key());
+            if (before == null || !before.unit().equals(now.unit())) {
+                System.out.printf("NEW   %-70s %12.3f %s%n", now.key(), now.score(), now.unit());
+                continue;
+            }
+            double change = (now.score() - before.score()) / before.score();
+            double worse = now.mode().equals("thrpt") ? -change : change;
+            String verdict = worse > tolerance ? "SLOWER" : worse < -tolerance ? "FASTER" : "OK";
+            System.out.printf("%-6s%-70s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                    verdict, now.key(), before.score(), now.score(), now.unit(), change * 100);
+            if (verdict.equals("SLOWER")) regressions.add(now.key());
+        }
+
+        if (!regressions.isEmpty()) {
+            System.out.println(regressions.size() + " benchmark(s) regressed by more than "
+                    + Math.round(tolerance * 100) + "%.");
+            System.exit(1);
+        }
+    }
+
+    // key = benchmark name plus its parameter values
+    private static Map<String, Result> read(Path file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        try (Csv.RecordReader csv = new Csv.RecordReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            List<String> header = csv.next();
+            if (header == null) return results;
+            int name = header.indexOf("Benchmark"), mode = header.indexOf("Mode");
+            int score = header.indexOf("Score"), unit = header.indexOf("Unit");
+
+            List<String> rec;
+            while ((rec = csv.next()) != null) {
+                if (rec.size() < header.size()) continue;
+                StringBuilder key = new StringBuilder(rec.get(name));
+                for (int i = 0; i < header.size(); i++) {
+                    if (header.get(i).startsWith("Param: ") && !rec.get(i).isEmpty()) {
+                        key.append(' ').append(header.get(i).substring(7)).append('=').append(rec.get(i));
+                    }
+                }
+                results.put(key.toString(), new Result(key.toString(), rec.get(mode),
+                        Double.parseDouble(rec.get(score)), rec.get(unit)));
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.project.bench;
+
+import org.example.project.model.Book;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generator for library-shaped data: the same seed always yields the same rows,
+ * so runs (and the checked-in baseline) measure the same work.
+ */
+public final class SyntheticData {
+
+    public static final long DEFAULT_SEED = 20240501L;
+
+    private static final String[] CATEGORIES = {
+            "Fiction", "Science", "History", "Biography", "Children", "Poetry", "Travel", "Computing",
+            "Philosophy", "Art", "Cooking", "Mystery"
+    };
+    private static final String[] BOOK_TYPES = { "Hardcover", "Paperback", "E-book", "Audiobook" };
+    private static final String[] WORDS = {
+            "silent", "river", "garden", "empire", "shadow", "light", "winter", "north", "glass", "city",
+            "stone", "ocean", "memory", "machine", "forest", "night", "letters", "island", "crown", "road"
+    };
+    private static final String[] FIRST_NAMES = { "Amal", "Nour", "Sami", "Lina", "Omar", "Maya", "Karim", "Rana" };
+    private static final String[] LAST_NAMES = { "Haddad", "Khoury", "Nassar", "Saleh", "Aziz", "Mansour" };
+    private static final LocalDate START = LocalDate.of(2015, 1, 1);
+
+    private final Random rnd;
+
+    public SyntheticData(long seed) {
+        this.rnd = new Random(seed);
+    }
+
+    public String title() {
+        int words = 2 + rnd.nextInt(4);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String w = WORDS[rnd.nextInt(WORDS.length)];
+            if (i > 0) sb.append(' ');
+            sb.append(Character.toUpperCase(w.charAt(0))).append(w, 1, w.length());
+        }
+        return sb.toString();
+    }
+
+    public String borrowerName() {
+        return FIRST_NAMES[rnd.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[rnd.nextInt(LAST_NAMES.length)];
+    }
+
+    private BigDecimal price() {
+        return BigDecimal.valueOf(299 + rnd.nextInt(9_700), 2);   // 2.99 .. 99.98
+    }
+
+    private LocalDate date() {
+        return START.plusDays(rnd.nextInt(3_650));
+    }
+
+    // ---- ENTITIES ----
+
+    public List<Book> books(int n) {
+        List<Book> books = new ArrayList<>(n);
+        for (int i = 1; i <= n; i++) {
+            books.add(new Book(i, title(), rnd.nextInt(10) == 0 ? null : 1 + rnd.nextInt(200),
+                    CATEGORIES[rnd.nextInt(CATEGORIES.length)], BOOK_TYPES[rnd.nextInt(BOOK_TYPES.length)],
+                    price(), rnd.nextInt(4) != 0));
+        }
+        return books;
+    }
+
+    // ---- RESULT SETS (same column labels as the DAO queries) ----
+
+    /** Rows of BookDAO's SELECT_ALL. */
+    public FakeResultSet bookRows(int n) {
+        String[] labels = { "book_id", "title", "publisher_id", "category", "book_type", "original_price", "available" };
+        int[] types = { Types.INTEGER, Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.VARCHAR, Types.DECIMAL, Types.BOOLEAN };
+        Object[][] rows = new Object[n][];
+        for (Book b : books(n)) {
+            rows[b.getBookId() - 1] = new Object[] {
+                    b.getBookId(), b.getTitle(), b.getPublisherId(), b.getCategory(), b.getBookType(),
+                    b.getOriginalPrice(), b.isAvailable()
+            };
+        }
+        return new FakeResultSet(labels, types, rows);
+    }
+
+    /** Rows of LoanDAO's SELECT_ALL; about a third of the loans are still open (return_date NULL). */
+    public FakeResultSet loanRows(int n) {
+        String[] labels = { "loan_id", "borrower_id", "book_id", "loan_date", "due_date", "return_date" };
+        int[] types = { Types.INTEGER, Types.INTEGER, Types.INTEGER, Types.DATE, Types.DATE, Types.DATE };
+        Object[][] rows = new Object[n][];
+        for (int i = 0; i < n; i++) {
+            LocalDate loaned = date();
+            LocalDate due = loaned.plusDays(14);
+            LocalDate returned = rnd.nextInt(3) == 0 ? null : loaned.plusDays(1 + rnd.nextInt(30));
+            rows[i] = new Object[] {
+                    i + 1, 1 + rnd.nextInt(5_000), 1 + rnd.nextInt(20_000),
+                    Date.valueOf(loaned), Date.valueOf(due), returned == null ? null : Date.valueOf(returned)
+            };
+        }
+        return new FakeResultSet(labels, types, rows);
+    }
+
+    /** Rows shaped like ReportDAO's sold-books report: book_id, title, sale_price, sale_date. */
+    public FakeResultSet soldBookRows(int n) {
+        String[] labels = { "book_id", "title", "sale_price", "sale_date" };
+        int[] types = { Types.INTEGER, Types.VARCHAR, Types.DECIMAL, Types.DATE };
+        Object[][] rows = new Object[n][];
+        for (int i = 0; i < n; i++) {
+            rows[i] = new Object[] { 1 + rnd.nextInt(20_000), title(), price(), Date.valueOf(date()) };
+        }
+        return new FakeResultSet(labels, types, rows);
+    }
+}
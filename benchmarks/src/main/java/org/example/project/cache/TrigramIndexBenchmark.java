@@ -0,0 +1,45 @@
+package org.example.project.cache;
+
+import org.example.project.bench.SyntheticData;
+import org.example.project.model.Book;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TrigramIndex#search} over the book catalogue with the Books tab's search text.
+ * The index is built once in setup; compare with {@code SearchFilterBenchmark} at the same
+ * row count for the linear scan it replaces.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class TrigramIndexBenchmark {
+
+    @Param({"1000000"})
+    int rows;
+
+    @Param({"garden", "river sci", "zzz"})
+    String query;
+
+    private TrigramIndex<Book> index;
+
+    @Setup
+    public void setUp() throws SQLException {
+        List<Book> books = new SyntheticData(SyntheticData.DEFAULT_SEED).books(rows);
+        EntityCache<Book> cache = new EntityCache<>("bench", () -> books, ids -> List.of(), Book::getBookId);
+        index = new TrigramIndex<>(cache,
+                b -> TrigramIndex.text(b.getBookId(), b.getTitle(), b.getCategory(), b.getBookType()));
+        index.search("");   // build
+    }
+
+    @Benchmark
+    public List<Book> search() throws SQLException {
+        return index.search(query);
+    }
+}
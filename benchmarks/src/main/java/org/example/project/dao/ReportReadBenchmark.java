@@ -0,0 +1,37 @@
+package org.example.project.dao;
+
+import org.example.project.bench.FakeResultSet;
+import org.example.project.bench.SyntheticData;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-process half of ReportDAO.run: reading a result set into a columnar ReportTable.
+ * (The other half is the round trip to MySQL, which a fake result set cannot stand in for.)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReportReadBenchmark {
+
+    @Param({"1000", "100000"})
+    int rows;
+
+    private FakeResultSet soldBooks;
+
+    @Setup
+    public void setUp() {
+        soldBooks = new SyntheticData(SyntheticData.DEFAULT_SEED).soldBookRows(rows);
+    }
+
+    @Benchmark
+    public ReportTable readReport() throws SQLException {
+        soldBooks.rewind();
+        return ReportTable.read(soldBooks);
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.project.dao;
+
+import org.example.project.bench.FakeResultSet;
+import org.example.project.bench.SyntheticData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/** BookDAO.map / LoanDAO.map over an in-memory result set: the per-row cost of findAll and paging. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @Param({"1000"})
+    int rows;
+
+    private FakeResultSet books;
+    private FakeResultSet loans;
+
+    @Setup
+    public void setUp() {
+        SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        books = data.bookRows(rows);
+        loans = data.loanRows(rows);
+    }
+
+    @Benchmark
+    public void mapBooks(Blackhole bh) throws SQLException {
+        books.rewind();
+        while (books.next()) bh.consume(BookDAO.map(books));
+    }
+
+    @Benchmark
+    public void mapLoans(Blackhole bh) throws SQLException {
+        loans.rewind();
+        while (loans.next()) bh.consume(LoanDAO.map(loans));
+    }
+}
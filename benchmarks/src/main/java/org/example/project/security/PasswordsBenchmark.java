@@ -0,0 +1,23 @@
+package org.example.project.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** One login / signup hash. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordsBenchmark {
+
+    private final String password = "correct horse battery staple";
+    private final String salt = "9f86d081884c7d659a2feaa0c55ad015";
+
+    @Benchmark
+    public String hashWithSalt() {
+        return Passwords.hashWithSalt(password, salt);
+    }
+}
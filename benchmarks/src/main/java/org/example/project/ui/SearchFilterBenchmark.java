@@ -0,0 +1,65 @@
+package org.example.project.ui;
+
+import org.example.project.bench.SyntheticData;
+import org.example.project.cache.TrigramIndex;
+import org.example.project.dao.ReportTable;
+import org.example.project.model.Book;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The in-memory multi-token filters: the Reports tab filter (MainView.rowIndices, which builds
+ * each row's text with a StringBuilder) and the entity tabs' SearchPipeline, both a fresh
+ * search (index + filter) and a refinement of a previous result.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchFilterBenchmark {
+
+    @Param({"10000"})
+    int rows;
+
+    @Param({"garden", "river sci", "zzz"})
+    String query;
+
+    // same search text as the Books tab (BookDAO.SEARCH_INDEX)
+    private static final Function<Book, String> BOOK_TEXT =
+            b -> TrigramIndex.text(b.getBookId(), b.getTitle(), b.getCategory(), b.getBookType());
+
+    private String[] tokens;
+    private ReportTable report;
+    private List<Book> books;
+    private List<SearchPipeline.Row<Book>> indexed;
+
+    @Setup
+    public void setUp() throws SQLException {
+        SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED);
+        report = ReportTable.read(data.soldBookRows(rows));
+        books = data.books(rows);
+        indexed = SearchPipeline.index(books, BOOK_TEXT);
+        tokens = query.split("\\s+");
+    }
+
+    @Benchmark
+    public List<Integer> reportRowIndices() {
+        return MainView.rowIndices(report, tokens);
+    }
+
+    @Benchmark
+    public List<SearchPipeline.Row<Book>> searchPipelineFresh() {
+        return SearchPipeline.filter(SearchPipeline.index(books, BOOK_TEXT), tokens);
+    }
+
+    @Benchmark
+    public List<SearchPipeline.Row<Book>> searchPipelineRefine() {
+        return SearchPipeline.filter(indexed, tokens);
+    }
+}
@@ -11,9 +11,13 @@ module org.example.project {
     requires eu.hansolo.tilesfx;
     requires com.almasb.fxgl.all;
     requires java.sql;
+    requires java.management;
+    requires java.logging;
+    requires jdk.jfr;
 
     opens org.example.project to javafx.fxml;
     exports org.example.project;
     exports org.example.project.ui;
+    exports org.example.project.db to java.management;
     opens org.example.project.ui to javafx.fxml;
 }
\ No newline at end of file
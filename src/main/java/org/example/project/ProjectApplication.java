@@ -5,8 +5,12 @@ import javafx.scene.Scene;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
 import org.example.project.dao.UserDAO;
-import org.example.project.model.User;
+import org.example.project.db.DatabaseConnection;
+import org.example.project.db.Migrations;
+import org.example.project.jfr.ContinuousRecording;
 import org.example.project.ui.Dialogs;
+import org.example.project.ui.FxAsync;
+import org.example.project.ui.FxWatchdog;
 import org.example.project.ui.LoginView;
 import org.example.project.ui.MainView;
 import org.example.project.ui.WelcomeView;
@@ -21,6 +25,9 @@ public class ProjectApplication extends Application {
     @Override
     public void start(Stage stage) {
         primaryStage = stage;
+        ContinuousRecording.start();
+        FxWatchdog.start();
+        Migrations.runAtLaunch();
 
         mainScene = new Scene(new StackPane(), 1280, 720);
         mainScene.setFill(javafx.scene.paint.Color.web(MAIN_COLOR));
@@ -42,6 +49,12 @@ public class ProjectApplication extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        FxWatchdog.stop();
+        DatabaseConnection.shutdown();
+    }
+
     public static void attachLoginHandler(LoginView loginView) {
         loginView.getLoginButton().setOnAction(e -> {
             String uname = loginView.getUsernameField().getText().trim();
@@ -52,20 +65,17 @@ public class ProjectApplication extends Application {
                 return;
             }
 
-            try {
-                User user = UserDAO.login(uname, pwd);
-
+            FxAsync.run(() -> UserDAO.login(uname, pwd), user -> {
                 if (user == null) {
                     Dialogs.showInfo("Error", "Invalid username or password");
                     return;
                 }
 
                 mainScene.setRoot(new MainView(user));
-
-            } catch (Exception ex) {
+            }, ex -> {
                 ex.printStackTrace();
                 Dialogs.showInfo("Error", ex.getMessage());
-            }
+            });
         });
     }
 
@@ -0,0 +1,327 @@
+package org.example.project.cache;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.example.project.dao.AsyncDAO;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Process-wide copy of one table, keyed by primary key.
+ * Loaded on first use, then kept in step by the owning DAO's write hooks
+ * ({@link #put}, {@link #update}, {@link #remove}); {@link #invalidate()} forces a reload
+ * when a write may have touched rows the DAO cannot describe (cascades).
+ * Rows are also mirrored into a read-only ObservableList updated on the FX thread.
+ * <p>
+ * Lookups by id ({@link #get}, {@link #getAll}) use the loaded table when there is one;
+ * otherwise they go through a small LRU "near cache" of recently fetched rows
+ * ({@code -Dlibrary.cache.nearSize}, default 256) kept current by the same write hooks,
+ * and only ids missing from it are read, by primary key.
+ * <p>
+ * A cache built with {@code holdsTable = false} never keeps the table: {@link #all()} reads it
+ * through every time and lookups only use the near cache. That is for tables that grow without
+ * bound (loans, sales), which the UI pages through instead of holding in memory.
+ */
+public final class EntityCache<T> {
+
+    private static final List<EntityCache<?>> REGISTRY = new CopyOnWriteArrayList<>();
+    private static final int NEAR_SIZE = Integer.getInteger("library.cache.nearSize", 256);
+
+    /** Reads the rows for some ids by primary key; unknown ids are simply absent from the result. */
+    @FunctionalInterface
+    public interface ByIds<T> {
+        List<T> load(Collection<Integer> ids) throws SQLException;
+    }
+
+    /**
+     * Told about every change to the loaded rows, under the cache lock (keep it cheap);
+     * used by indexes derived from the table such as {@link TrigramIndex}.
+     */
+    public interface Listener<T> {
+        void put(T row);
+        void removed(int id);
+        void invalidated();
+    }
+
+    private final String name;
+    private final AsyncDAO.SqlCall<List<T>> loader;
+    private final ByIds<T> byIds;
+    private final ToIntFunction<T> idOf;
+    private final boolean holdsTable;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Map<Integer, T> rows;   // null = not loaded; replaced/mutated under lock
+    private volatile boolean observed;
+
+    // recently looked-up rows while the table is not loaded; guarded by lock
+    private final Map<Integer, T> near = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, T> eldest) {
+            return size() > NEAR_SIZE;
+        }
+    };
+    private long nearGeneration;             // bumped by every write; stale point reads are not stored
+
+    private final List<Listener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final ObservableList<T> readOnlyItems = FXCollections.unmodifiableObservableList(items);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong pointLoads = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public EntityCache(String name, AsyncDAO.SqlCall<List<T>> loader, ByIds<T> byIds, ToIntFunction<T> idOf) {
+        this(name, loader, byIds, idOf, true);
+    }
+
+    public EntityCache(String name, AsyncDAO.SqlCall<List<T>> loader, ByIds<T> byIds, ToIntFunction<T> idOf,
+                       boolean holdsTable) {
+        this.name = name;
+        this.loader = loader;
+        this.byIds = byIds;
+        this.idOf = idOf;
+        this.holdsTable = holdsTable;
+        REGISTRY.add(this);
+    }
+
+    /**
+     * All rows in load order; the first call (and the first after an invalidation) reads the table.
+     * Without {@code holdsTable} every call reads it.
+     */
+    public List<T> all() throws SQLException {
+        if (!holdsTable) {
+            loads.incrementAndGet();
+            return loader.call();
+        }
+        lock.lock();
+        try {
+            if (rows == null) {
+                loads.incrementAndGet();
+                List<T> loaded = loader.call();
+                Map<Integer, T> byId = new LinkedHashMap<>(Math.max(16, loaded.size() * 4 / 3 + 1));
+                for (T row : loaded) byId.put(idOf.applyAsInt(row), row);
+                rows = byId;
+                List<T> snapshot = List.copyOf(byId.values());
+                fx(() -> items.setAll(snapshot));
+                return snapshot;
+            }
+            hits.incrementAndGet();
+            return List.copyOf(rows.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Live, read-only view of the cached rows, updated on the FX thread.
+     * Starts a background load if the cache is cold. Not available without {@code holdsTable}.
+     */
+    public ObservableList<T> items() {
+        if (!holdsTable) throw new IllegalStateException("The " + name + " cache does not hold its table");
+        observed = true;
+        if (!isLoaded()) preload();
+        return readOnlyItems;
+    }
+
+    public boolean isLoaded() {
+        return rows != null;
+    }
+
+    /** The row with this id, or null if there is none; no query if the table or the row is cached. */
+    public T get(int id) throws SQLException {
+        return getAll(List.of(id)).get(id);
+    }
+
+    /** Rows for the ids, keyed by id in the order given; ids with no row are left out. */
+    public Map<Integer, T> getAll(Collection<Integer> ids) throws SQLException {
+        Map<Integer, T> found = new LinkedHashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        long generation;
+        lock.lock();
+        try {
+            Map<Integer, T> source = rows != null ? rows : near;
+            for (Integer id : ids) {
+                T row = source.get(id);
+                if (row != null) found.put(id, row);
+                else if (rows == null) missing.add(id);
+            }
+            generation = nearGeneration;
+        } finally {
+            lock.unlock();
+        }
+        if (missing.isEmpty()) {
+            hits.incrementAndGet();
+            return found;
+        }
+
+        pointLoads.incrementAndGet();
+        List<T> loaded = byIds.load(missing);
+        Map<Integer, T> byId = new LinkedHashMap<>();
+        for (T row : loaded) byId.put(idOf.applyAsInt(row), row);
+
+        lock.lock();
+        try {
+            if (nearGeneration == generation) near.putAll(byId);
+        } finally {
+            lock.unlock();
+        }
+        Map<Integer, T> ordered = new LinkedHashMap<>();
+        for (Integer id : ids) {
+            T row = found.containsKey(id) ? found.get(id) : byId.get(id);
+            if (row != null) ordered.put(id, row);
+        }
+        return ordered;
+    }
+
+    // ---- WRITE HOOKS (call after the statement succeeded) ----
+
+    /** Inserts or replaces a row. */
+    public void put(T row) {
+        int id = idOf.applyAsInt(row);
+        lock.lock();
+        try {
+            nearGeneration++;
+            near.put(id, row);               // a just-written row is the likeliest next lookup
+            if (rows == null) return;
+            writes.incrementAndGet();
+            rows.put(id, row);
+            for (Listener<T> l : listeners) l.put(row);
+            fx(() -> replaceOrAdd(id, row));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Replaces a cached row with a modified copy; used for partial updates (price, contact...). */
+    public void update(int id, UnaryOperator<T> change) {
+        lock.lock();
+        try {
+            nearGeneration++;
+            near.computeIfPresent(id, (k, row) -> change.apply(row));
+            if (rows == null) return;
+            T current = rows.get(id);
+            if (current == null) return;
+            T next = change.apply(current);
+            writes.incrementAndGet();
+            rows.put(id, next);
+            for (Listener<T> l : listeners) l.put(next);
+            fx(() -> replaceOrAdd(id, next));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.lock();
+        try {
+            nearGeneration++;
+            near.remove(id);
+            if (rows == null) return;
+            writes.incrementAndGet();
+            if (rows.remove(id) != null) {
+                for (Listener<T> l : listeners) l.removed(id);
+                fx(() -> items.removeIf(r -> idOf.applyAsInt(r) == id));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Drops everything; the next read reloads (immediately, if the ObservableList is in use). */
+    public void invalidate() {
+        lock.lock();
+        try {
+            nearGeneration++;
+            near.clear();
+            if (rows == null) return;
+            invalidations.incrementAndGet();
+            rows = null;
+            for (Listener<T> l : listeners) l.invalidated();
+        } finally {
+            lock.unlock();
+        }
+        if (observed) preload();
+    }
+
+    public void addListener(Listener<T> listener) {
+        listeners.add(listener);
+    }
+
+    ToIntFunction<T> idOf() {
+        return idOf;
+    }
+
+    private void preload() {
+        AsyncDAO.supply(this::all).exceptionally(e -> {
+            e.printStackTrace();
+            return null;
+        });
+    }
+
+    private void replaceOrAdd(int id, T row) {
+        for (int i = 0; i < items.size(); i++) {
+            if (idOf.applyAsInt(items.get(i)) == id) {
+                items.set(i, row);
+                return;
+            }
+        }
+        items.add(row);
+    }
+
+    private static void fx(Runnable r) {
+        if (Platform.isFxApplicationThread()) {
+            r.run();
+            return;
+        }
+        try {
+            Platform.runLater(r);
+        } catch (IllegalStateException toolkitNotRunning) {
+            r.run();
+        }
+    }
+
+    // ---- STATS ----
+    public String name() { return name; }
+    public long hits() { return hits.get(); }
+    /** Full-table reads so far (first load plus reloads after invalidation). */
+    public long loads() { return loads.get(); }
+    /** Primary-key reads for ids that were not cached. */
+    public long pointLoads() { return pointLoads.get(); }
+    public long writes() { return writes.get(); }
+    public long invalidations() { return invalidations.get(); }
+
+    public int size() {
+        Map<Integer, T> r = rows;
+        return r == null ? 0 : r.size();
+    }
+
+    public double hitRatio() {
+        long h = hits.get(), l = loads.get();
+        return h + l == 0 ? 0.0 : (double) h / (h + l);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d rows, %d hits, %d loads (%.1f%% hit), %d point loads, %d writes, %d invalidations",
+                name, size(), hits(), loads(), hitRatio() * 100, pointLoads(), writes(), invalidations());
+    }
+
+    /** Every cache created so far, for diagnostics. */
+    public static List<EntityCache<?>> registered() {
+        return List.copyOf(REGISTRY);
+    }
+}
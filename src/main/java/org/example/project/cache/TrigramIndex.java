@@ -0,0 +1,416 @@
+package org.example.project.cache;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Substring search over an {@link EntityCache} through a trigram inverted index.
+ * <p>
+ * Every row's lowercase search text is cut into overlapping 3-character grams; each gram maps
+ * to a sorted int[] of the rows containing it. A query token of 3+ characters can only match
+ * rows present in the posting list of every one of its grams, so the lists are intersected
+ * (smallest first, galloping through the longer ones) and only the surviving candidates are
+ * checked with {@code String.contains}. Tokens of 1-2 characters have no grams and are only
+ * checked on the candidates (or on every row, if no token has grams).
+ * <p>
+ * Built from the cache on the first search and kept current by its write hooks; an
+ * invalidated cache drops the index, which is rebuilt on the next search. Removed and
+ * replaced rows leave tombstones that are compacted away once they outnumber live rows.
+ */
+public final class TrigramIndex<T> {
+
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    private final EntityCache<T> cache;
+    private final ToIntFunction<T> idOf;
+    private final Function<T, String> searchText;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong changes = new AtomicLong();     // cache events seen; a rebuild racing one retries
+    private boolean built;
+
+    // documents, numbered densely in insertion order; guarded by lock
+    private Object[] rows = new Object[16];
+    private String[] texts = new String[16];
+    private boolean[] dead = new boolean[16];
+    private int docs;
+    private int deadDocs;
+    private final LongIntMap docOfId = new LongIntMap();
+
+    // gram -> slot -> sorted doc numbers
+    private final LongIntMap slotOfGram = new LongIntMap();
+    private int[][] postings = new int[256][];
+    private int[] postingSizes = new int[256];
+    private int slots;
+
+    public TrigramIndex(EntityCache<T> cache, Function<T, String> searchText) {
+        this.cache = cache;
+        this.idOf = cache.idOf();
+        this.searchText = searchText;
+        cache.addListener(new EntityCache.Listener<>() {
+            @Override
+            public void put(T row) {
+                changes.incrementAndGet();
+                write(() -> { if (built) add(row); });
+            }
+
+            @Override
+            public void removed(int id) {
+                changes.incrementAndGet();
+                write(() -> { if (built) delete(id); });
+            }
+
+            @Override
+            public void invalidated() {
+                changes.incrementAndGet();
+                write(() -> built = false);
+            }
+        });
+    }
+
+    /**
+     * Rows whose search text contains every whitespace-separated token of the query
+     * (case-insensitive), in cache order except that rows changed since the index was built
+     * come last. A blank query matches every row.
+     */
+    public List<T> search(String query) throws SQLException {
+        String[] tokens = tokens(query);
+        ensureBuilt();
+        lock.readLock().lock();
+        try {
+            return matches(tokens);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Rows currently indexed (tombstones excluded); 0 until the first search. */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return built ? docs - deadDocs : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- BUILD ----
+
+    private void ensureBuilt() throws SQLException {
+        while (true) {
+            lock.readLock().lock();
+            try {
+                if (built) return;
+            } finally {
+                lock.readLock().unlock();
+            }
+            long seen = changes.get();
+            List<T> snapshot = cache.all();            // outside our lock: the cache calls us under its own
+            lock.writeLock().lock();
+            try {
+                if (built) return;
+                if (changes.get() != seen) continue;   // a write landed between the read and now
+                rebuild(snapshot);
+                built = true;
+                return;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void rebuild(Collection<T> snapshot) {
+        int capacity = Math.max(16, snapshot.size());
+        rows = new Object[capacity];
+        texts = new String[capacity];
+        dead = new boolean[capacity];
+        docs = 0;
+        deadDocs = 0;
+        docOfId.clear();
+        slotOfGram.clear();
+        postings = new int[256][];
+        postingSizes = new int[256];
+        slots = 0;
+        for (T row : snapshot) add(row);
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---- INCREMENTAL UPDATES (write lock held) ----
+
+    private void add(T row) {
+        int id = idOf.applyAsInt(row);
+        delete(id);
+        if (docs == rows.length) {
+            int capacity = docs * 2;
+            rows = Arrays.copyOf(rows, capacity);
+            texts = Arrays.copyOf(texts, capacity);
+            dead = Arrays.copyOf(dead, capacity);
+        }
+        int doc = docs++;
+        String text = normalize(searchText.apply(row));
+        rows[doc] = row;
+        texts[doc] = text;
+        docOfId.put(id, doc);
+
+        for (int i = 0; i + 3 <= text.length(); i++) {
+            int slot = slotOfGram.get(gram(text, i));
+            if (slot < 0) {
+                slot = newSlot();
+                slotOfGram.put(gram(text, i), slot);
+            }
+            int size = postingSizes[slot];
+            int[] list = postings[slot];
+            if (size > 0 && list[size - 1] == doc) continue;   // gram repeated within this row
+            if (size == list.length) postings[slot] = list = Arrays.copyOf(list, size * 2);
+            list[size] = doc;
+            postingSizes[slot] = size + 1;
+        }
+    }
+
+    private void delete(int id) {
+        int doc = docOfId.remove(id);
+        if (doc < 0) return;
+        dead[doc] = true;
+        rows[doc] = null;
+        deadDocs++;
+        if (deadDocs >= COMPACT_MIN_DEAD && deadDocs > docs - deadDocs) compact();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void compact() {
+        List<T> live = new ArrayList<>(docs - deadDocs);
+        for (int doc = 0; doc < docs; doc++) if (!dead[doc]) live.add((T) rows[doc]);
+        rebuild(live);
+    }
+
+    private int newSlot() {
+        if (slots == postings.length) {
+            postings = Arrays.copyOf(postings, slots * 2);
+            postingSizes = Arrays.copyOf(postingSizes, slots * 2);
+        }
+        postings[slots] = new int[4];
+        return slots++;
+    }
+
+    // ---- QUERY (read lock held) ----
+
+    @SuppressWarnings("unchecked")
+    private List<T> matches(String[] tokens) {
+        int[] candidates = candidates(tokens);
+        int count = candidates == null ? docs : candidates.length;
+        List<T> out = new ArrayList<>(candidates == null ? 16 : count);
+        for (int i = 0; i < count; i++) {
+            int doc = candidates == null ? i : candidates[i];
+            if (dead[doc]) continue;
+            String text = texts[doc];
+            boolean all = true;
+            for (String token : tokens) {
+                if (!text.contains(token)) { all = false; break; }
+            }
+            if (all) out.add((T) rows[doc]);
+        }
+        return out;
+    }
+
+    /**
+     * Docs that may match, ascending: those holding every gram of every token, or a superset of
+     * them when the longest lists were not worth intersecting. Null when no token has a gram.
+     */
+    private int[] candidates(String[] tokens) {
+        List<Integer> lists = new ArrayList<>();
+        for (String token : tokens) {
+            for (int i = 0; i + 3 <= token.length(); i++) {
+                int slot = slotOfGram.get(gram(token, i));
+                if (slot < 0) return new int[0];       // a gram no row has: nothing can match
+                if (!lists.contains(slot)) lists.add(slot);
+            }
+        }
+        if (lists.isEmpty()) return null;
+        lists.sort((a, b) -> Integer.compare(postingSizes[a], postingSizes[b]));
+
+        int first = lists.get(0);
+        int[] result = Arrays.copyOf(postings[first], postingSizes[first]);
+        int size = result.length;
+        for (int k = 1; k < lists.size(); k++) {
+            int slot = lists.get(k);
+            // the verify pass is exact, so once few candidates are left checking them beats walking long lists
+            if (size * 8L < postingSizes[slot]) break;
+            size = intersect(result, size, postings[slot], postingSizes[slot]);
+            if (size == 0) return new int[0];
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Keeps the elements of a[0..aSize) also present in b[0..bSize), in place; both ascending.
+     * Gallops through b when it is much longer than a.
+     */
+    static int intersect(int[] a, int aSize, int[] b, int bSize) {
+        if (bSize < aSize * 8L) return merge(a, aSize, b, bSize);
+        int out = 0;
+        int lo = 0;
+        for (int i = 0; i < aSize && lo < bSize; i++) {
+            int x = a[i];
+            // gallop: double the step until b[hi] >= x, then binary search the last window
+            int step = 1;
+            int hi = lo;
+            while (hi < bSize && b[hi] < x) {
+                lo = hi + 1;
+                hi += step;
+                step <<= 1;
+            }
+            int at = Arrays.binarySearch(b, lo, Math.min(hi + 1, bSize), x);
+            if (at >= 0) {
+                a[out++] = x;
+                lo = at + 1;
+            } else {
+                lo = -at - 1;
+            }
+        }
+        return out;
+    }
+
+    /** Linear merge; cheaper than galloping when the lists are of similar length. */
+    private static int merge(int[] a, int aSize, int[] b, int bSize) {
+        int out = 0;
+        int i = 0, j = 0;
+        while (i < aSize && j < bSize) {
+            int x = a[i], y = b[j];
+            if (x < y) i++;
+            else if (x > y) j++;
+            else {
+                a[out++] = x;
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    // ---- TEXT ----
+
+    /** Joins the non-null parts with spaces; handy for building a row's search text. */
+    public static String text(Object... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (Object p : parts) if (p != null) sb.append(p).append(' ');
+        return sb.toString();
+    }
+
+    static String[] tokens(String query) {
+        String q = normalize(query).trim();
+        if (q.isEmpty()) return new String[0];
+        return q.split("\\s+");
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static long gram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    // ---- PRIMITIVE MAP ----
+
+    /** Open-addressing long -> int map (non-negative values; -1 = absent), linear probing. */
+    static final class LongIntMap {
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private long[] keys = newKeys(64);
+        private int[] values = new int[64];
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                long k = keys[i];
+                if (k == key) return values[i];
+                if (k == EMPTY) return -1;
+            }
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) resize(keys.length * 2);
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    values[i] = value;
+                    return;
+                }
+                if (keys[i] == EMPTY) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return;
+                }
+            }
+        }
+
+        /** Removes the key and returns its value, or -1; backward-shift deletion keeps probes tombstone-free. */
+        int remove(long key) {
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (keys[i] != key) {
+                if (keys[i] == EMPTY) return -1;
+                i = (i + 1) & mask;
+            }
+            int value = values[i];
+            int hole = i;
+            for (int j = (i + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+                int home = hash(keys[j]) & mask;
+                // move j into the hole unless its home lies cyclically in (hole, j]
+                boolean stays = hole <= j ? (home > hole && home <= j) : (home > hole || home <= j);
+                if (!stays) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    hole = j;
+                }
+            }
+            keys[hole] = EMPTY;
+            size--;
+            return value;
+        }
+
+        void clear() {
+            keys = newKeys(64);
+            values = new int[64];
+            size = 0;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(capacity);
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+        }
+
+        private static long[] newKeys(int capacity) {
+            long[] k = new long[capacity];
+            Arrays.fill(k, EMPTY);
+            return k;
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
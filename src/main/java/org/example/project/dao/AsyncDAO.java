@@ -0,0 +1,46 @@
+package org.example.project.dao;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs DAO calls on virtual threads so callers (the JavaFX thread in particular)
+ * never block on JDBC. Usage: {@code AsyncDAO.supply(BookDAO::findAll)}.
+ */
+public final class AsyncDAO {
+
+    @FunctionalInterface
+    public interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface SqlRunnable {
+        void run() throws SQLException;
+    }
+
+    private static final ExecutorService EXECUTOR =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("dao-", 0).factory());
+
+    private AsyncDAO() {}
+
+    public static <T> CompletableFuture<T> supply(SqlCall<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        }, EXECUTOR);
+    }
+
+    public static CompletableFuture<Void> run(SqlRunnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+}
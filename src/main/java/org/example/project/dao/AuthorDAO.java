@@ -1,28 +1,118 @@
 package org.example.project.dao;
 
+import org.example.project.cache.EntityCache;
 import org.example.project.db.DatabaseConnection;
 import org.example.project.model.Author;
 import org.example.project.util.ValidationUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class AuthorDAO {
 
+    private static final String SELECT_ALL = "SELECT author_id, first_name, last_name, country, bio FROM author";
+
+    private static final EntityCache<Author> CACHE = new EntityCache<>("author", AuthorDAO::loadAll, AuthorDAO::loadByIds, Author::getAuthorId);
+
     // 🔹 Get all authors
     public static List<Author> findAll() throws SQLException {
+        return CACHE.all();
+    }
+
+    public static EntityCache<Author> cache() {
+        return CACHE;
+    }
+
+    /** The author with this id, or null; O(1) when the table or the row is already cached. */
+    public static Author findById(int id) throws SQLException {
+        return CACHE.get(id);
+    }
+
+    /** Rows for the ids, keyed by id in the order given (unknown ids left out); uncached ids are read in chunked IN lists. */
+    public static Map<Integer, Author> findByIds(Collection<Integer> ids) throws SQLException {
+        return CACHE.getAll(ids);
+    }
+
+    /** Orderings available to {@link #findPage}; ties are broken by author_id. */
+    public enum SortKey {
+        ID(null),
+        LAST_NAME("last_name");
+
+        final String column;
+        SortKey(String column) { this.column = column; }
+    }
+
+    /** Keyset page: up to pageSize rows after the row with id afterId (0 = first page). */
+    public static Page<Author> findPage(int afterId, int pageSize, SortKey sort) throws SQLException {
+        return Keyset.page(SELECT_ALL, "author", "author_id", sort.column,
+                afterId, pageSize, AuthorDAO::map, Author::getAuthorId);
+    }
+
+    /** Columns offered by the Authors tab's filter; see {@link #distinctValues}. */
+    public enum FilterColumn {
+        ID("author_id"),
+        NAME("CONCAT(first_name, ' ', last_name)", "CONCAT(first_name, ' ', last_name)", "last_name"),
+        COUNTRY("country");
+
+        final String expression;
+        final String[] prefixTests;
+        FilterColumn(String expression, String... prefixTests) {
+            this.expression = expression;
+            this.prefixTests = prefixTests;
+        }
+    }
+
+    // one query per filter column, matching values the way the value list does (ids exactly, text by prefix)
+    private static final Map<FilterColumn, FilterQuery<Author>> BY_COLUMN = new EnumMap<>(FilterColumn.class);
+    static {
+        for (FilterColumn column : FilterColumn.values()) {
+            BY_COLUMN.put(column, new FilterQuery<>(SELECT_ALL, AuthorDAO::map, column == FilterColumn.ID
+                    ? FilterQuery.exact(column.expression)
+                    : FilterQuery.valuePrefix(column.expression, column.prefixTests)));
+        }
+    }
+
+    /** Rows whose column matches a picked or typed filter value; see {@link #distinctValues}. */
+    public static List<Author> findByFilter(FilterColumn column, String value) throws SQLException {
+        return BY_COLUMN.get(column).list(value);
+    }
+
+    /** Up to {@code limit} distinct values of the column, sorted; only those starting with {@code prefix} unless it is blank. */
+    public static List<String> distinctValues(FilterColumn column, String prefix, int limit) throws SQLException {
+        return DistinctValues.list("author", column.expression, column.prefixTests, prefix, limit);
+    }
+
+    /** Streams every row without buffering the table; close the stream (try-with-resources). */
+    public static Stream<Author> streamAll() throws SQLException {
+        return JdbcStreams.stream(SELECT_ALL, JdbcStreams.Binder.NONE, AuthorDAO::map);
+    }
+
+    /** Pushes every row to the consumer as it is read; returns the row count. */
+    public static long forEach(Consumer<? super Author> sink) throws SQLException {
+        return JdbcStreams.forEach(SELECT_ALL, JdbcStreams.Binder.NONE, AuthorDAO::map, sink);
+    }
+
+    private static List<Author> loadAll() throws SQLException {
         List<Author> list = new ArrayList<>();
-        String sql = "SELECT author_id, first_name, last_name, country, bio FROM author";
         try (Connection conn = DatabaseConnection.getConnection();
-             Statement st = conn.createStatement();
-             ResultSet rs = st.executeQuery(sql)) {
+             PreparedStatement ps = conn.prepareStatement(SELECT_ALL);
+             ResultSet rs = ps.executeQuery()) {
             while (rs.next()) list.add(map(rs));
         }
         return list;
     }
 
-    // 🔹 Search authors by name, country, or bio
+    private static List<Author> loadByIds(Collection<Integer> ids) throws SQLException {
+        return PrimaryKeys.load(SELECT_ALL, "author_id", ids, AuthorDAO::map);
+    }
+
+    // 🔹 Search authors by name, country, or bio (substring match; scans the table)
     public static List<Author> search(String keyword) throws SQLException {
         String sql = """
             SELECT author_id, first_name, last_name, country, bio
@@ -47,6 +137,11 @@ public class AuthorDAO {
         }
     }
 
+    // 🔹 Ranked search over name and bio through the FULLTEXT index, best first (short words use LIKE)
+    public static List<Ranked<Author>> searchRanked(String text, SearchMode mode, int limit) throws SQLException {
+        return FullText.search(SELECT_ALL, "author", "author_id", text, mode, limit, AuthorDAO::map);
+    }
+
     // 🔹 Insert a new author
     public static int insert(String firstName, String lastName, String country, String bio) throws SQLException {
         ValidationUtil.requireNonBlank(firstName, "First name");
@@ -66,9 +161,15 @@ public class AuthorDAO {
             ps.setString(4, bio != null ? bio.trim() : null);
             ps.executeUpdate();
 
+            int id;
             try (ResultSet keys = ps.getGeneratedKeys()) {
-                return keys.next() ? keys.getInt(1) : 0;
+                id = keys.next() ? keys.getInt(1) : 0;
+            }
+            if (id > 0) {
+                CACHE.put(new Author(id, firstName.trim(), lastName.trim(), country != null ? country.trim() : null, bio != null ? bio.trim() : null));
+                ReportCache.tableChanged("author");
             }
+            return id;
         }
     }
 
@@ -90,7 +191,14 @@ public class AuthorDAO {
             ps.setString(3, country != null ? country.trim() : null);
             ps.setString(4, bio != null ? bio.trim() : null);
             ps.setInt(5, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.put(new Author(id, firstName.trim(), lastName.trim(), country != null ? country.trim() : null, bio != null ? bio.trim() : null));
+                ReportCache.tableChanged("author");
+            } else {
+                CACHE.remove(id);
+            }
+            return ok;
         }
     }
     // 🔹 Delete an author
@@ -100,7 +208,12 @@ public class AuthorDAO {
              PreparedStatement ps = conn.prepareStatement(sql)) {
 
             ps.setInt(1, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.remove(id);
+                ReportCache.tableChanged("author");
+            }
+            return ok;
         }
     }
 
@@ -115,31 +228,12 @@ public class AuthorDAO {
         );
     }
 
-    public static List<Author> searchFiltered(String name, String country, String bio) throws SQLException {
-        String sql = """
-        SELECT author_id, first_name, last_name, country, bio
-        FROM author
-        WHERE (? = '' OR CONCAT(first_name, ' ', last_name) LIKE ?)
-          AND (? = '' OR country LIKE ?)
-          AND (? = '' OR bio LIKE ?)
-        """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-
-            ps.setString(1, name);
-            ps.setString(2, "%" + name + "%");
-            ps.setString(3, country);
-            ps.setString(4, "%" + country + "%");
-            ps.setString(5, bio);
-            ps.setString(6, "%" + bio + "%");
+    // 🔹 Filtered search: name and country match from the start, bio anywhere; blank = not filtered
+    private static final FilterQuery<Author> FILTERED = new FilterQuery<>(SELECT_ALL, AuthorDAO::map,
+            FilterQuery.prefix(FilterColumn.NAME.prefixTests), FilterQuery.prefix("country"), FilterQuery.contains("bio"));
 
-            List<Author> list = new ArrayList<>();
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(map(rs));
-            }
-            return list;
-        }
+    public static List<Author> searchFiltered(String name, String country, String bio) throws SQLException {
+        return FILTERED.list(name, country, bio);
     }
 
 }
@@ -1,5 +1,7 @@
 package org.example.project.dao;
 
+import org.example.project.cache.EntityCache;
+import org.example.project.cache.TrigramIndex;
 import org.example.project.db.DatabaseConnection;
 import org.example.project.model.Book;
 import org.example.project.util.ValidationUtil;
@@ -7,13 +9,117 @@ import org.example.project.util.ValidationUtil;
 import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
 
 public class BookDAO {
+    private static final String SELECT_ALL = "SELECT book_id, title, publisher_id, category, book_type, original_price, available FROM book";
+
+    private static final String INSERT =
+            "INSERT INTO book (title, publisher_id, category, book_type, original_price, available) VALUES (?,?,?,?,?,?)";
+
+    // rows per executeBatch/commit in insertBatch; -Dlibrary.db.batchChunkSize=...
+    public static final int DEFAULT_BATCH_CHUNK_SIZE = Integer.getInteger("library.db.batchChunkSize", 1000);
+
+    private static final EntityCache<Book> CACHE = new EntityCache<>("book", BookDAO::loadAll, BookDAO::loadByIds, Book::getBookId);
+
+    // substring search over id, title, category and type, kept current by the cache's write hooks
+    private static final TrigramIndex<Book> SEARCH_INDEX = new TrigramIndex<>(CACHE,
+            b -> TrigramIndex.text(b.getBookId(), b.getTitle(), b.getCategory(), b.getBookType()));
+
+    /** Served from the shared cache; the table is read once and kept current by the writes below. */
     public static List<Book> findAll() throws SQLException {
-        String sql = "SELECT book_id, title, publisher_id, category, book_type, original_price, available FROM book";
+        return CACHE.all();
+    }
+
+    public static EntityCache<Book> cache() {
+        return CACHE;
+    }
+
+    /** Trigram index over the cached rows (id, title, category and type); what the search box queries. */
+    public static TrigramIndex<Book> searchIndex() {
+        return SEARCH_INDEX;
+    }
+
+    /** The book with this id, or null; O(1) when the table or the row is already cached. */
+    public static Book findById(int id) throws SQLException {
+        return CACHE.get(id);
+    }
+
+    /** Rows for the ids, keyed by id in the order given (unknown ids left out); uncached ids are read in chunked IN lists. */
+    public static Map<Integer, Book> findByIds(Collection<Integer> ids) throws SQLException {
+        return CACHE.getAll(ids);
+    }
+
+    /** Orderings available to {@link #findPage}; ties are broken by book_id. */
+    public enum SortKey {
+        ID(null),
+        TITLE("title"),
+        CATEGORY("category");
+
+        final String column;
+        SortKey(String column) { this.column = column; }
+    }
+
+    /** Keyset page: up to pageSize rows after the row with id afterId (0 = first page). */
+    public static Page<Book> findPage(int afterId, int pageSize, SortKey sort) throws SQLException {
+        return Keyset.page(SELECT_ALL, "book", "book_id", sort.column,
+                afterId, pageSize, BookDAO::map, Book::getBookId);
+    }
+
+    /** Columns offered by the Books tab's filter; see {@link #distinctValues}. */
+    public enum FilterColumn {
+        ID("book_id"),
+        TITLE("title"),
+        CATEGORY("category"),
+        TYPE("book_type");
+
+        final String expression;
+        final String[] prefixTests;
+        FilterColumn(String expression, String... prefixTests) {
+            this.expression = expression;
+            this.prefixTests = prefixTests;
+        }
+    }
+
+    // one query per filter column, matching values the way the value list does (ids exactly, text by prefix)
+    private static final Map<FilterColumn, FilterQuery<Book>> BY_COLUMN = new EnumMap<>(FilterColumn.class);
+    static {
+        for (FilterColumn column : FilterColumn.values()) {
+            BY_COLUMN.put(column, new FilterQuery<>(SELECT_ALL, BookDAO::map, column == FilterColumn.ID
+                    ? FilterQuery.exact(column.expression)
+                    : FilterQuery.valuePrefix(column.expression, column.prefixTests)));
+        }
+    }
+
+    /** Rows whose column matches a picked or typed filter value; see {@link #distinctValues}. */
+    public static List<Book> findByFilter(FilterColumn column, String value) throws SQLException {
+        return BY_COLUMN.get(column).list(value);
+    }
+
+    /** Up to {@code limit} distinct values of the column, sorted; only those starting with {@code prefix} unless it is blank. */
+    public static List<String> distinctValues(FilterColumn column, String prefix, int limit) throws SQLException {
+        return DistinctValues.list("book", column.expression, column.prefixTests, prefix, limit);
+    }
+
+    /** Streams every row without buffering the table; close the stream (try-with-resources). */
+    public static Stream<Book> streamAll() throws SQLException {
+        return JdbcStreams.stream(SELECT_ALL, JdbcStreams.Binder.NONE, BookDAO::map);
+    }
+
+    /** Pushes every row to the consumer as it is read; returns the row count. */
+    public static long forEach(Consumer<? super Book> sink) throws SQLException {
+        return JdbcStreams.forEach(SELECT_ALL, JdbcStreams.Binder.NONE, BookDAO::map, sink);
+    }
+
+    private static List<Book> loadAll() throws SQLException {
         try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
+             PreparedStatement ps = c.prepareStatement(SELECT_ALL);
              ResultSet rs = ps.executeQuery()) {
             List<Book> list = new ArrayList<>();
             while (rs.next()) {
@@ -22,31 +128,29 @@ public class BookDAO {
             return list;
         }
     }
-    // BookDAO
-    public static List<Book> searchFiltered(String title, String category, String type) throws SQLException {
-        String sql = """
-        SELECT * FROM book
-        WHERE (? = '' OR title LIKE ?)
-          AND (? = '' OR category LIKE ?)
-          AND (? = '' OR book_type LIKE ?)
-    """;
 
-        try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
+    private static List<Book> loadByIds(Collection<Integer> ids) throws SQLException {
+        return PrimaryKeys.load(SELECT_ALL, "book_id", ids, BookDAO::map);
+    }
 
-            ps.setString(1, title); ps.setString(2, "%" + title + "%");
-            ps.setString(3, category); ps.setString(4, "%" + category + "%");
-            ps.setString(5, type); ps.setString(6, "%" + type + "%");
+    // title is free text (contains); category and type are picked from value lists, so prefix
+    private static final FilterQuery<Book> FILTERED = new FilterQuery<>(SELECT_ALL, BookDAO::map,
+            FilterQuery.contains("title"), FilterQuery.prefix("category"), FilterQuery.prefix("book_type"));
 
-            List<Book> list = new ArrayList<>();
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(map(rs));
-            }
-            return list;
-        }
+    /** Books matching every non-blank argument; only those become predicates (see {@link FilterQuery}). */
+    public static List<Book> searchFiltered(String title, String category, String type) throws SQLException {
+        return FILTERED.list(title, category, type);
     }
 
+    /**
+     * Books whose title matches the words, best first (at most limit), through the title's
+     * FULLTEXT index; words under the index's minimum length are matched with LIKE.
+     */
+    public static List<Ranked<Book>> searchRanked(String text, SearchMode mode, int limit) throws SQLException {
+        return FullText.search(SELECT_ALL, "book", "book_id", text, mode, limit, BookDAO::map);
+    }
 
+    /** Substring match on title, category and type; scans the table, see {@link #searchRanked} for titles. */
     public static List<Book> search(String keyword) throws SQLException {
         String sql = "SELECT * FROM book WHERE title LIKE ? OR category LIKE ? OR book_type LIKE ?";
         try (Connection c = DatabaseConnection.getConnection();
@@ -61,9 +165,9 @@ public class BookDAO {
         }
     }
 
-    public static int insert(String title, Integer publisherId, String category, String bookType,
-                             BigDecimal price, boolean available) throws SQLException {
-
+    /** Field rules shared by insert, update and the batch import; throws IllegalArgumentException. */
+    public static void validate(String title, Integer publisherId, String category, String bookType,
+                                BigDecimal price) {
         ValidationUtil.requireNonBlank(title, "Title");
         ValidationUtil.requireNonBlank(category, "Category");
         ValidationUtil.requireNonBlank(bookType, "Book type");
@@ -74,10 +178,15 @@ public class BookDAO {
         if (publisherId != null) {
             ValidationUtil.requirePositive(publisherId, "Publisher ID");
         }
+    }
+
+    public static int insert(String title, Integer publisherId, String category, String bookType,
+                             BigDecimal price, boolean available) throws SQLException {
+
+        validate(title, publisherId, category, bookType, price);
 
-        String sql = "INSERT INTO book (title, publisher_id, category, book_type, original_price, available) VALUES (?,?,?,?,?,?)";
         try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement ps = c.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setString(1, title.trim());
             if (publisherId == null) ps.setNull(2, Types.INTEGER); else ps.setInt(2, publisherId);
@@ -87,26 +196,88 @@ public class BookDAO {
             ps.setBoolean(6, available);
             ps.executeUpdate();
 
+            int id;
             try (ResultSet keys = ps.getGeneratedKeys()) {
-                return keys.next() ? keys.getInt(1) : 0;
+                id = keys.next() ? keys.getInt(1) : 0;
+            }
+            if (id > 0) {
+                CACHE.put(new Book(id, title.trim(), publisherId, category.trim(), bookType.trim(), price, available));
+                ReportCache.tableChanged("book");
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Inserts many books with JDBC batching; the driver rewrites each batch into multi-row
+     * INSERTs (rewriteBatchedStatements). Every chunk of chunkSize rows is its own transaction:
+     * a failing chunk is rolled back and the exception says which rows it covered, while
+     * earlier chunks stay committed. The books' ids are ignored; generated ids are returned
+     * in input order. progress receives the number of rows committed so far.
+     */
+    public static int[] insertBatch(List<Book> books, int chunkSize, IntConsumer progress) throws SQLException {
+        ValidationUtil.requirePositive(chunkSize, "Chunk size");
+        for (Book b : books) {
+            validate(b.getTitle(), b.getPublisherId(), b.getCategory(), b.getBookType(), b.getOriginalPrice());
+        }
+
+        int[] ids = new int[books.size()];
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(INSERT, Statement.RETURN_GENERATED_KEYS)) {
+
+            c.setAutoCommit(false);
+            for (int from = 0; from < books.size(); from += chunkSize) {
+                int to = Math.min(from + chunkSize, books.size());
+                List<Book> chunk = books.subList(from, to);
+                try {
+                    for (Book b : chunk) {
+                        ps.setString(1, b.getTitle().trim());
+                        if (b.getPublisherId() == null) ps.setNull(2, Types.INTEGER); else ps.setInt(2, b.getPublisherId());
+                        ps.setString(3, b.getCategory().trim());
+                        ps.setString(4, b.getBookType().trim());
+                        ps.setBigDecimal(5, b.getOriginalPrice());
+                        ps.setBoolean(6, b.isAvailable());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (int i = from; i < to && keys.next(); i++) ids[i] = keys.getInt(1);
+                    }
+                    c.commit();
+                    ReportCache.tableChanged("book");
+                } catch (SQLException e) {
+                    c.rollback();
+                    ps.clearBatch();
+                    throw new SQLException("Batch insert failed for rows " + (from + 1) + "-" + to
+                            + ": " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+                }
+
+                boolean keyed = true;
+                for (int i = from; i < to; i++) keyed &= ids[i] > 0;
+                if (keyed) {
+                    for (int i = from; i < to; i++) {
+                        Book b = books.get(i);
+                        CACHE.put(new Book(ids[i], b.getTitle().trim(), b.getPublisherId(), b.getCategory().trim(),
+                                b.getBookType().trim(), b.getOriginalPrice(), b.isAvailable()));
+                    }
+                } else {
+                    CACHE.invalidate();   // driver did not report every key; reload instead of guessing
+                }
+                if (progress != null) progress.accept(to);
             }
         }
+        return ids;
+    }
+
+    public static int[] insertBatch(List<Book> books) throws SQLException {
+        return insertBatch(books, DEFAULT_BATCH_CHUNK_SIZE, null);
     }
 
     public static boolean update(int bookId, String title, Integer publisherId, String category,
                                  String bookType, BigDecimal price, boolean available) throws SQLException {
 
         ValidationUtil.requirePositive(bookId, "Book ID");
-        ValidationUtil.requireNonBlank(title, "Title");
-        ValidationUtil.requireNonBlank(category, "Category");
-        ValidationUtil.requireNonBlank(bookType, "Book type");
-        ValidationUtil.requireMaxLength(title, 200, "Title");
-        ValidationUtil.requireMaxLength(category, 100, "Category");
-        ValidationUtil.requireMaxLength(bookType, 50, "Book type");
-        ValidationUtil.requireNonNegative(price, "Original price");
-        if (publisherId != null) {
-            ValidationUtil.requirePositive(publisherId, "Publisher ID");
-        }
+        validate(title, publisherId, category, bookType, price);
 
         String sql = "UPDATE book SET title=?, publisher_id=?, category=?, book_type=?, original_price=?, available=? WHERE book_id=?";
         try (Connection c = DatabaseConnection.getConnection();
@@ -119,7 +290,14 @@ public class BookDAO {
             ps.setBigDecimal(5, price);
             ps.setBoolean(6, available);
             ps.setInt(7, bookId);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.put(new Book(bookId, title.trim(), publisherId, category.trim(), bookType.trim(), price, available));
+                ReportCache.tableChanged("book");
+            } else {
+                CACHE.remove(bookId);
+            }
+            return ok;
         }
     }
 
@@ -133,7 +311,13 @@ public class BookDAO {
 
             ps.setBigDecimal(1, newPrice);
             ps.setInt(2, bookId);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.update(bookId, b -> new Book(b.getBookId(), b.getTitle(), b.getPublisherId(),
+                        b.getCategory(), b.getBookType(), newPrice, b.isAvailable()));
+                ReportCache.tableChanged("book");
+            }
+            return ok;
         }
     }
 
@@ -142,12 +326,27 @@ public class BookDAO {
         String sql = "DELETE FROM book WHERE book_id=?";
         try (Connection c = DatabaseConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
+            // take the cascaded loans/sales out of the monthly totals in the same transaction
+            c.setAutoCommit(false);
+            MonthlyRollups.removeLoansAndSalesOf(c, "book_id", bookId);
             ps.setInt(1, bookId);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            c.commit();
+            if (ok) {
+                CACHE.remove(bookId);
+                // loans/sales of the book may have gone with it (FK cascade)
+                LoanDAO.cache().invalidate();
+                ReportCache.tableChanged("loan");
+                SaleDAO.cache().invalidate();
+                ReportCache.tableChanged("sale");
+                ReportCache.tableChanged("book");
+            }
+            return ok;
         }
     }
 
-    private static Book map(ResultSet rs) throws SQLException {
+    // package-private for the row-mapping benchmarks
+    static Book map(ResultSet rs) throws SQLException {
         return new Book(
                 rs.getInt("book_id"),
                 rs.getString("title"),
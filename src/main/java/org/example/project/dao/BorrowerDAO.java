@@ -1,20 +1,118 @@
 package org.example.project.dao;
 
+import org.example.project.cache.EntityCache;
+import org.example.project.cache.TrigramIndex;
 import org.example.project.db.DatabaseConnection;
 import org.example.project.model.Borrower;
 import org.example.project.util.ValidationUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class BorrowerDAO {
 
+    private static final String SELECT_ALL = "SELECT borrower_id, first_name, last_name, type_id, contact_info FROM borrower";
+
+    private static final EntityCache<Borrower> CACHE = new EntityCache<>("borrower", BorrowerDAO::loadAll, BorrowerDAO::loadByIds, Borrower::getId);
+
+    // substring search over id, names and contact, kept current by the cache's write hooks
+    private static final TrigramIndex<Borrower> SEARCH_INDEX = new TrigramIndex<>(CACHE,
+            b -> TrigramIndex.text(b.getId(), b.getFirstName(), b.getLastName(), b.getContact()));
+
     // ---- READ ALL ----
     public static List<Borrower> findAll() throws SQLException {
-        String sql = "SELECT borrower_id, first_name, last_name, type_id, contact_info FROM borrower";
+        return CACHE.all();
+    }
+
+    public static EntityCache<Borrower> cache() {
+        return CACHE;
+    }
+
+    /** Trigram index over the cached rows (id, names and contact); what the search box queries. */
+    public static TrigramIndex<Borrower> searchIndex() {
+        return SEARCH_INDEX;
+    }
+
+    /** The borrower with this id, or null; O(1) when the table or the row is already cached. */
+    public static Borrower findById(int id) throws SQLException {
+        return CACHE.get(id);
+    }
+
+    /** Rows for the ids, keyed by id in the order given (unknown ids left out); uncached ids are read in chunked IN lists. */
+    public static Map<Integer, Borrower> findByIds(Collection<Integer> ids) throws SQLException {
+        return CACHE.getAll(ids);
+    }
+
+    /** Orderings available to {@link #findPage}; ties are broken by borrower_id. */
+    public enum SortKey {
+        ID(null),
+        LAST_NAME("last_name");
+
+        final String column;
+        SortKey(String column) { this.column = column; }
+    }
+
+    /** Keyset page: up to pageSize rows after the row with id afterId (0 = first page). */
+    public static Page<Borrower> findPage(int afterId, int pageSize, SortKey sort) throws SQLException {
+        return Keyset.page(SELECT_ALL, "borrower", "borrower_id", sort.column,
+                afterId, pageSize, BorrowerDAO::map, Borrower::getId);
+    }
+
+    /** Columns offered by the Borrowers tab's filter; see {@link #distinctValues}. */
+    public enum FilterColumn {
+        ID("borrower_id"),
+        NAME("CONCAT(first_name, ' ', last_name)", "CONCAT(first_name, ' ', last_name)", "last_name"),
+        CONTACT("contact_info"),
+        TYPE("type_id");
+
+        final String expression;
+        final String[] prefixTests;
+        FilterColumn(String expression, String... prefixTests) {
+            this.expression = expression;
+            this.prefixTests = prefixTests;
+        }
+    }
+
+    // one query per filter column, matching values the way the value list does (ids exactly, text by prefix)
+    private static final Map<FilterColumn, FilterQuery<Borrower>> BY_COLUMN = new EnumMap<>(FilterColumn.class);
+    static {
+        for (FilterColumn column : FilterColumn.values()) {
+            boolean numeric = column == FilterColumn.ID || column == FilterColumn.TYPE;
+            BY_COLUMN.put(column, new FilterQuery<>(SELECT_ALL, BorrowerDAO::map, numeric
+                    ? FilterQuery.exact(column.expression)
+                    : FilterQuery.valuePrefix(column.expression, column.prefixTests)));
+        }
+    }
+
+    /** Rows whose column matches a picked or typed filter value; see {@link #distinctValues}. */
+    public static List<Borrower> findByFilter(FilterColumn column, String value) throws SQLException {
+        return BY_COLUMN.get(column).list(value);
+    }
+
+    /** Up to {@code limit} distinct values of the column, sorted; only those starting with {@code prefix} unless it is blank. */
+    public static List<String> distinctValues(FilterColumn column, String prefix, int limit) throws SQLException {
+        return DistinctValues.list("borrower", column.expression, column.prefixTests, prefix, limit);
+    }
+
+    /** Streams every row without buffering the table; close the stream (try-with-resources). */
+    public static Stream<Borrower> streamAll() throws SQLException {
+        return JdbcStreams.stream(SELECT_ALL, JdbcStreams.Binder.NONE, BorrowerDAO::map);
+    }
+
+    /** Pushes every row to the consumer as it is read; returns the row count. */
+    public static long forEach(Consumer<? super Borrower> sink) throws SQLException {
+        return JdbcStreams.forEach(SELECT_ALL, JdbcStreams.Binder.NONE, BorrowerDAO::map, sink);
+    }
+
+    private static List<Borrower> loadAll() throws SQLException {
         try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
+             PreparedStatement ps = c.prepareStatement(SELECT_ALL);
              ResultSet rs = ps.executeQuery()) {
 
             List<Borrower> list = new ArrayList<>();
@@ -23,6 +121,10 @@ public class BorrowerDAO {
         }
     }
 
+    private static List<Borrower> loadByIds(Collection<Integer> ids) throws SQLException {
+        return PrimaryKeys.load(SELECT_ALL, "borrower_id", ids, BorrowerDAO::map);
+    }
+
     // ---- SEARCH ----
     public static List<Borrower> search(String keyword) throws SQLException {
         String sql = """
@@ -47,28 +149,13 @@ public class BorrowerDAO {
     }
 
     // BorrowerDAO
-    public static List<Borrower> searchFiltered(String name, String contact) throws SQLException {
-        String sql = """
-        SELECT borrower_id, first_name, last_name, type_id, contact_info
-        FROM borrower
-        WHERE (? = '' OR CONCAT(first_name, ' ', last_name) LIKE ?)
-          AND (? = '' OR contact_info LIKE ?)
-    """;
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+    // name and contact both match from the start, the way the filter value lists do
+    private static final FilterQuery<Borrower> FILTERED = new FilterQuery<>(SELECT_ALL, BorrowerDAO::map,
+            FilterQuery.prefix(FilterColumn.NAME.prefixTests), FilterQuery.prefix("contact_info"));
 
-            ps.setString(1, name);
-            ps.setString(2, "%" + name + "%");
-            ps.setString(3, contact);
-            ps.setString(4, "%" + contact + "%");
-
-            List<Borrower> list = new ArrayList<>();
-            try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(map(rs));
-            }
-            return list;
-        }
+    /** Borrowers matching every non-blank argument; only those become predicates (see {@link FilterQuery}). */
+    public static List<Borrower> searchFiltered(String name, String contact) throws SQLException {
+        return FILTERED.list(name, contact);
     }
 
 
@@ -90,9 +177,15 @@ public class BorrowerDAO {
             ps.setString(4, contact != null ? contact.trim() : null);
             ps.executeUpdate();
 
+            int id;
             try (ResultSet keys = ps.getGeneratedKeys()) {
-                return keys.next() ? keys.getInt(1) : 0;
+                id = keys.next() ? keys.getInt(1) : 0;
+            }
+            if (id > 0) {
+                CACHE.put(new Borrower(id, firstName.trim(), lastName.trim(), typeId, contact != null ? contact.trim() : null));
+                ReportCache.tableChanged("borrower");
             }
+            return id;
         }
     }
 
@@ -114,7 +207,14 @@ public class BorrowerDAO {
             ps.setInt(3, typeId);
             ps.setString(4, contact != null ? contact.trim() : null);
             ps.setInt(5, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.put(new Borrower(id, firstName.trim(), lastName.trim(), typeId, contact != null ? contact.trim() : null));
+                ReportCache.tableChanged("borrower");
+            } else {
+                CACHE.remove(id);
+            }
+            return ok;
         }
     }
 
@@ -128,7 +228,13 @@ public class BorrowerDAO {
 
             ps.setString(1, newContact != null ? newContact.trim() : null);
             ps.setInt(2, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.update(id, b -> new Borrower(b.getId(), b.getFirstName(), b.getLastName(), b.getTypeId(),
+                        newContact != null ? newContact.trim() : null));
+                ReportCache.tableChanged("borrower");
+            }
+            return ok;
         }
     }
 
@@ -138,8 +244,22 @@ public class BorrowerDAO {
         try (Connection c = DatabaseConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
 
+            // take the cascaded loans/sales out of the monthly totals in the same transaction
+            c.setAutoCommit(false);
+            MonthlyRollups.removeLoansAndSalesOf(c, "borrower_id", id);
             ps.setInt(1, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            c.commit();
+            if (ok) {
+                CACHE.remove(id);
+                // the borrower's loans/sales may have gone with it (FK cascade)
+                LoanDAO.cache().invalidate();
+                ReportCache.tableChanged("loan");
+                SaleDAO.cache().invalidate();
+                ReportCache.tableChanged("sale");
+                ReportCache.tableChanged("borrower");
+            }
+            return ok;
         }
     }
 
@@ -0,0 +1,64 @@
+package org.example.project.dao;
+
+import org.example.project.db.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SELECT DISTINCT behind the filter value lists: the distinct values of one column (or
+ * expression), sorted and capped, optionally only those starting with a typed prefix. The
+ * server returns the short list instead of the app reading the whole table to build it.
+ * Expressions come from the DAOs' FilterColumn enums, never from user input.
+ */
+final class DistinctValues {
+
+    private DistinctValues() {}
+
+    /**
+     * @param expression   column or SQL expression whose values are listed
+     * @param prefixTests  expressions matched against the prefix (OR-ed); empty = the expression itself
+     * @param prefix       null or blank for no prefix filter
+     */
+    static List<String> list(String table, String expression, String[] prefixTests,
+                             String prefix, int limit) throws SQLException {
+        boolean filtered = prefix != null && !prefix.isBlank();
+        String[] tests = prefixTests.length > 0 ? prefixTests : new String[]{expression};
+
+        StringBuilder sql = new StringBuilder("SELECT DISTINCT ").append(expression).append(" AS v FROM ")
+                .append(table).append(" WHERE ").append(expression).append(" IS NOT NULL");
+        if (filtered) {
+            sql.append(" AND (");
+            for (int i = 0; i < tests.length; i++) {
+                if (i > 0) sql.append(" OR ");
+                sql.append(tests[i]).append(" LIKE ?");
+            }
+            sql.append(')');
+        }
+        sql.append(" ORDER BY v LIMIT ?");
+
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int i = 1;
+            if (filtered) {
+                String like = startsWith(prefix.trim());
+                for (int t = 0; t < tests.length; t++) ps.setString(i++, like);
+            }
+            ps.setInt(i, Math.max(1, limit));
+            try (ResultSet rs = ps.executeQuery()) {
+                List<String> values = new ArrayList<>();
+                while (rs.next()) values.add(rs.getString(1));
+                return values;
+            }
+        }
+    }
+
+    /** LIKE pattern for "starts with text", with the wildcards in text escaped. */
+    static String startsWith(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
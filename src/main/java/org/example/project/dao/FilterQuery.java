@@ -0,0 +1,118 @@
+package org.example.project.dao;
+
+import org.example.project.db.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A SELECT with optional filters, behind the DAOs' searchFiltered methods. Only the filters that
+ * have a value end up in the WHERE clause, so MySQL plans each combination on its own and can use
+ * the index of the one column being filtered; the {@code (? = '' OR col LIKE ?)} form gets one plan
+ * for every combination, and that plan cannot use an index.
+ * <p>
+ * The SQL text for each combination ("shape") is built once and reused, so every call with the
+ * same filters set sends the same string and the connection's statement cache hands back the
+ * statement already prepared for it.
+ */
+final class FilterQuery<T> {
+
+    enum Match {
+        /** {@code LIKE 'value%'}: can use an index on the column. */
+        PREFIX,
+        /** {@code LIKE '%value%'}: for free text such as titles and bios; scans. */
+        CONTAINS,
+        /** {@code = value}: for ids and other numeric columns. */
+        EXACT
+    }
+
+    /** One filter: the value matched against any of the expressions (OR-ed). */
+    record Filter(Match match, String... expressions) {}
+
+    static Filter prefix(String... expressions) {
+        return new Filter(Match.PREFIX, expressions);
+    }
+
+    static Filter contains(String... expressions) {
+        return new Filter(Match.CONTAINS, expressions);
+    }
+
+    /** Prefix match the way {@link DistinctValues} narrows a value list: on the tests, or the expression itself. */
+    static Filter valuePrefix(String expression, String... prefixTests) {
+        return prefix(prefixTests.length > 0 ? prefixTests : new String[]{expression});
+    }
+
+    static Filter exact(String... expressions) {
+        return new Filter(Match.EXACT, expressions);
+    }
+
+    private final String select;
+    private final RowMapper<T> mapper;
+    private final Filter[] filters;
+    private final AtomicReferenceArray<String> sqlByShape;   // bit i set = filter i active
+
+    /** @param select {@code SELECT columns FROM table}, without WHERE */
+    FilterQuery(String select, RowMapper<T> mapper, Filter... filters) {
+        if (filters.length > 16) throw new IllegalArgumentException("Too many filters: " + filters.length);
+        this.select = select;
+        this.mapper = mapper;
+        this.filters = filters;
+        this.sqlByShape = new AtomicReferenceArray<>(1 << filters.length);
+    }
+
+    /** Rows matching every non-blank value; values line up with the filters, null or blank = not filtered. */
+    List<T> list(String... values) throws SQLException {
+        if (values.length != filters.length) {
+            throw new IllegalArgumentException("Expected " + filters.length + " values, got " + values.length);
+        }
+        int shape = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null && !values[i].isBlank()) shape |= 1 << i;
+        }
+
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql(shape))) {
+            int p = 1;
+            for (int i = 0; i < filters.length; i++) {
+                if ((shape & (1 << i)) == 0) continue;
+                String value = values[i].trim();
+                if (filters[i].match() != Match.EXACT) value = DistinctValues.startsWith(value);
+                if (filters[i].match() == Match.CONTAINS) value = "%" + value;
+                for (int e = 0; e < filters[i].expressions().length; e++) ps.setString(p++, value);
+            }
+            List<T> rows = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) rows.add(mapper.map(rs));
+            }
+            return rows;
+        }
+    }
+
+    String sql(int shape) {
+        String sql = sqlByShape.get(shape);
+        if (sql != null) return sql;
+
+        StringBuilder sb = new StringBuilder(select);
+        boolean first = true;
+        for (int i = 0; i < filters.length; i++) {
+            if ((shape & (1 << i)) == 0) continue;
+            sb.append(first ? " WHERE " : " AND ");
+            first = false;
+            String[] expressions = filters[i].expressions();
+            if (expressions.length > 1) sb.append('(');
+            for (int e = 0; e < expressions.length; e++) {
+                if (e > 0) sb.append(" OR ");
+                sb.append(expressions[e]).append(filters[i].match() == Match.EXACT ? " = ?" : " LIKE ?");
+            }
+            if (expressions.length > 1) sb.append(')');
+        }
+        sql = sb.toString();
+        sqlByShape.set(shape, sql);   // racing builders produce the same string
+        return sql;
+    }
+}
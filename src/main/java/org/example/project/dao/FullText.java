@@ -0,0 +1,144 @@
+package org.example.project.dao;
+
+import org.example.project.db.DatabaseConnection;
+import org.example.project.db.Migrations;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MATCH ... AGAINST searches behind BookDAO.searchRanked and AuthorDAO.searchRanked:
+ * <pre>
+ *   book   FULLTEXT ft_book_title      (title)
+ *   author FULLTEXT ft_author_name_bio (first_name, last_name, bio)
+ * </pre>
+ * Words shorter than InnoDB's minimum token size ({@code -Dlibrary.search.minFullTextToken},
+ * default 3 like {@code innodb_ft_min_token_size}) are not in the index; they become
+ * {@code LIKE '%word%'} tests on the same columns instead, applied to the rows the longer words
+ * found (or to the whole table when every word is short). The indexes are schema migration
+ * {@link Migrations#FULL_TEXT_VERSION}. Until the runner reports it applied, the first search of a
+ * table takes the schema lock (waiting out a migration in progress), re-reads the recorded version,
+ * and creates the index itself only if the migration has still not run (migrations switched off).
+ * On InnoDB the first FULLTEXT index of a table rebuilds it.
+ */
+final class FullText {
+
+    static final int MIN_TOKEN = Integer.getInteger("library.search.minFullTextToken", 3);
+
+    // table -> {index name, indexed columns}
+    private static final Map<String, String[]> INDEXES = Map.of(
+            "book", new String[]{"ft_book_title", "title"},
+            "author", new String[]{"ft_author_name_bio", "first_name, last_name, bio"});
+
+    private static final Set<String> READY = ConcurrentHashMap.newKeySet();
+
+    private FullText() {}
+
+    /**
+     * Rows of {@code select} (a {@code SELECT columns FROM table} without WHERE) matching every
+     * short word and, in the given mode, the long ones; best first, ties by id, at most limit.
+     */
+    static <T> List<Ranked<T>> search(String select, String table, String idColumn, String text,
+                                      SearchMode mode, int limit, RowMapper<T> mapper) throws SQLException {
+        String[] index = INDEXES.get(table);
+        String columns = index[1];
+        String[] cols = columns.split(", ");
+        List<String> words = new ArrayList<>();
+        List<String> shortWords = new ArrayList<>();
+        for (String w : text == null ? new String[0] : text.trim().split("[^\\p{L}\\p{N}_]+")) {
+            if (w.isEmpty()) continue;
+            (w.length() >= MIN_TOKEN ? words : shortWords).add(w);
+        }
+        if (words.isEmpty() && shortWords.isEmpty()) return new ArrayList<>();
+        if (!words.isEmpty()) ensureIndex(table);
+
+        String match = "MATCH(" + columns + ") AGAINST (? IN "
+                + (mode == SearchMode.BOOLEAN ? "BOOLEAN" : "NATURAL LANGUAGE") + " MODE)";
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(words.isEmpty() ? "0" : match).append(" AS relevance, ")
+                .append(select.substring("SELECT ".length()))
+                .append(" WHERE ").append(words.isEmpty() ? "1 = 1" : match);
+        for (int i = 0; i < shortWords.size(); i++) {
+            sql.append(" AND (");
+            for (int c = 0; c < cols.length; c++) {
+                if (c > 0) sql.append(" OR ");
+                sql.append(cols[c]).append(" LIKE ?");
+            }
+            sql.append(')');
+        }
+        sql.append(" ORDER BY relevance DESC, ").append(idColumn).append(" LIMIT ?");
+
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int p = 1;
+            if (!words.isEmpty()) {
+                String against = against(words, mode);
+                ps.setString(p++, against);
+                ps.setString(p++, against);
+            }
+            for (String w : shortWords) {
+                String like = "%" + DistinctValues.startsWith(w);
+                for (String ignored : cols) ps.setString(p++, like);
+            }
+            ps.setInt(p, Math.max(1, limit));
+
+            List<Ranked<T>> hits = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) hits.add(new Ranked<>(mapper.map(rs), rs.getDouble("relevance")));
+            }
+            return hits;
+        }
+    }
+
+    /** The AGAINST argument: the words as typed, or each one required and prefix-matched. */
+    static String against(List<String> words, SearchMode mode) {
+        if (mode != SearchMode.BOOLEAN) return String.join(" ", words);
+        StringBuilder sb = new StringBuilder();
+        for (String w : words) {
+            if (!sb.isEmpty()) sb.append(' ');
+            sb.append('+').append(w).append('*');
+        }
+        return sb.toString();
+    }
+
+    /** Makes sure the table's FULLTEXT index exists; checked once per table and run. */
+    static void ensureIndex(String table) throws SQLException {
+        if (READY.contains(table)) return;
+        synchronized (FullText.class) {
+            if (READY.contains(table)) return;
+            if (Migrations.currentVersion() < Migrations.FULL_TEXT_VERSION) {
+                String[] index = INDEXES.get(table);
+                Migrations.withSchemaLock(c -> {
+                    if (Migrations.recordedVersion(c) >= Migrations.FULL_TEXT_VERSION) return;
+                    if (exists(c, table, index[0])) return;
+                    try (Statement st = c.createStatement()) {
+                        st.execute("ALTER TABLE " + table + " ADD FULLTEXT INDEX " + index[0] + " (" + index[1] + ")");
+                    }
+                });
+            }
+            READY.add(table);
+        }
+    }
+
+    private static boolean exists(Connection c, String table, String indexName) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?
+                LIMIT 1
+                """)) {
+            ps.setString(1, table);
+            ps.setString(2, indexName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
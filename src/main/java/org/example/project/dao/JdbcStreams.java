@@ -0,0 +1,187 @@
+package org.example.project.dao;
+
+import org.example.project.db.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Forward-only, read-only queries that stream rows from MySQL instead of buffering the whole
+ * result: Connector/J switches to row-by-row streaming when the fetch size is Integer.MIN_VALUE.
+ * Memory stays constant however many rows come back.
+ * <p>
+ * While a streaming result is open its connection cannot run other statements, and closing it
+ * early still drains the remaining rows from the socket — stream to a sink that keeps up, and
+ * narrow the query rather than abandoning it half way.
+ */
+public final class JdbcStreams {
+
+    private JdbcStreams() {}
+
+    @FunctionalInterface
+    public interface Binder {
+        Binder NONE = ps -> {};
+
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /** Receives rows of an untyped (report) query; {@code values} is a fresh array per row. */
+    public interface RowSink {
+        default void columns(List<String> labels) {}
+
+        void row(Object[] values);
+
+        /**
+         * Checked before every row. Once true the query is cancelled on the server (so closing
+         * the cursor does not drain the remaining rows) and forEachRow throws CancellationException.
+         */
+        default boolean cancelled() { return false; }
+    }
+
+    /** Thrown from {@link #stream} iterators, where SQLException cannot be declared. */
+    public static final class UncheckedSQLException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public UncheckedSQLException(SQLException cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        @Override
+        public synchronized SQLException getCause() {
+            return (SQLException) super.getCause();
+        }
+    }
+
+    /** Pushes every mapped row to the sink; returns the row count. */
+    public static <T> long forEach(String sql, Binder binder, RowMapper<T> mapper,
+                                   Consumer<? super T> sink) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = prepare(c, sql)) {
+            binder.bind(ps);
+            long n = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sink.accept(mapper.map(rs));
+                    n++;
+                }
+            }
+            return n;
+        }
+    }
+
+    /** Pushes the column labels, then every row as an Object[]; returns the row count. */
+    public static long forEachRow(String sql, Binder binder, RowSink sink) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = prepare(c, sql)) {
+            binder.bind(ps);
+            long n = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                ResultSetMetaData md = rs.getMetaData();
+                int cols = md.getColumnCount();
+                List<String> labels = new ArrayList<>(cols);
+                for (int i = 1; i <= cols; i++) labels.add(md.getColumnLabel(i));
+                sink.columns(labels);
+
+                while (rs.next()) {
+                    if (sink.cancelled()) {
+                        cancel(ps);
+                        throw new CancellationException("Cancelled after " + n + " rows.");
+                    }
+                    Object[] values = new Object[cols];
+                    for (int i = 0; i < cols; i++) values[i] = rs.getObject(i + 1);
+                    sink.row(values);
+                    n++;
+                }
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Lazily mapped rows. The connection is held until the stream is exhausted or closed,
+     * so always use try-with-resources.
+     */
+    public static <T> Stream<T> stream(String sql, Binder binder, RowMapper<T> mapper) throws SQLException {
+        Connection c = DatabaseConnection.getConnection();
+        PreparedStatement ps = null;
+        ResultSet rs;
+        try {
+            ps = prepare(c, sql);
+            binder.bind(ps);
+            rs = ps.executeQuery();
+        } catch (SQLException | RuntimeException e) {
+            closeAll(null, ps, c);
+            throw e;
+        }
+
+        Cursor<T> cursor = new Cursor<>(rs, ps, c, mapper);
+        return StreamSupport.stream(cursor, false).onClose(cursor::close);
+    }
+
+    private static PreparedStatement prepare(Connection c, String sql) throws SQLException {
+        c.setReadOnly(true);   // reset by the pool when the connection is returned
+        PreparedStatement ps = c.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        ps.setFetchSize(Integer.MIN_VALUE);
+        return ps;
+    }
+
+    // KILL QUERY from a second connection; errors raised while closing the cursor afterwards are expected
+    private static void cancel(PreparedStatement ps) {
+        try { ps.cancel(); } catch (SQLException ignored) {}
+    }
+
+    private static void closeAll(ResultSet rs, PreparedStatement ps, Connection c) {
+        try { if (rs != null) rs.close(); } catch (SQLException ignored) {}
+        try { if (ps != null) ps.close(); } catch (SQLException ignored) {}
+        try { c.close(); } catch (SQLException ignored) {}
+    }
+
+    private static final class Cursor<T> extends Spliterators.AbstractSpliterator<T> {
+        private final ResultSet rs;
+        private final PreparedStatement ps;
+        private final Connection c;
+        private final RowMapper<T> mapper;
+        private boolean closed;
+
+        Cursor(ResultSet rs, PreparedStatement ps, Connection c, RowMapper<T> mapper) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.rs = rs;
+            this.ps = ps;
+            this.c = c;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (closed) return false;
+            try {
+                if (!rs.next()) {
+                    close();
+                    return false;
+                }
+                action.accept(mapper.map(rs));
+                return true;
+            } catch (SQLException e) {
+                close();
+                throw new UncheckedSQLException(e);
+            }
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            closeAll(rs, ps, c);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.project.dao;
+
+import org.example.project.db.DatabaseConnection;
+import org.example.project.util.ValidationUtil;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Keyset ("seek") pagination shared by the DAOs. Rows are ordered by (sortColumn, idColumn)
+ * and each page starts strictly after the row whose id is {@code afterId}, so page N costs
+ * the same as page 1 — no OFFSET scan. The sort value of the anchor row is looked up by
+ * primary key first; if that row was deleted meanwhile, {@link Page#restart()} comes back and
+ * the caller starts over (PagedTable reloads the first page). NULL sort values sort first, as
+ * MySQL orders them, and a NULL anchor gets its own predicate so those rows are not skipped.
+ * Column names come from the DAOs' SortKey enums, never from user input.
+ */
+final class Keyset {
+
+    private Keyset() {}
+
+    /**
+     * @param select     "SELECT cols FROM table" without WHERE/ORDER BY
+     * @param sortColumn null to order by id only
+     * @param afterId    0 for the first page
+     */
+    static <T> Page<T> page(String select, String table, String idColumn, String sortColumn,
+                            int afterId, int pageSize,
+                            RowMapper<T> mapper, ToIntFunction<T> idOf) throws SQLException {
+        ValidationUtil.requirePositive(pageSize, "Page size");
+        if (afterId < 0) throw new IllegalArgumentException("After ID must not be negative.");
+
+        try (Connection c = DatabaseConnection.getConnection()) {
+            Object anchor = null;
+            if (afterId > 0 && sortColumn != null) {
+                try (PreparedStatement ps = c.prepareStatement(
+                        "SELECT " + sortColumn + " FROM " + table + " WHERE " + idColumn + " = ?")) {
+                    ps.setInt(1, afterId);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) return Page.restart();
+                        anchor = rs.getObject(1);
+                    }
+                }
+            }
+
+            String sql = sql(select, idColumn, sortColumn, afterId > 0, anchor == null);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                int i = 1;
+                if (afterId > 0) {
+                    if (anchor != null) {
+                        ps.setObject(i++, anchor);
+                        ps.setObject(i++, anchor);
+                    }
+                    ps.setInt(i++, afterId);
+                }
+                ps.setInt(i, pageSize + 1);   // one extra row tells us whether another page exists
+
+                List<T> rows = new ArrayList<>(Math.min(pageSize, 1024));
+                boolean hasMore = false;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        if (rows.size() == pageSize) {
+                            hasMore = true;
+                            break;
+                        }
+                        rows.add(mapper.map(rs));
+                    }
+                }
+                int lastId = rows.isEmpty() ? afterId : idOf.applyAsInt(rows.get(rows.size() - 1));
+                return new Page<>(rows, lastId, hasMore);
+            }
+        }
+    }
+
+    /** @param nullAnchor the anchor row's sort value is NULL (ignored without a sort column) */
+    static String sql(String select, String idColumn, String sortColumn, boolean after, boolean nullAnchor) {
+        StringBuilder sql = new StringBuilder(select);
+        if (sortColumn == null) {
+            if (after) sql.append(" WHERE ").append(idColumn).append(" > ?");
+            sql.append(" ORDER BY ").append(idColumn);
+        } else {
+            if (after && nullAnchor) {
+                // the rest of the NULLs, then every non-NULL value
+                sql.append(" WHERE (").append(sortColumn).append(" IS NULL AND ").append(idColumn).append(" > ?)")
+                   .append(" OR ").append(sortColumn).append(" IS NOT NULL");
+            } else if (after) {
+                // NULLs sort before any value, so neither branch matches them
+                sql.append(" WHERE ").append(sortColumn).append(" > ?")
+                   .append(" OR (").append(sortColumn).append(" = ? AND ").append(idColumn).append(" > ?)");
+            }
+            sql.append(" ORDER BY ").append(sortColumn).append(", ").append(idColumn);
+        }
+        return sql.append(" LIMIT ?").toString();
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.project.dao;
 
+import org.example.project.cache.EntityCache;
 import org.example.project.db.DatabaseConnection;
 import org.example.project.model.Loan;
 import org.example.project.util.ValidationUtil;
@@ -7,15 +8,100 @@ import org.example.project.util.ValidationUtil;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class LoanDAO {
 
+    private static final String SELECT_ALL = "SELECT loan_id, borrower_id, book_id, loan_date, due_date, return_date FROM loan";
+
+    private static final EntityCache<Loan> CACHE = new EntityCache<>("loan", LoanDAO::loadAll, LoanDAO::loadByIds, Loan::getId, false);
+
     // 🔹 Get all loans
+    // (reads the whole table on every call; the loans table is paged, not cached)
     public static List<Loan> findAll() throws SQLException {
-        String sql = "SELECT loan_id, borrower_id, book_id, loan_date, due_date, return_date FROM loan";
+        return CACHE.all();
+    }
+
+    public static EntityCache<Loan> cache() {
+        return CACHE;
+    }
+
+    /** The loan with this id, or null; O(1) when the table or the row is already cached. */
+    public static Loan findById(int id) throws SQLException {
+        return CACHE.get(id);
+    }
+
+    /** Rows for the ids, keyed by id in the order given (unknown ids left out); uncached ids are read in chunked IN lists. */
+    public static Map<Integer, Loan> findByIds(Collection<Integer> ids) throws SQLException {
+        return CACHE.getAll(ids);
+    }
+
+    /** Orderings available to {@link #findPage}; ties are broken by loan_id. */
+    public enum SortKey {
+        ID(null),
+        LOAN_DATE("loan_date"),
+        DUE_DATE("due_date");
+
+        final String column;
+        SortKey(String column) { this.column = column; }
+    }
+
+    /** Keyset page: up to pageSize rows after the row with id afterId (0 = first page). */
+    public static Page<Loan> findPage(int afterId, int pageSize, SortKey sort) throws SQLException {
+        return Keyset.page(SELECT_ALL, "loan", "loan_id", sort.column,
+                afterId, pageSize, LoanDAO::map, Loan::getId);
+    }
+
+    /** Columns offered by the Loans tab's filter; see {@link #distinctValues}. */
+    public enum FilterColumn {
+        LOAN_ID("loan_id"),
+        BOOK_ID("book_id"),
+        BORROWER_ID("borrower_id");
+
+        final String expression;
+        final String[] prefixTests;
+        FilterColumn(String expression, String... prefixTests) {
+            this.expression = expression;
+            this.prefixTests = prefixTests;
+        }
+    }
+
+    /** Rows whose column equals the value, newest first (an index lookup). */
+    public static List<Loan> findBy(FilterColumn column, int value) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     SELECT_ALL + " WHERE " + column.expression + " = ? ORDER BY loan_id DESC")) {
+            ps.setInt(1, value);
+            List<Loan> list = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
+            return list;
+        }
+    }
+
+    /** Up to {@code limit} distinct values of the column, sorted; only those starting with {@code prefix} unless it is blank. */
+    public static List<String> distinctValues(FilterColumn column, String prefix, int limit) throws SQLException {
+        return DistinctValues.list("loan", column.expression, column.prefixTests, prefix, limit);
+    }
+
+    /** Streams every row without buffering the table; close the stream (try-with-resources). */
+    public static Stream<Loan> streamAll() throws SQLException {
+        return JdbcStreams.stream(SELECT_ALL, JdbcStreams.Binder.NONE, LoanDAO::map);
+    }
+
+    /** Pushes every row to the consumer as it is read; returns the row count. */
+    public static long forEach(Consumer<? super Loan> sink) throws SQLException {
+        return JdbcStreams.forEach(SELECT_ALL, JdbcStreams.Binder.NONE, LoanDAO::map, sink);
+    }
+
+    private static List<Loan> loadAll() throws SQLException {
         try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
+             PreparedStatement ps = c.prepareStatement(SELECT_ALL);
              ResultSet rs = ps.executeQuery()) {
 
             List<Loan> list = new ArrayList<>();
@@ -24,6 +110,10 @@ public class LoanDAO {
         }
     }
 
+    private static List<Loan> loadByIds(Collection<Integer> ids) throws SQLException {
+        return PrimaryKeys.load(SELECT_ALL, "loan_id", ids, LoanDAO::map);
+    }
+
     // 🔹 Insert new loan
     public static int insert(int borrowerId, int bookId, LocalDate loanDate, LocalDate dueDate) throws SQLException {
         ValidationUtil.requirePositive(borrowerId, "Borrower ID");
@@ -34,15 +124,25 @@ public class LoanDAO {
         try (Connection c = DatabaseConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
+            // the row and its month total commit together; the pool rolls back anything left open
+            c.setAutoCommit(false);
             ps.setInt(1, borrowerId);
             ps.setInt(2, bookId);
             ps.setDate(3, Date.valueOf(loanDate));
             ps.setDate(4, Date.valueOf(dueDate));
             ps.executeUpdate();
 
+            int id;
             try (ResultSet keys = ps.getGeneratedKeys()) {
-                return keys.next() ? keys.getInt(1) : 0;
+                id = keys.next() ? keys.getInt(1) : 0;
             }
+            MonthlyRollups.addLoans(c, loanDate, 1);
+            c.commit();
+            if (id > 0) {
+                CACHE.put(new Loan(id, borrowerId, bookId, loanDate, dueDate, null));
+                ReportCache.tableChanged("loan");
+            }
+            return id;
         }
     }
 
@@ -56,12 +156,27 @@ public class LoanDAO {
         try (Connection c = DatabaseConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
 
+            c.setAutoCommit(false);
+            LocalDate oldLoanDate = lockLoanDate(c, loanId);
             ps.setInt(1, borrowerId);
             ps.setInt(2, bookId);
             ps.setDate(3, Date.valueOf(loanDate));
             ps.setDate(4, Date.valueOf(dueDate));
             ps.setInt(5, loanId);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                MonthlyRollups.addLoans(c, oldLoanDate, -1);
+                MonthlyRollups.addLoans(c, loanDate, 1);
+            }
+            c.commit();
+            // return_date is not part of this update; keep whatever the cached row has
+            if (ok) {
+                CACHE.update(loanId, l -> new Loan(loanId, borrowerId, bookId, loanDate, dueDate, l.getReturnDate()));
+                ReportCache.tableChanged("loan");
+            } else {
+                CACHE.remove(loanId);
+            }
+            return ok;
         }
     }
 
@@ -75,7 +190,13 @@ public class LoanDAO {
 
             ps.setDate(1, Date.valueOf(returnDate));
             ps.setInt(2, loanId);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.update(loanId, l -> new Loan(l.getId(), l.getBorrowerId(), l.getBookId(),
+                        l.getLoanDate(), l.getDueDate(), returnDate));
+                ReportCache.tableChanged("loan");
+            }
+            return ok;
         }
     }
 
@@ -86,47 +207,54 @@ public class LoanDAO {
         try (Connection c = DatabaseConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
 
+            c.setAutoCommit(false);
+            LocalDate oldLoanDate = lockLoanDate(c, loanId);
             ps.setInt(1, loanId);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) MonthlyRollups.addLoans(c, oldLoanDate, -1);
+            c.commit();
+            if (ok) {
+                CACHE.remove(loanId);
+                ReportCache.tableChanged("loan");
+            }
+            return ok;
         }
     }
 
-    // 🔹 Search loans
-    public static List<Loan> search(String keyword) throws SQLException {
-        String sql = """
-        SELECT l.loan_id, l.borrower_id, l.book_id, l.loan_date, l.due_date, l.return_date
-        FROM loan l
-        JOIN borrower b ON l.borrower_id = b.borrower_id
-        JOIN book bk ON l.book_id = bk.book_id
-        JOIN author a ON bk.author_id = a.author_id
-        WHERE CAST(l.loan_id AS CHAR) LIKE ?
-           OR CAST(l.borrower_id AS CHAR) LIKE ?
-           OR CAST(l.book_id AS CHAR) LIKE ?
-           OR l.loan_date LIKE ?
-           OR l.due_date LIKE ?
-           OR (l.return_date IS NOT NULL AND l.return_date LIKE ?)
-           OR b.name LIKE ?
-           OR bk.title LIKE ?
-           OR a.name LIKE ?
-        """;
-
-        try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            String pattern = "%" + keyword + "%";
-            for (int i = 1; i <= 9; i++) ps.setString(i, pattern);
-
-            List<Loan> list = new ArrayList<>();
+    // current loan_date of a row, locked until the caller's transaction ends (null if no such row)
+    private static LocalDate lockLoanDate(Connection c, int loanId) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT loan_date FROM loan WHERE loan_id=? FOR UPDATE")) {
+            ps.setInt(1, loanId);
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(map(rs));
+                return rs.next() ? rs.getObject(1, LocalDate.class) : null;
             }
-            return list;
         }
     }
 
+    // 🔹 Search loans: numbers match ids, dates match loan/due/return dates, words match
+    // borrower, title and author (see TypedSearch; every predicate can use an index)
+    // (newest first, capped at library.search.maxRows; hasMore = there were more matches)
+    public static Page<Loan> search(String keyword) throws SQLException {
+        return TypedSearch.run(SELECT_ALL, "loan", "loan_id", keyword, LoanDAO::searchBranches, LoanDAO::map, Loan::getId);
+    }
+
+    private static List<TypedSearch.Branch> searchBranches(TypedSearch.Term term) throws SQLException {
+        return switch (term) {
+            case TypedSearch.Id id -> List.of(
+                    new TypedSearch.Branch("loan_id = ?", id.value()),
+                    new TypedSearch.Branch("borrower_id = ?", id.value()),
+                    new TypedSearch.Branch("book_id = ?", id.value()));
+            case TypedSearch.Dates d -> List.of(
+                    TypedSearch.between("loan_date", d),
+                    TypedSearch.between("due_date", d),
+                    TypedSearch.between("return_date", d));
+            case TypedSearch.Text t -> TypedSearch.peopleAndBooks(t);
+        };
+    }
+
 
-    // 🔹 Helper: map ResultSet to Loan
-    private static Loan map(ResultSet rs) throws SQLException {
+    // 🔹 Helper: map ResultSet to Loan (package-private for the row-mapping benchmarks)
+    static Loan map(ResultSet rs) throws SQLException {
         LocalDate loanDate = rs.getDate("loan_date") != null ? rs.getDate("loan_date").toLocalDate() : null;
         LocalDate dueDate = rs.getDate("due_date") != null ? rs.getDate("due_date").toLocalDate() : null;
         LocalDate returnDate = rs.getDate("return_date") != null ? rs.getDate("return_date").toLocalDate() : null;
@@ -0,0 +1,131 @@
+package org.example.project.dao;
+
+import org.example.project.db.DatabaseConnection;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Per-month totals of the loan and sale tables, so the monthly charts read one row per month
+ * instead of grouping every loan/sale:
+ * <pre>
+ *   loan_month(month CHAR(7) 'YYYY-MM', loan_count)
+ *   sale_month(month CHAR(7) 'YYYY-MM', sale_count, revenue)
+ * </pre>
+ * LoanDAO and SaleDAO adjust the totals inside the same transaction as the row they write;
+ * BookDAO and BorrowerDAO subtract the loans/sales a delete is about to cascade to.
+ * {@link #rebuild()} recomputes both tables from scratch. The tables are created and first
+ * filled by schema migration 3 ({@link org.example.project.db.Migrations}), never on a write.
+ */
+final class MonthlyRollups {
+
+    private static final String ADD_LOANS = """
+            INSERT INTO loan_month (month, loan_count) VALUES (?, ?)
+            ON DUPLICATE KEY UPDATE loan_count = loan_count + VALUES(loan_count)
+            """;
+
+    private static final String ADD_SALES = """
+            INSERT INTO sale_month (month, sale_count, revenue) VALUES (?, ?, ?)
+            ON DUPLICATE KEY UPDATE sale_count = sale_count + VALUES(sale_count),
+                                    revenue = revenue + VALUES(revenue)
+            """;
+
+    // %s = book_id or borrower_id
+    private static final String REMOVE_LOANS_OF = """
+            INSERT INTO loan_month (month, loan_count)
+            SELECT DATE_FORMAT(loan_date, '%%Y-%%m'), -COUNT(*)
+            FROM loan
+            WHERE loan_date IS NOT NULL AND %s = ?
+            GROUP BY DATE_FORMAT(loan_date, '%%Y-%%m')
+            ON DUPLICATE KEY UPDATE loan_count = loan_count + VALUES(loan_count)
+            """;
+
+    private static final String REMOVE_SALES_OF = """
+            INSERT INTO sale_month (month, sale_count, revenue)
+            SELECT DATE_FORMAT(sale_date, '%%Y-%%m'), -COUNT(*), -COALESCE(SUM(sale_price), 0)
+            FROM sale
+            WHERE sale_date IS NOT NULL AND %s = ?
+            GROUP BY DATE_FORMAT(sale_date, '%%Y-%%m')
+            ON DUPLICATE KEY UPDATE sale_count = sale_count + VALUES(sale_count),
+                                    revenue = revenue + VALUES(revenue)
+            """;
+
+    private MonthlyRollups() {}
+
+    /** Recomputes both rollup tables from loan and sale in one transaction. */
+    static void rebuild() throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            rebuild(c);
+        }
+        ReportCache.tableChanged("loan");
+        ReportCache.tableChanged("sale");
+    }
+
+    private static void rebuild(Connection c) throws SQLException {
+        c.setAutoCommit(false);
+        try (Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM loan_month");
+            st.executeUpdate("""
+                    INSERT INTO loan_month (month, loan_count)
+                    SELECT DATE_FORMAT(loan_date, '%Y-%m'), COUNT(*)
+                    FROM loan
+                    WHERE loan_date IS NOT NULL
+                    GROUP BY DATE_FORMAT(loan_date, '%Y-%m')
+                    """);
+            st.executeUpdate("DELETE FROM sale_month");
+            st.executeUpdate("""
+                    INSERT INTO sale_month (month, sale_count, revenue)
+                    SELECT DATE_FORMAT(sale_date, '%Y-%m'), COUNT(*), COALESCE(SUM(sale_price), 0)
+                    FROM sale
+                    WHERE sale_date IS NOT NULL
+                    GROUP BY DATE_FORMAT(sale_date, '%Y-%m')
+                    """);
+            c.commit();
+        }
+        // an uncommitted transaction is rolled back when the pool takes the connection back
+    }
+
+    // ---- INCREMENTAL UPDATES ----
+    // Run on the caller's connection inside its transaction.
+
+    /** Adds delta loans (negative to remove) to the month of loanDate. */
+    static void addLoans(Connection c, LocalDate loanDate, int delta) throws SQLException {
+        if (loanDate == null || delta == 0) return;
+        try (PreparedStatement ps = c.prepareStatement(ADD_LOANS)) {
+            ps.setString(1, month(loanDate));
+            ps.setInt(2, delta);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Adds count sales worth revenue (both negative to remove) to the month of saleDate. */
+    static void addSales(Connection c, LocalDate saleDate, int count, BigDecimal revenue) throws SQLException {
+        if (saleDate == null || (count == 0 && revenue.signum() == 0)) return;
+        try (PreparedStatement ps = c.prepareStatement(ADD_SALES)) {
+            ps.setString(1, month(saleDate));
+            ps.setInt(2, count);
+            ps.setBigDecimal(3, revenue);
+            ps.executeUpdate();
+        }
+    }
+
+    /** Subtracts the loans and sales whose column (book_id or borrower_id) equals id; call before a cascading delete. */
+    static void removeLoansAndSalesOf(Connection c, String column, int id) throws SQLException {
+        if (!column.equals("book_id") && !column.equals("borrower_id")) {
+            throw new IllegalArgumentException("Unsupported column: " + column);
+        }
+        try (PreparedStatement loans = c.prepareStatement(REMOVE_LOANS_OF.formatted(column));
+             PreparedStatement sales = c.prepareStatement(REMOVE_SALES_OF.formatted(column))) {
+            loans.setInt(1, id);
+            loans.executeUpdate();
+            sales.setInt(1, id);
+            sales.executeUpdate();
+        }
+    }
+
+    private static String month(LocalDate date) {
+        return YearMonth.from(date).toString();   // 'YYYY-MM', same as DATE_FORMAT(..., '%Y-%m')
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.project.dao;
+
+import java.util.List;
+
+/**
+ * One keyset page. Pass {@code lastId} as the next call's {@code afterId};
+ * {@code hasMore} is false on the final page. A page with no rows that still has more
+ * is a {@link #restart()}.
+ */
+public record Page<T>(List<T> rows, int lastId, boolean hasMore) {
+
+    public static <T> Page<T> empty() {
+        return new Page<>(List.of(), 0, false);
+    }
+
+    /** The row the page was to start after is gone; fetch again from the first page. */
+    public static <T> Page<T> restart() {
+        return new Page<>(List.of(), 0, true);
+    }
+
+    public boolean isRestart() {
+        return rows.isEmpty() && hasMore;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.project.dao;
+
+import org.example.project.db.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Primary-key lookups shared by the DAOs' findByIds: {@code SELECT ... WHERE id IN (?,...)} in
+ * chunks of at most {@link #CHUNK_SIZE} ids ({@code -Dlibrary.db.inChunkSize}). Each IN list is
+ * padded to a power of two by repeating its last id, so only a handful of distinct statements
+ * reach the statement cache however many ids are asked for.
+ */
+final class PrimaryKeys {
+
+    static final int CHUNK_SIZE = Math.max(1, Integer.getInteger("library.db.inChunkSize", 512));
+
+    private PrimaryKeys() {}
+
+    /** Rows whose id is in {@code ids}, in no particular order; unknown ids are skipped. */
+    static <T> List<T> load(String select, String idColumn, Collection<Integer> ids,
+                            RowMapper<T> mapper) throws SQLException {
+        List<Integer> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<T> rows = new ArrayList<>(distinct.size());
+        if (distinct.isEmpty()) return rows;
+
+        try (Connection c = DatabaseConnection.getConnection()) {
+            for (int from = 0; from < distinct.size(); from += CHUNK_SIZE) {
+                List<Integer> chunk = distinct.subList(from, Math.min(from + CHUNK_SIZE, distinct.size()));
+                int slots = Math.min(CHUNK_SIZE, Integer.highestOneBit(chunk.size() * 2 - 1));
+                try (PreparedStatement ps = c.prepareStatement(select + " WHERE " + idColumn + " IN (" + marks(slots) + ")")) {
+                    for (int i = 0; i < slots; i++) {
+                        ps.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                    }
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) rows.add(mapper.map(rs));
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static String marks(int n) {
+        return "?" + ",?".repeat(n - 1);
+    }
+}
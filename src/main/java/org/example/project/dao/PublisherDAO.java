@@ -1,20 +1,105 @@
 package org.example.project.dao;
 
+import org.example.project.cache.EntityCache;
 import org.example.project.db.DatabaseConnection;
 import org.example.project.model.Publisher;
 import org.example.project.util.ValidationUtil;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class PublisherDAO {
 
+    private static final String SELECT_ALL = "SELECT publisher_id, name, city, country, contact_info FROM publisher";
+
+    private static final EntityCache<Publisher> CACHE = new EntityCache<>("publisher", PublisherDAO::loadAll, PublisherDAO::loadByIds, Publisher::getId);
+
     // 🔹 Get all publishers
     public static List<Publisher> findAll() throws SQLException {
-        String sql = "SELECT publisher_id, name, city, country, contact_info FROM publisher";
+        return CACHE.all();
+    }
+
+    public static EntityCache<Publisher> cache() {
+        return CACHE;
+    }
+
+    /** The publisher with this id, or null; O(1) when the table or the row is already cached. */
+    public static Publisher findById(int id) throws SQLException {
+        return CACHE.get(id);
+    }
+
+    /** Rows for the ids, keyed by id in the order given (unknown ids left out); uncached ids are read in chunked IN lists. */
+    public static Map<Integer, Publisher> findByIds(Collection<Integer> ids) throws SQLException {
+        return CACHE.getAll(ids);
+    }
+
+    /** Orderings available to {@link #findPage}; ties are broken by publisher_id. */
+    public enum SortKey {
+        ID(null),
+        NAME("name");
+
+        final String column;
+        SortKey(String column) { this.column = column; }
+    }
+
+    /** Keyset page: up to pageSize rows after the row with id afterId (0 = first page). */
+    public static Page<Publisher> findPage(int afterId, int pageSize, SortKey sort) throws SQLException {
+        return Keyset.page(SELECT_ALL, "publisher", "publisher_id", sort.column,
+                afterId, pageSize, PublisherDAO::map, Publisher::getId);
+    }
+
+    /** Columns offered by the Publishers tab's filter; see {@link #distinctValues}. */
+    public enum FilterColumn {
+        NAME("name"),
+        CITY("city"),
+        COUNTRY("country");
+
+        final String expression;
+        final String[] prefixTests;
+        FilterColumn(String expression, String... prefixTests) {
+            this.expression = expression;
+            this.prefixTests = prefixTests;
+        }
+    }
+
+    // one query per filter column, matching values the way the value list does (by prefix)
+    private static final Map<FilterColumn, FilterQuery<Publisher>> BY_COLUMN = new EnumMap<>(FilterColumn.class);
+    static {
+        for (FilterColumn column : FilterColumn.values()) {
+            BY_COLUMN.put(column, new FilterQuery<>(SELECT_ALL, PublisherDAO::map,
+                    FilterQuery.valuePrefix(column.expression, column.prefixTests)));
+        }
+    }
+
+    /** Rows whose column matches a picked or typed filter value; see {@link #distinctValues}. */
+    public static List<Publisher> findByFilter(FilterColumn column, String value) throws SQLException {
+        return BY_COLUMN.get(column).list(value);
+    }
+
+    /** Up to {@code limit} distinct values of the column, sorted; only those starting with {@code prefix} unless it is blank. */
+    public static List<String> distinctValues(FilterColumn column, String prefix, int limit) throws SQLException {
+        return DistinctValues.list("publisher", column.expression, column.prefixTests, prefix, limit);
+    }
+
+    /** Streams every row without buffering the table; close the stream (try-with-resources). */
+    public static Stream<Publisher> streamAll() throws SQLException {
+        return JdbcStreams.stream(SELECT_ALL, JdbcStreams.Binder.NONE, PublisherDAO::map);
+    }
+
+    /** Pushes every row to the consumer as it is read; returns the row count. */
+    public static long forEach(Consumer<? super Publisher> sink) throws SQLException {
+        return JdbcStreams.forEach(SELECT_ALL, JdbcStreams.Binder.NONE, PublisherDAO::map, sink);
+    }
+
+    private static List<Publisher> loadAll() throws SQLException {
         try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
+             PreparedStatement ps = c.prepareStatement(SELECT_ALL);
              ResultSet rs = ps.executeQuery()) {
 
             List<Publisher> list = new ArrayList<>();
@@ -23,6 +108,10 @@ public class PublisherDAO {
         }
     }
 
+    private static List<Publisher> loadByIds(Collection<Integer> ids) throws SQLException {
+        return PrimaryKeys.load(SELECT_ALL, "publisher_id", ids, PublisherDAO::map);
+    }
+
 
     public static int insert(String name, String city, String country, String contact) throws SQLException {
         ValidationUtil.requireNonBlank(name, "Publisher name");
@@ -42,9 +131,15 @@ public class PublisherDAO {
             ps.setString(4, contact != null ? contact.trim() : null);
             ps.executeUpdate();
 
+            int id;
             try (ResultSet keys = ps.getGeneratedKeys()) {
-                return keys.next() ? keys.getInt(1) : 0;
+                id = keys.next() ? keys.getInt(1) : 0;
             }
+            if (id > 0) {
+                CACHE.put(new Publisher(id, name.trim(), city != null ? city.trim() : null, country.trim(), contact != null ? contact.trim() : null));
+                ReportCache.tableChanged("publisher");
+            }
+            return id;
         }
     }
 
@@ -66,7 +161,14 @@ public class PublisherDAO {
             ps.setString(3, country.trim());
             ps.setString(4, contact != null ? contact.trim() : null);
             ps.setInt(5, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.put(new Publisher(id, name.trim(), city != null ? city.trim() : null, country.trim(), contact != null ? contact.trim() : null));
+                ReportCache.tableChanged("publisher");
+            } else {
+                CACHE.remove(id);
+            }
+            return ok;
         }
     }
 
@@ -77,7 +179,12 @@ public class PublisherDAO {
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setString(1, newCity);
             ps.setInt(2, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.update(id, p -> new Publisher(p.getId(), p.getName(), newCity, p.getCountry(), p.getContact()));
+                ReportCache.tableChanged("publisher");
+            }
+            return ok;
         }
     }
 
@@ -87,7 +194,15 @@ public class PublisherDAO {
         try (Connection c = DatabaseConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
             ps.setInt(1, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok) {
+                CACHE.remove(id);
+                // books may have had their publisher_id cleared (FK ON DELETE SET NULL)
+                BookDAO.cache().invalidate();
+                ReportCache.tableChanged("book");
+                ReportCache.tableChanged("publisher");
+            }
+            return ok;
         }
     }
 
@@ -0,0 +1,4 @@
+package org.example.project.dao;
+
+/** A search hit with its relevance; higher scores rank first, 0 for rows matched by LIKE only. */
+public record Ranked<T>(T row, double score) {}
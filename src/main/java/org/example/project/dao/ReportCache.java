@@ -0,0 +1,90 @@
+package org.example.project.dao;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Results of the aggregate reports, keyed by report name and arguments.
+ * Entries expire after a TTL, the least recently used ones are dropped beyond a size bound,
+ * and a write to any table a report reads drops that report's entries (the DAOs call
+ * {@link #tableChanged} after each successful write).
+ * <p>
+ * A write that lands while a report is being computed bumps the table's generation,
+ * so the possibly stale result is returned but not stored.
+ */
+final class ReportCache {
+
+    // -Dlibrary.report.cacheTtlMs=... / -Dlibrary.report.cacheSize=...
+    private static final long TTL_MS = Long.getLong("library.report.cacheTtlMs", 5 * 60_000L);
+    private static final int MAX_ENTRIES = Integer.getInteger("library.report.cacheSize", 64);
+
+    private static final Map<Key, Entry> ENTRIES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private static final Map<String, AtomicLong> GENERATIONS = new ConcurrentHashMap<>();
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private record Key(String report, List<Object> args) {}
+
+    private record Entry(ReportTable table, Set<String> tables, long expiresAt) {}
+
+    private ReportCache() {}
+
+    static ReportTable get(String report, Set<String> tables, AsyncDAO.SqlCall<ReportTable> compute,
+                           Object... args) throws SQLException {
+        Key key = new Key(report, Arrays.asList(args));
+        long now = System.currentTimeMillis();
+        synchronized (ENTRIES) {
+            Entry e = ENTRIES.get(key);
+            if (e != null && e.expiresAt > now) {
+                HITS.incrementAndGet();
+                return e.table;
+            }
+            if (e != null) ENTRIES.remove(key);
+        }
+
+        MISSES.incrementAndGet();
+        long before = generation(tables);
+        ReportTable table = compute.call();
+        synchronized (ENTRIES) {
+            if (generation(tables) == before) {
+                ENTRIES.put(key, new Entry(table, tables, System.currentTimeMillis() + TTL_MS));
+            }
+        }
+        return table;
+    }
+
+    /** Drops every cached report that reads the given table. */
+    static void tableChanged(String table) {
+        GENERATIONS.computeIfAbsent(table, t -> new AtomicLong()).incrementAndGet();
+        synchronized (ENTRIES) {
+            ENTRIES.values().removeIf(e -> e.tables.contains(table));
+        }
+    }
+
+    static void clear() {
+        synchronized (ENTRIES) {
+            ENTRIES.clear();
+        }
+    }
+
+    private static long generation(Set<String> tables) {
+        long sum = 0;
+        for (String t : tables) sum += GENERATIONS.computeIfAbsent(t, k -> new AtomicLong()).get();
+        return sum;
+    }
+
+    static long hits() { return HITS.get(); }
+    static long misses() { return MISSES.get(); }
+}
@@ -3,42 +3,48 @@ package org.example.project.dao;
 import org.example.project.db.DatabaseConnection;
 
 import java.sql.*;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 public class ReportDAO {
 
-    // Utility - run SELECT and return dynamic rows
-    private static List<Map<String, Object>> run(String sql, Object... args) throws SQLException {
+    // The aggregates behind the sidebar charts (1, 12-16) go through ReportCache;
+    // the DAOs drop the entries that read a table whenever they write to it.
+
+    // Utility - run SELECT and return its rows column by column
+    private static ReportTable run(String sql, Object... args) throws SQLException {
         try (Connection c = DatabaseConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
 
-            for (int i = 0; i < args.length; i++) ps.setObject(i + 1, args[i]);
+            bind(ps, args);
 
             try (ResultSet rs = ps.executeQuery()) {
-                List<Map<String, Object>> rows = new ArrayList<>();
-                ResultSetMetaData md = rs.getMetaData();
-                int n = md.getColumnCount();
-
-                while (rs.next()) {
-                    Map<String, Object> row = new LinkedHashMap<>();
-                    for (int i = 1; i <= n; i++) row.put(md.getColumnLabel(i), rs.getObject(i));
-                    rows.add(row);
-                }
-                return rows;
+                return ReportTable.read(rs);
             }
         }
     }
 
+    // Streaming variant of run(): rows go to the sink as the driver reads them, nothing is buffered
+    public static long stream(String sql, JdbcStreams.RowSink sink, Object... args) throws SQLException {
+        return JdbcStreams.forEachRow(sql, ps -> bind(ps, args), sink);
+    }
+
+    private static void bind(PreparedStatement ps, Object... args) throws SQLException {
+        for (int i = 0; i < args.length; i++) ps.setObject(i + 1, args[i]);
+    }
+
+    // Drops every cached aggregate (the next call of each report reads the database again)
+    public static void clearCache() {
+        ReportCache.clear();
+    }
+
     // 1. Total value of all books
-    public static List<Map<String,Object>> totalValueOfAllBooks() throws SQLException {
-        return run("SELECT SUM(original_price) AS total_value FROM book");
+    public static ReportTable totalValueOfAllBooks() throws SQLException {
+        return ReportCache.get("totalValueOfAllBooks", Set.of("book"),
+                () -> run("SELECT SUM(original_price) AS total_value FROM book"));
     }
 
     // 2. Books written by a selected author
-    public static List<Map<String,Object>> booksByAuthor(int authorId) throws SQLException {
+    public static ReportTable booksByAuthor(int authorId) throws SQLException {
         String sql = """
             SELECT b.book_id, b.title
             FROM book b JOIN bookauthor ba ON b.book_id = ba.book_id
@@ -48,7 +54,7 @@ public class ReportDAO {
     }
 
 // 3. Books bought by a specific borrower
-    public static List<Map<String, Object>> booksByBorrower(int borrowerId) throws SQLException {
+    public static ReportTable booksByBorrower(int borrowerId) throws SQLException {
         String sql = """
         SELECT
             b.title        AS title,
@@ -66,12 +72,12 @@ public class ReportDAO {
 
 
     // 4. Current loans and due dates
-    public static List<Map<String,Object>> currentLoans() throws SQLException {
+    public static ReportTable currentLoans() throws SQLException {
         return run("SELECT loan_id, borrower_id, book_id, due_date FROM loan WHERE return_date IS NULL");
     }
 
     // 5. Books published in a selected country
-    public static List<Map<String,Object>> booksByPublisherCountry(String country) throws SQLException {
+    public static ReportTable booksByPublisherCountry(String country) throws SQLException {
         String sql = """
             SELECT b.book_id, b.title, p.country
             FROM book b JOIN publisher p ON b.publisher_id = p.publisher_id
@@ -81,7 +87,7 @@ public class ReportDAO {
     }
 
     // 6. Borrowers who never borrowed OR bought a book
-    public static List<Map<String,Object>> borrowersNeverBorrowed() throws SQLException {
+    public static ReportTable borrowersNeverBorrowed() throws SQLException {
         String sql = """
             SELECT bo.borrower_id, bo.first_name, bo.last_name
             FROM borrower bo
@@ -93,7 +99,7 @@ public class ReportDAO {
     }
 
     // 7. Books with more than one author
-    public static List<Map<String,Object>> booksWithMultipleAuthors() throws SQLException {
+    public static ReportTable booksWithMultipleAuthors() throws SQLException {
         String sql = """
             SELECT b.book_id, b.title, COUNT(ba.author_id) AS authors_count
             FROM book b JOIN bookauthor ba ON b.book_id = ba.book_id
@@ -104,80 +110,128 @@ public class ReportDAO {
     }
 
     // 8. Books that were sold and their prices
-    public static List<Map<String,Object>> soldBooksWithPrices() throws SQLException {
-        String sql = """
+    private static final String SOLD_BOOKS_WITH_PRICES = """
             SELECT b.book_id, b.title, s.sale_price, s.sale_date
             FROM sale s JOIN book b ON s.book_id = b.book_id
             """;
-        return run(sql);
+
+    public static ReportTable soldBooksWithPrices() throws SQLException {
+        return run(SOLD_BOOKS_WITH_PRICES);
+    }
+
+    public static long soldBooksWithPrices(JdbcStreams.RowSink sink) throws SQLException {
+        return stream(SOLD_BOOKS_WITH_PRICES, sink);
     }
 
     // 9. Books currently available for borrowing
-    public static List<Map<String,Object>> booksCurrentlyAvailable() throws SQLException {
+    public static ReportTable booksCurrentlyAvailable() throws SQLException {
         return run("SELECT book_id, title FROM book WHERE available = TRUE");
     }
 
     // 10. Loan history for a selected borrower
-    public static List<Map<String,Object>> loanHistoryForBorrower(int borrowerId) throws SQLException {
-        String sql = """
+    private static final String LOAN_HISTORY_FOR_BORROWER = """
             SELECT loan_id, book_id, loan_date, due_date, return_date
             FROM loan
             WHERE borrower_id = ?
             ORDER BY loan_date DESC
             """;
-        return run(sql, borrowerId);
+
+    public static ReportTable loanHistoryForBorrower(int borrowerId) throws SQLException {
+        return run(LOAN_HISTORY_FOR_BORROWER, borrowerId);
+    }
+
+    public static long loanHistoryForBorrower(int borrowerId, JdbcStreams.RowSink sink) throws SQLException {
+        return stream(LOAN_HISTORY_FOR_BORROWER, sink, borrowerId);
     }
 
     // 11. Books borrowed within a date range
-    public static List<Map<String,Object>> booksBorrowedBetween(String from, String to) throws SQLException {
-        String sql = """
+    private static final String BOOKS_BORROWED_BETWEEN = """
             SELECT loan_id, book_id, borrower_id, loan_date
             FROM loan
             WHERE loan_date BETWEEN ? AND ?
             """;
-        return run(sql, from, to);
+
+    public static ReportTable booksBorrowedBetween(String from, String to) throws SQLException {
+        return run(BOOKS_BORROWED_BETWEEN, from, to);
+    }
+
+    public static long booksBorrowedBetween(String from, String to, JdbcStreams.RowSink sink) throws SQLException {
+        return stream(BOOKS_BORROWED_BETWEEN, sink, from, to);
+    }
+
+    // Full sale and loan histories, streaming only (meant for CSV export, not for a TableView)
+    private static final String SALE_HISTORY = """
+            SELECT s.sale_id, s.sale_date, s.book_id, b.title,
+                   s.borrower_id, bo.first_name, bo.last_name, s.sale_price
+            FROM sale s
+            JOIN book b ON b.book_id = s.book_id
+            JOIN borrower bo ON bo.borrower_id = s.borrower_id
+            ORDER BY s.sale_id
+            """;
+
+    private static final String LOAN_HISTORY = """
+            SELECT l.loan_id, l.loan_date, l.due_date, l.return_date, l.book_id, b.title,
+                   l.borrower_id, bo.first_name, bo.last_name
+            FROM loan l
+            JOIN book b ON b.book_id = l.book_id
+            JOIN borrower bo ON bo.borrower_id = l.borrower_id
+            ORDER BY l.loan_id
+            """;
+
+    public static long saleHistory(JdbcStreams.RowSink sink) throws SQLException {
+        return stream(SALE_HISTORY, sink);
+    }
+
+    public static long loanHistory(JdbcStreams.RowSink sink) throws SQLException {
+        return stream(LOAN_HISTORY, sink);
     }
 
     // 12. Books per category (bar chart)
-    public static List<Map<String,Object>> booksPerCategory() throws SQLException {
-        return run("SELECT category, COUNT(*) AS cnt FROM book GROUP BY category ORDER BY cnt DESC");
+    public static ReportTable booksPerCategory() throws SQLException {
+        return ReportCache.get("booksPerCategory", Set.of("book"),
+                () -> run("SELECT category, COUNT(*) AS cnt FROM book GROUP BY category ORDER BY cnt DESC"));
     }
 
     // 13. Availability summary (pie chart)
-    public static List<Map<String,Object>> availabilitySummary() throws SQLException {
+    public static ReportTable availabilitySummary() throws SQLException {
         String sql = """
             SELECT
               SUM(CASE WHEN available = TRUE THEN 1 ELSE 0 END) AS available_cnt,
               SUM(CASE WHEN available = FALSE THEN 1 ELSE 0 END) AS borrowed_cnt
             FROM book
             """;
-        return run(sql);
+        return ReportCache.get("availabilitySummary", Set.of("book"), () -> run(sql));
     }
 
-    // 14. Loans per month (line chart) - MySQL/MariaDB
-    public static List<Map<String,Object>> loansPerMonth() throws SQLException {
+    // 14. Loans per month (line chart) - one row per month from the loan_month rollup
+    public static ReportTable loansPerMonth() throws SQLException {
         String sql = """
-            SELECT DATE_FORMAT(loan_date, '%Y-%m') AS month_label, COUNT(*) AS cnt
-            FROM loan
-            GROUP BY DATE_FORMAT(loan_date, '%Y-%m')
-            ORDER BY month_label
+            SELECT month AS month_label, loan_count AS cnt
+            FROM loan_month
+            WHERE loan_count > 0
+            ORDER BY month
             """;
-        return run(sql);
+        return ReportCache.get("loansPerMonth", Set.of("loan"), () -> run(sql));
     }
 
-    // 15. Sales revenue per month (bar chart) - MySQL/MariaDB
-    public static List<Map<String,Object>> salesRevenuePerMonth() throws SQLException {
+    // 15. Sales revenue per month (bar chart) - one row per month from the sale_month rollup
+    public static ReportTable salesRevenuePerMonth() throws SQLException {
         String sql = """
-            SELECT DATE_FORMAT(sale_date, '%Y-%m') AS month_label, SUM(sale_price) AS revenue
-            FROM sale
-            GROUP BY DATE_FORMAT(sale_date, '%Y-%m')
-            ORDER BY month_label
+            SELECT month AS month_label, revenue
+            FROM sale_month
+            WHERE sale_count > 0
+            ORDER BY month
             """;
-        return run(sql);
+        return ReportCache.get("salesRevenuePerMonth", Set.of("sale"), () -> run(sql));
+    }
+
+    // Recomputes loan_month and sale_month from the loan and sale tables
+    public static void rebuildMonthlyRollups() throws SQLException {
+        MonthlyRollups.rebuild();
     }
 
     // 16. Top borrowers by loans (bar chart)
-    public static List<Map<String,Object>> topBorrowers(int limit) throws SQLException {
+    public static ReportTable topBorrowers(int limit) throws SQLException {
         String sql = """
             SELECT CONCAT(b.first_name, ' ', b.last_name) AS borrower, COUNT(*) AS cnt
             FROM loan l
@@ -186,6 +240,6 @@ public class ReportDAO {
             ORDER BY cnt DESC
             LIMIT ?
             """;
-        return run(sql, limit);
+        return ReportCache.get("topBorrowers", Set.of("loan", "borrower"), () -> run(sql, limit), limit);
     }
 }
@@ -0,0 +1,221 @@
+package org.example.project.dao;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Column-oriented report result: a header plus one typed array per column
+ * (int[], long[], double[], BigDecimal[], LocalDate[], String[]), with nulls tracked
+ * in a bit set. Cells are addressed by (row, column) index; nothing is allocated per row.
+ */
+public final class ReportTable {
+
+    public enum Type { INT, LONG, DOUBLE, DECIMAL, DATE, STRING, OBJECT }
+
+    private static final ReportTable EMPTY = new ReportTable(new String[0], new Column[0], 0, Instant.EPOCH);
+
+    private final String[] names;
+    private final Column[] columns;
+    private final int rows;
+    private final Instant computedAt;
+
+    private ReportTable(String[] names, Column[] columns, int rows, Instant computedAt) {
+        this.names = names;
+        this.columns = columns;
+        this.rows = rows;
+        this.computedAt = computedAt;
+    }
+
+    public static ReportTable empty() {
+        return EMPTY;
+    }
+
+    /** Reads the remaining rows of the result set; column types come from its metadata. */
+    public static ReportTable read(ResultSet rs) throws SQLException {
+        ResultSetMetaData md = rs.getMetaData();
+        int n = md.getColumnCount();
+        String[] names = new String[n];
+        Column[] columns = new Column[n];
+        for (int i = 0; i < n; i++) {
+            names[i] = md.getColumnLabel(i + 1);
+            columns[i] = Column.of(md, i + 1);
+        }
+
+        int row = 0;
+        while (rs.next()) {
+            for (int i = 0; i < n; i++) columns[i].read(rs, i + 1, row);
+            row++;
+        }
+        for (Column c : columns) c.trim(row);
+        return new ReportTable(names, columns, row, Instant.now());
+    }
+
+    // ---- SHAPE ----
+    public int rowCount() { return rows; }
+    public int columnCount() { return names.length; }
+    public boolean isEmpty() { return rows == 0; }
+    public String name(int column) { return names[column]; }
+    public List<String> names() { return List.of(names); }
+    public Type type(int column) { return columns[column].type; }
+
+    /** When the rows were read from the database; cached reports keep their original time. */
+    public Instant computedAt() { return computedAt; }
+
+    /** Index of the column with this label, or -1. */
+    public int indexOf(String name) {
+        for (int i = 0; i < names.length; i++) if (names[i].equals(name)) return i;
+        return -1;
+    }
+
+    // ---- CELLS ----
+    public boolean isNull(int row, int column) {
+        return columns[column].nulls.get(row);
+    }
+
+    public int getInt(int row, int column) {
+        return ((IntColumn) columns[column]).values[row];
+    }
+
+    public long getLong(int row, int column) {
+        Column c = columns[column];
+        return c instanceof IntColumn ic ? ic.values[row] : ((LongColumn) c).values[row];
+    }
+
+    /** Any numeric column as a double (0 for null); what the charts plot. */
+    public double getDouble(int row, int column) {
+        return switch (columns[column]) {
+            case IntColumn c -> c.values[row];
+            case LongColumn c -> c.values[row];
+            case DoubleColumn c -> c.values[row];
+            case DecimalColumn c -> c.values[row] == null ? 0 : c.values[row].doubleValue();
+            default -> throw new IllegalStateException("Column " + names[column] + " is not numeric.");
+        };
+    }
+
+    public BigDecimal getDecimal(int row, int column) {
+        return ((DecimalColumn) columns[column]).values[row];
+    }
+
+    public LocalDate getDate(int row, int column) {
+        return ((DateColumn) columns[column]).values[row];
+    }
+
+    /** Text of a cell as shown in tables and CSV files; null for SQL NULL. */
+    public String getString(int row, int column) {
+        if (isNull(row, column)) return null;
+        Object v = get(row, column);
+        return v instanceof BigDecimal d ? d.toPlainString() : String.valueOf(v);
+    }
+
+    /** Boxed cell value; allocation per call, prefer the typed getters in loops. */
+    public Object get(int row, int column) {
+        if (isNull(row, column)) return null;
+        return switch (columns[column]) {
+            case IntColumn c -> c.values[row];
+            case LongColumn c -> c.values[row];
+            case DoubleColumn c -> c.values[row];
+            case DecimalColumn c -> c.values[row];
+            case DateColumn c -> c.values[row];
+            case StringColumn c -> c.values[row];
+            case ObjectColumn c -> c.values[row];
+        };
+    }
+
+    // ---- COLUMNS ----
+    private abstract static sealed class Column
+            permits IntColumn, LongColumn, DoubleColumn, DecimalColumn, DateColumn, StringColumn, ObjectColumn {
+        final Type type;
+        final BitSet nulls = new BitSet();
+        int capacity = 16;
+
+        Column(Type type) { this.type = type; }
+
+        static Column of(ResultSetMetaData md, int i) throws SQLException {
+            return switch (md.getColumnType(i)) {
+                case Types.TINYINT, Types.SMALLINT -> new IntColumn();
+                case Types.INTEGER -> md.isSigned(i) ? new IntColumn() : new LongColumn();
+                case Types.BIGINT -> new LongColumn();
+                case Types.REAL, Types.FLOAT, Types.DOUBLE -> new DoubleColumn();
+                case Types.DECIMAL, Types.NUMERIC -> new DecimalColumn();
+                case Types.DATE -> new DateColumn();
+                case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR,
+                     Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR -> new StringColumn();
+                default -> new ObjectColumn();
+            };
+        }
+
+        final void read(ResultSet rs, int i, int row) throws SQLException {
+            if (row == capacity) {
+                capacity = capacity * 2;
+                grow(capacity);
+            }
+            set(rs, i, row);
+            if (rs.wasNull()) nulls.set(row);
+        }
+
+        abstract void set(ResultSet rs, int i, int row) throws SQLException;
+
+        abstract void grow(int capacity);
+
+        final void trim(int rows) {
+            if (rows != capacity) grow(rows);
+        }
+    }
+
+    private static final class IntColumn extends Column {
+        int[] values = new int[16];
+        IntColumn() { super(Type.INT); }
+        void set(ResultSet rs, int i, int row) throws SQLException { values[row] = rs.getInt(i); }
+        void grow(int capacity) { values = Arrays.copyOf(values, capacity); }
+    }
+
+    private static final class LongColumn extends Column {
+        long[] values = new long[16];
+        LongColumn() { super(Type.LONG); }
+        void set(ResultSet rs, int i, int row) throws SQLException { values[row] = rs.getLong(i); }
+        void grow(int capacity) { values = Arrays.copyOf(values, capacity); }
+    }
+
+    private static final class DoubleColumn extends Column {
+        double[] values = new double[16];
+        DoubleColumn() { super(Type.DOUBLE); }
+        void set(ResultSet rs, int i, int row) throws SQLException { values[row] = rs.getDouble(i); }
+        void grow(int capacity) { values = Arrays.copyOf(values, capacity); }
+    }
+
+    private static final class DecimalColumn extends Column {
+        BigDecimal[] values = new BigDecimal[16];
+        DecimalColumn() { super(Type.DECIMAL); }
+        void set(ResultSet rs, int i, int row) throws SQLException { values[row] = rs.getBigDecimal(i); }
+        void grow(int capacity) { values = Arrays.copyOf(values, capacity); }
+    }
+
+    private static final class DateColumn extends Column {
+        LocalDate[] values = new LocalDate[16];
+        DateColumn() { super(Type.DATE); }
+        void set(ResultSet rs, int i, int row) throws SQLException { values[row] = rs.getObject(i, LocalDate.class); }
+        void grow(int capacity) { values = Arrays.copyOf(values, capacity); }
+    }
+
+    private static final class StringColumn extends Column {
+        String[] values = new String[16];
+        StringColumn() { super(Type.STRING); }
+        void set(ResultSet rs, int i, int row) throws SQLException { values[row] = rs.getString(i); }
+        void grow(int capacity) { values = Arrays.copyOf(values, capacity); }
+    }
+
+    private static final class ObjectColumn extends Column {
+        Object[] values = new Object[16];
+        ObjectColumn() { super(Type.OBJECT); }
+        void set(ResultSet rs, int i, int row) throws SQLException { values[row] = rs.getObject(i); }
+        void grow(int capacity) { values = Arrays.copyOf(values, capacity); }
+    }
+}
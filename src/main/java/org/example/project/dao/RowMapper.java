@@ -0,0 +1,10 @@
+package org.example.project.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** Maps the current row of a ResultSet; the DAOs' private map(rs) methods fit this shape. */
+@FunctionalInterface
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
@@ -1,21 +1,107 @@
 package org.example.project.dao;
 
+import org.example.project.cache.EntityCache;
 import org.example.project.db.DatabaseConnection;
 import org.example.project.model.Sale;
 import org.example.project.util.ValidationUtil;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 public class SaleDAO {
 
+    private static final String SELECT_ALL = "SELECT sale_id, book_id, borrower_id, sale_price, sale_date FROM sale";
+
+    private static final EntityCache<Sale> CACHE = new EntityCache<>("sale", SaleDAO::loadAll, SaleDAO::loadByIds, Sale::getSaleId, false);
+
     // 🔹 Get all sales
+    // (reads the whole table on every call; the sales table is paged, not cached)
     public static List<Sale> findAll() throws SQLException {
-        String sql = "SELECT sale_id, book_id, borrower_id, sale_price, sale_date FROM sale";
+        return CACHE.all();
+    }
+
+    public static EntityCache<Sale> cache() {
+        return CACHE;
+    }
+
+    /** The sale with this id, or null; O(1) when the table or the row is already cached. */
+    public static Sale findById(int id) throws SQLException {
+        return CACHE.get(id);
+    }
+
+    /** Rows for the ids, keyed by id in the order given (unknown ids left out); uncached ids are read in chunked IN lists. */
+    public static Map<Integer, Sale> findByIds(Collection<Integer> ids) throws SQLException {
+        return CACHE.getAll(ids);
+    }
+
+    /** Orderings available to {@link #findPage}; ties are broken by sale_id. */
+    public enum SortKey {
+        ID(null),
+        SALE_DATE("sale_date");
+
+        final String column;
+        SortKey(String column) { this.column = column; }
+    }
+
+    /** Keyset page: up to pageSize rows after the row with id afterId (0 = first page). */
+    public static Page<Sale> findPage(int afterId, int pageSize, SortKey sort) throws SQLException {
+        return Keyset.page(SELECT_ALL, "sale", "sale_id", sort.column,
+                afterId, pageSize, SaleDAO::map, Sale::getSaleId);
+    }
+
+    /** Columns offered by the Sales tab's filter; see {@link #distinctValues}. */
+    public enum FilterColumn {
+        SALE_ID("sale_id"),
+        BOOK_ID("book_id"),
+        BORROWER_ID("borrower_id");
+
+        final String expression;
+        final String[] prefixTests;
+        FilterColumn(String expression, String... prefixTests) {
+            this.expression = expression;
+            this.prefixTests = prefixTests;
+        }
+    }
+
+    /** Rows whose column equals the value, newest first (an index lookup). */
+    public static List<Sale> findBy(FilterColumn column, int value) throws SQLException {
         try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql);
+             PreparedStatement ps = c.prepareStatement(
+                     SELECT_ALL + " WHERE " + column.expression + " = ? ORDER BY sale_id DESC")) {
+            ps.setInt(1, value);
+            List<Sale> list = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) list.add(map(rs));
+            }
+            return list;
+        }
+    }
+
+    /** Up to {@code limit} distinct values of the column, sorted; only those starting with {@code prefix} unless it is blank. */
+    public static List<String> distinctValues(FilterColumn column, String prefix, int limit) throws SQLException {
+        return DistinctValues.list("sale", column.expression, column.prefixTests, prefix, limit);
+    }
+
+    /** Streams every row without buffering the table; close the stream (try-with-resources). */
+    public static Stream<Sale> streamAll() throws SQLException {
+        return JdbcStreams.stream(SELECT_ALL, JdbcStreams.Binder.NONE, SaleDAO::map);
+    }
+
+    /** Pushes every row to the consumer as it is read; returns the row count. */
+    public static long forEach(Consumer<? super Sale> sink) throws SQLException {
+        return JdbcStreams.forEach(SELECT_ALL, JdbcStreams.Binder.NONE, SaleDAO::map, sink);
+    }
+
+    private static List<Sale> loadAll() throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(SELECT_ALL);
              ResultSet rs = ps.executeQuery()) {
 
             List<Sale> list = new ArrayList<>();
@@ -24,6 +110,10 @@ public class SaleDAO {
         }
     }
 
+    private static List<Sale> loadByIds(Collection<Integer> ids) throws SQLException {
+        return PrimaryKeys.load(SELECT_ALL, "sale_id", ids, SaleDAO::map);
+    }
+
     // 🔹 Insert a new sale
 
     public static int insert(int bookId, int borrowerId, double salePrice, LocalDate saleDate) throws SQLException {
@@ -36,15 +126,25 @@ public class SaleDAO {
         try (Connection c = DatabaseConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
+            // the row and its month total commit together; the pool rolls back anything left open
+            c.setAutoCommit(false);
             ps.setInt(1, bookId);
             ps.setInt(2, borrowerId);
             ps.setDouble(3, salePrice);
             ps.setDate(4, Date.valueOf(saleDate));
             ps.executeUpdate();
 
+            int id;
             try (ResultSet keys = ps.getGeneratedKeys()) {
-                return keys.next() ? keys.getInt(1) : 0;
+                id = keys.next() ? keys.getInt(1) : 0;
+            }
+            MonthlyRollups.addSales(c, saleDate, 1, BigDecimal.valueOf(salePrice));
+            c.commit();
+            if (id > 0) {
+                CACHE.put(new Sale(id, bookId, borrowerId, saleDate, salePrice));
+                ReportCache.tableChanged("sale");
             }
+            return id;
         }
     }
 
@@ -59,12 +159,26 @@ public class SaleDAO {
         try (Connection c = DatabaseConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
 
+            c.setAutoCommit(false);
+            Sale old = lock(c, saleId);
             ps.setInt(1, bookId);
             ps.setInt(2, borrowerId);
             ps.setDouble(3, salePrice);
             ps.setDate(4, Date.valueOf(saleDate));
             ps.setInt(5, saleId);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok && old != null) {
+                MonthlyRollups.addSales(c, old.getSaleDate(), -1, BigDecimal.valueOf(old.getSalePrice()).negate());
+                MonthlyRollups.addSales(c, saleDate, 1, BigDecimal.valueOf(salePrice));
+            }
+            c.commit();
+            if (ok) {
+                CACHE.put(new Sale(saleId, bookId, borrowerId, saleDate, salePrice));
+                ReportCache.tableChanged("sale");
+            } else {
+                CACHE.remove(saleId);
+            }
+            return ok;
         }
     }
 
@@ -76,9 +190,21 @@ public class SaleDAO {
         try (Connection c = DatabaseConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
 
+            c.setAutoCommit(false);
+            Sale old = lock(c, id);
             ps.setDouble(1, newPrice);
             ps.setInt(2, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok && old != null) {
+                MonthlyRollups.addSales(c, old.getSaleDate(), 0,
+                        BigDecimal.valueOf(newPrice).subtract(BigDecimal.valueOf(old.getSalePrice())));
+            }
+            c.commit();
+            if (ok) {
+                CACHE.update(id, s -> new Sale(s.getSaleId(), s.getBookId(), s.getBorrowerId(), s.getSaleDate(), newPrice));
+                ReportCache.tableChanged("sale");
+            }
+            return ok;
         }
     }
 
@@ -87,44 +213,51 @@ public class SaleDAO {
         String sql = "DELETE FROM sale WHERE sale_id = ?";
         try (Connection c = DatabaseConnection.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
+            c.setAutoCommit(false);
+            Sale old = lock(c, id);
             ps.setInt(1, id);
-            return ps.executeUpdate() == 1;
+            boolean ok = ps.executeUpdate() == 1;
+            if (ok && old != null) {
+                MonthlyRollups.addSales(c, old.getSaleDate(), -1, BigDecimal.valueOf(old.getSalePrice()).negate());
+            }
+            c.commit();
+            if (ok) {
+                CACHE.remove(id);
+                ReportCache.tableChanged("sale");
+            }
+            return ok;
         }
     }
 
 
-    // 🔹 Search sales by any field
-    public static List<Sale> search(String keyword) throws SQLException {
-        String sql = """
-        SELECT s.sale_id, s.book_id, s.borrower_id, s.sale_price, s.sale_date
-        FROM sale s
-        JOIN book bk ON s.book_id = bk.book_id
-        JOIN author a ON bk.author_id = a.author_id
-        JOIN borrower b ON s.borrower_id = b.borrower_id
-        WHERE CAST(s.sale_id AS CHAR) LIKE ?
-           OR CAST(s.book_id AS CHAR) LIKE ?
-           OR CAST(s.borrower_id AS CHAR) LIKE ?
-           OR CAST(s.sale_price AS CHAR) LIKE ?
-           OR s.sale_date LIKE ?
-           OR bk.title LIKE ?
-           OR a.name LIKE ?
-           OR b.name LIKE ?
-        """;
-
-        try (Connection c = DatabaseConnection.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-
-            String pattern = "%" + keyword + "%";
-            for (int i = 1; i <= 8; i++) ps.setString(i, pattern);
-
-            List<Sale> list = new ArrayList<>();
+    // current row, locked until the caller's transaction ends (null if no such row)
+    private static Sale lock(Connection c, int saleId) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(SELECT_ALL + " WHERE sale_id = ? FOR UPDATE")) {
+            ps.setInt(1, saleId);
             try (ResultSet rs = ps.executeQuery()) {
-                while (rs.next()) list.add(map(rs));
+                return rs.next() ? map(rs) : null;
             }
-            return list;
         }
     }
 
+    // 🔹 Search sales: numbers match ids, dates match the sale date, words match
+    // borrower, title and author (see TypedSearch; every predicate can use an index)
+    // (newest first, capped at library.search.maxRows; hasMore = there were more matches)
+    public static Page<Sale> search(String keyword) throws SQLException {
+        return TypedSearch.run(SELECT_ALL, "sale", "sale_id", keyword, SaleDAO::searchBranches, SaleDAO::map, Sale::getSaleId);
+    }
+
+    private static List<TypedSearch.Branch> searchBranches(TypedSearch.Term term) throws SQLException {
+        return switch (term) {
+            case TypedSearch.Id id -> List.of(
+                    new TypedSearch.Branch("sale_id = ?", id.value()),
+                    new TypedSearch.Branch("book_id = ?", id.value()),
+                    new TypedSearch.Branch("borrower_id = ?", id.value()));
+            case TypedSearch.Dates d -> List.of(TypedSearch.between("sale_date", d));
+            case TypedSearch.Text t -> TypedSearch.peopleAndBooks(t);
+        };
+    }
+
     // 🔹 Map row to Sale object
     private static Sale map(ResultSet rs) throws SQLException {
         return new Sale(
@@ -0,0 +1,9 @@
+package org.example.project.dao;
+
+/** How the DAOs' ranked full-text searches read the search words. */
+public enum SearchMode {
+    /** MATCH ... IN NATURAL LANGUAGE MODE: rows with any of the words, the best matches first. */
+    NATURAL_LANGUAGE,
+    /** MATCH ... IN BOOLEAN MODE with every word required and matched as a prefix ({@code +word*}). */
+    BOOLEAN
+}
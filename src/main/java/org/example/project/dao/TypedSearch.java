@@ -0,0 +1,204 @@
+package org.example.project.dao;
+
+import org.example.project.db.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keyword search behind LoanDAO.search and SaleDAO.search. Each whitespace-separated token is
+ * classified and turned into predicates an index can serve:
+ * <ul>
+ *   <li>a whole number: equality on the row's id and its book/borrower foreign keys;</li>
+ *   <li>a date ({@code 2024-03-15}, {@code 2024-03}, {@code 2024}) or range ({@code 2024-01..2024-03}):
+ *       a half-open range on the row's date columns (a plausible year also counts as a number);</li>
+ *   <li>anything else: a name or title lookup: borrower and author names by prefix, book titles
+ *       through the {@code ft_book_title} FULLTEXT index (prefix LIKE for short words).</li>
+ * </ul>
+ * The predicates of one token are separate SELECTs of the row id combined with UNION, so each
+ * can use its own index; a row must match every token. At most {@link #MAX_ROWS} rows come back
+ * ({@code -Dlibrary.search.maxRows}), newest id first, as a {@link Page} whose {@code hasMore}
+ * tells the caller the cap was hit.
+ */
+final class TypedSearch {
+
+    static final int MAX_ROWS = Integer.getInteger("library.search.maxRows", 1000);
+
+    private static final Pattern DATE = Pattern.compile("(\\d{4})(?:-(\\d{1,2})(?:-(\\d{1,2}))?)?");
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}_]+");
+
+    /** What a token can mean. */
+    sealed interface Term permits Id, Dates, Text {}
+
+    record Id(int value) implements Term {}
+
+    /** Days from {@code from} up to, not including, {@code until}. */
+    record Dates(LocalDate from, LocalDate until) implements Term {}
+
+    record Text(String text) implements Term {}
+
+    /** One way a term can match: a WHERE clause over the searched table, with its parameters. */
+    record Branch(String where, Object... params) {}
+
+    /** The branches a DAO offers for a term; an empty list means the term cannot match. */
+    @FunctionalInterface
+    interface Branches {
+        List<Branch> of(Term term) throws SQLException;
+    }
+
+    private TypedSearch() {}
+
+    // ---- PARSING ----
+
+    /** Every interpretation of every token, one list per token. */
+    static List<List<Term>> parse(String text) {
+        List<List<Term>> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) return tokens;
+        for (String token : text.trim().split("\\s+")) tokens.add(terms(token));
+        return tokens;
+    }
+
+    private static List<Term> terms(String token) {
+        List<Term> terms = new ArrayList<>();
+        if (token.matches("\\d{1,9}")) terms.add(new Id(Integer.parseInt(token)));
+
+        int dots = token.indexOf("..");
+        Dates dates = dots < 0
+                ? period(token)
+                : range(period(token.substring(0, dots)), period(token.substring(dots + 2)));
+        if (dates != null && (!token.matches("\\d{4}") || plausibleYear(dates.from().getYear()))) terms.add(dates);
+
+        if (terms.isEmpty()) terms.add(new Text(token));
+        return terms;
+    }
+
+    /** The day, month or year the token names, or null. */
+    private static Dates period(String token) {
+        Matcher m = DATE.matcher(token);
+        if (!m.matches()) return null;
+        try {
+            int year = Integer.parseInt(m.group(1));
+            if (m.group(2) == null) return new Dates(LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
+            YearMonth month = YearMonth.of(year, Integer.parseInt(m.group(2)));
+            if (m.group(3) == null) return new Dates(month.atDay(1), month.plusMonths(1).atDay(1));
+            LocalDate day = month.atDay(Integer.parseInt(m.group(3)));
+            return new Dates(day, day.plusDays(1));
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static Dates range(Dates from, Dates to) {
+        if (from == null || to == null || to.until().isBefore(from.from())) return null;
+        return new Dates(from.from(), to.until());
+    }
+
+    private static boolean plausibleYear(int year) {
+        return year >= 1900 && year <= 2100;
+    }
+
+    // ---- SHARED BRANCHES ----
+
+    /** Date range on one column; half-open so DATE and DATETIME columns behave the same. */
+    static Branch between(String column, Dates d) {
+        return new Branch(column + " >= ? AND " + column + " < ?", Date.valueOf(d.from()), Date.valueOf(d.until()));
+    }
+
+    /**
+     * Text branches for a table with borrower_id and book_id columns: borrower first/last name
+     * by prefix, book title, and author first/last name (through bookauthor) by prefix.
+     */
+    static List<Branch> peopleAndBooks(Text t) throws SQLException {
+        String prefix = DistinctValues.startsWith(t.text());
+        List<Branch> branches = new ArrayList<>();
+        branches.add(new Branch("borrower_id IN (SELECT borrower_id FROM borrower WHERE first_name LIKE ?)", prefix));
+        branches.add(new Branch("borrower_id IN (SELECT borrower_id FROM borrower WHERE last_name LIKE ?)", prefix));
+        if (t.text().length() >= FullText.MIN_TOKEN && WORD.matcher(t.text()).matches()) {
+            FullText.ensureIndex("book");
+            branches.add(new Branch("book_id IN (SELECT book_id FROM book WHERE MATCH(title) AGAINST (? IN BOOLEAN MODE))",
+                    FullText.against(List.of(t.text()), SearchMode.BOOLEAN)));
+        } else {
+            branches.add(new Branch("book_id IN (SELECT book_id FROM book WHERE title LIKE ?)", prefix));
+        }
+        branches.add(new Branch("book_id IN (SELECT ba.book_id FROM bookauthor ba JOIN author a ON a.author_id = ba.author_id"
+                + " WHERE a.first_name LIKE ?)", prefix));
+        branches.add(new Branch("book_id IN (SELECT ba.book_id FROM bookauthor ba JOIN author a ON a.author_id = ba.author_id"
+                + " WHERE a.last_name LIKE ?)", prefix));
+        return branches;
+    }
+
+    // ---- QUERY ----
+
+    /**
+     * Up to {@link #MAX_ROWS} rows of {@code select} (a {@code SELECT columns FROM table} without
+     * WHERE) matching every token of text, newest id first; a blank text gives the newest rows.
+     * {@code hasMore} says the result was cut at the cap, {@code lastId} is the oldest id returned.
+     * <p>
+     * The ids are picked (intersected, sorted and capped) inside a derived table before the rows
+     * are joined by primary key. With the IN (subquery) form the outer ORDER BY id DESC LIMIT
+     * invites a backward primary-key scan of the whole table that probes the subquery per row;
+     * UNION derived tables are always materialized, and STRAIGHT_JOIN keeps them the driving table.
+     */
+    static <T> Page<T> run(String select, String table, String idColumn, String text,
+                           Branches branches, RowMapper<T> mapper, ToIntFunction<T> idOf) throws SQLException {
+        String from = " FROM " + table;
+        if (!select.startsWith("SELECT ") || !select.endsWith(from)) {
+            throw new IllegalArgumentException("Expected SELECT ... FROM " + table + ": " + select);
+        }
+        StringBuilder sql = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+
+        List<List<Term>> tokens = parse(text);
+        if (tokens.isEmpty()) {
+            sql.append(select).append(" ORDER BY ").append(idColumn).append(" DESC LIMIT ?");
+        } else {
+            StringBuilder ids = new StringBuilder("SELECT t0.id FROM ");
+            for (int i = 0; i < tokens.size(); i++) {
+                List<String> selects = new ArrayList<>();
+                for (Term term : tokens.get(i)) {
+                    for (Branch b : branches.of(term)) {
+                        selects.add("SELECT " + idColumn + " AS id FROM " + table + " WHERE " + b.where());
+                        params.addAll(List.of(b.params()));
+                    }
+                }
+                if (selects.isEmpty()) return Page.empty();
+                if (i > 0) ids.append(" JOIN ");
+                ids.append('(').append(String.join(" UNION ", selects)).append(") t").append(i);
+                if (i > 0) ids.append(" ON t").append(i).append(".id = t0.id");
+            }
+            ids.append(" ORDER BY t0.id DESC LIMIT ?");
+
+            sql.append("SELECT STRAIGHT_JOIN ")
+                    .append(select, "SELECT ".length(), select.length() - from.length())
+                    .append(" FROM (").append(ids).append(") ids JOIN ").append(table)
+                    .append(" ON ").append(table).append('.').append(idColumn).append(" = ids.id")
+                    .append(" ORDER BY ").append(table).append('.').append(idColumn).append(" DESC");
+        }
+
+        try (Connection c = DatabaseConnection.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            int p = 1;
+            for (Object param : params) ps.setObject(p++, param);
+            ps.setInt(p, MAX_ROWS + 1);   // one extra row tells whether the cap cut anything
+
+            List<T> rows = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) rows.add(mapper.map(rs));
+            }
+            boolean hasMore = rows.size() > MAX_ROWS;
+            if (hasMore) rows = rows.subList(0, MAX_ROWS);
+            return new Page<>(rows, rows.isEmpty() ? 0 : idOf.applyAsInt(rows.get(rows.size() - 1)), hasMore);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package org.example.project.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Small blocking JDBC pool. Connections handed out are proxies whose close()
+ * returns the physical connection to the pool instead of closing it.
+ * Each physical connection carries its own {@link StatementCache}.
+ */
+public final class ConnectionPool {
+
+    private static final Logger LOG = Logger.getLogger("org.example.project.db.pool");
+
+    // connections returned more recently than this are trusted without a round trip
+    private static final long VALIDATE_AFTER_MS = 500;
+
+    private final String url, user, pass;
+    private final int minIdle, maxSize, statementCacheSize;
+    private final long idleTimeoutMs, borrowTimeoutMs, leakThresholdMs;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition returned = lock.newCondition();
+    private final Deque<Pooled> idle = new ArrayDeque<>();
+    private final Map<Pooled, Borrow> borrowed = new ConcurrentHashMap<>();
+    private int total;
+    private boolean closed;
+
+    private final ScheduledExecutorService housekeeper;
+
+    public ConnectionPool(String url, String user, String pass,
+                          int minIdle, int maxSize,
+                          long idleTimeoutMs, long borrowTimeoutMs, long leakThresholdMs,
+                          int statementCacheSize) {
+        if (maxSize <= 0 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minIdle + ", max=" + maxSize);
+        }
+        this.url = url; this.user = user; this.pass = pass;
+        this.minIdle = minIdle; this.maxSize = maxSize;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.leakThresholdMs = leakThresholdMs;
+        this.statementCacheSize = statementCacheSize;
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeepSafely, 5, 5, TimeUnit.SECONDS);
+    }
+
+    // ---- BORROW ----
+    public Connection getConnection() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(borrowTimeoutMs);
+        while (true) {
+            Pooled candidate = null;
+            boolean create = false;
+
+            lock.lock();
+            try {
+                while (candidate == null && !create) {
+                    if (closed) throw new SQLException("Connection pool is closed.");
+                    candidate = idle.pollFirst();
+                    if (candidate == null && total < maxSize) {
+                        total++;
+                        create = true;
+                    } else if (candidate == null) {
+                        long left = deadline - System.nanoTime();
+                        if (left <= 0) {
+                            throw new SQLTimeoutException("Timed out after " + borrowTimeoutMs
+                                    + " ms waiting for a database connection (pool max=" + maxSize + ").");
+                        }
+                        try {
+                            returned.awaitNanos(left);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new SQLException("Interrupted while waiting for a database connection.", e);
+                        }
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (create) {
+                try {
+                    candidate = open();
+                } catch (SQLException e) {
+                    discarded();
+                    throw e;
+                }
+            } else if (!isUsable(candidate)) {
+                destroy(candidate);
+                continue;
+            }
+            return lend(candidate);
+        }
+    }
+
+    private Pooled open() throws SQLException {
+        return new Pooled(DriverManager.getConnection(url, user, pass), new StatementCache(statementCacheSize));
+    }
+
+    private boolean isUsable(Pooled p) {
+        if (System.currentTimeMillis() - p.lastReturned < VALIDATE_AFTER_MS) return true;
+        try {
+            return p.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection lend(Pooled p) {
+        borrowed.put(p, new Borrow(System.currentTimeMillis(), new Exception("Connection borrowed here")));
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, new Handle(p));
+    }
+
+    // ---- RETURN ----
+    private void release(Pooled p) {
+        borrowed.remove(p);
+        try {
+            if (!p.physical.getAutoCommit()) {
+                p.physical.rollback();
+                p.physical.setAutoCommit(true);
+            }
+            if (p.physical.isReadOnly()) p.physical.setReadOnly(false);
+            p.physical.clearWarnings();
+        } catch (SQLException e) {
+            destroy(p);
+            return;
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                total--;
+                closeQuietly(p);
+                return;
+            }
+            p.lastReturned = System.currentTimeMillis();
+            idle.offerFirst(p);
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void destroy(Pooled p) {
+        closeQuietly(p);
+        discarded();
+    }
+
+    private void discarded() {
+        lock.lock();
+        try {
+            total--;
+            returned.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void closeQuietly(Pooled p) {
+        try { p.physical.close(); } catch (SQLException ignored) {}
+    }
+
+    // ---- HOUSEKEEPING: idle eviction, min-idle top-up, leak detection ----
+
+    // an exception escaping a scheduleWithFixedDelay task cancels every later run
+    private void housekeepSafely() {
+        try {
+            housekeep();
+        } catch (RuntimeException e) {
+            LOG.log(Level.WARNING, "Pool housekeeping failed", e);
+        }
+    }
+
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            // oldest idle connections sit at the tail
+            while (total > minIdle && !idle.isEmpty() && now - idle.peekLast().lastReturned > idleTimeoutMs) {
+                closeQuietly(idle.pollLast());
+                total--;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        fillToMinIdle();
+
+        if (leakThresholdMs > 0) {
+            borrowed.forEach((p, b) -> {
+                if (!b.reported && now - b.since > leakThresholdMs) {
+                    b.reported = true;
+                    LOG.log(Level.WARNING, "Possible connection leak: held for " + (now - b.since)
+                            + " ms, borrowed at", b.origin);
+                }
+            });
+        }
+    }
+
+    private void fillToMinIdle() {
+        while (true) {
+            lock.lock();
+            try {
+                if (closed || idle.size() >= minIdle || total >= maxSize) return;
+                total++;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                release(open());
+            } catch (SQLException e) {
+                discarded();
+                return;
+            }
+        }
+    }
+
+    public void shutdown() {
+        housekeeper.shutdownNow();
+        lock.lock();
+        try {
+            closed = true;
+            while (!idle.isEmpty()) {
+                closeQuietly(idle.pollFirst());
+                total--;
+            }
+            returned.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getTotalConnections() {
+        lock.lock();
+        try { return total; } finally { lock.unlock(); }
+    }
+
+    public int getIdleConnections() {
+        lock.lock();
+        try { return idle.size(); } finally { lock.unlock(); }
+    }
+
+    public int getActiveConnections() {
+        return borrowed.size();
+    }
+
+    // ---- INTERNALS ----
+    private static final class Pooled {
+        final Connection physical;
+        final StatementCache statements;
+        volatile long lastReturned = System.currentTimeMillis();
+
+        Pooled(Connection physical, StatementCache statements) {
+            this.physical = physical;
+            this.statements = statements;
+        }
+    }
+
+    private static final class Borrow {
+        final long since;
+        final Exception origin;
+        volatile boolean reported;
+
+        Borrow(long since, Exception origin) { this.since = since; this.origin = origin; }
+    }
+
+    /** Logical connection: close() gives the physical one back, everything else delegates. */
+    private final class Handle implements InvocationHandler {
+        private final Pooled pooled;
+        private boolean closed;
+
+        Handle(Pooled pooled) { this.pooled = pooled; }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> { return closed || pooled.physical.isClosed(); }
+                case "equals" -> { return proxy == args[0]; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                case "toString" -> { return "Pooled[" + pooled.physical + "]"; }
+            }
+            if (closed) throw new SQLException("Connection is closed.");
+            if (m.getName().equals("prepareStatement") && pooled.statements.isEnabled()) {
+                Class<?>[] params = m.getParameterTypes();
+                if (params.length == 1) {
+                    return pooled.statements.prepare((Connection) proxy, pooled.physical,
+                            (String) args[0], Statement.NO_GENERATED_KEYS);
+                }
+                if (params.length == 2 && params[1] == int.class) {
+                    return pooled.statements.prepare((Connection) proxy, pooled.physical,
+                            (String) args[0], (Integer) args[1]);
+                }
+            }
+            try {
+                return m.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
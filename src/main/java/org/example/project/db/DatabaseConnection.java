@@ -1,17 +1,43 @@
 package org.example.project.db;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
-    private static final String URL  = "jdbc:mysql://localhost:3306/my_library?useSSL=false&serverTimezone=UTC";
+    // useServerPrepStmts: statements cached per connection are prepared once on the server
+    // rewriteBatchedStatements: executeBatch() on an INSERT sends multi-row INSERTs
+    private static final String URL  = "jdbc:mysql://localhost:3306/my_library?useSSL=false&serverTimezone=UTC"
+            + "&useServerPrepStmts=true&rewriteBatchedStatements=true";
     private static final String USER = "root";
     private static final String PASS = "";
 
+    // Pool settings, overridable with -Dlibrary.db.pool.<name>=...
+    private static final int  MIN_IDLE          = Integer.getInteger("library.db.pool.minIdle", 2);
+    private static final int  MAX_SIZE          = Integer.getInteger("library.db.pool.maxSize", 10);
+    private static final long IDLE_TIMEOUT_MS   = Long.getLong("library.db.pool.idleTimeoutMs", 5 * 60_000L);
+    private static final long BORROW_TIMEOUT_MS = Long.getLong("library.db.pool.borrowTimeoutMs", 10_000L);
+    private static final long LEAK_THRESHOLD_MS = Long.getLong("library.db.pool.leakThresholdMs", 60_000L);
+    private static final int  STMT_CACHE_SIZE   = Integer.getInteger("library.db.pool.statementCacheSize", 64);
+
+    private static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASS,
+            MIN_IDLE, MAX_SIZE, IDLE_TIMEOUT_MS, BORROW_TIMEOUT_MS, LEAK_THRESHOLD_MS, STMT_CACHE_SIZE);
+
+    static {
+        if (Instrumentation.ENABLED) QueryStats.registerMBean();
+    }
+
     private DatabaseConnection() {}
 
+    /** A pooled connection; statements from it are timed into {@link QueryStats} unless instrumentation is off. */
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASS);
+        return Instrumentation.wrap(POOL.getConnection());
+    }
+
+    public static ConnectionPool pool() {
+        return POOL;
+    }
+
+    public static void shutdown() {
+        POOL.shutdown();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,187 @@
+package org.example.project.db;
+
+import org.example.project.jfr.DaoCallEvent;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Timing proxies around the pool's logical connections. Every statement handed out is wrapped
+ * so its execute*() calls are recorded in {@link QueryStats} under the statement's SQL, and
+ * every ResultSet counts the rows read from it. Each statement is also a {@link DaoCallEvent} in
+ * flight recordings. Turn off with {@code -Dlibrary.db.instrument=false}.
+ */
+final class Instrumentation {
+
+    static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("library.db.instrument", "true"));
+
+    private Instrumentation() {}
+
+    static Connection wrap(Connection c) {
+        if (!ENABLED) return c;
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(), new Class<?>[]{Connection.class}, new ConnectionHandle(c));
+    }
+
+    private static Object call(Object target, Method m, Object[] args) throws Throwable {
+        try {
+            return m.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // ---- CONNECTION ----
+
+    private static final class ConnectionHandle implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandle(Connection target) { this.target = target; }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "prepareStatement", "prepareCall", "createStatement" -> {
+                    Object st = call(target, m, args);
+                    String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                    return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                            new Class<?>[]{m.getReturnType()}, new StatementHandle((Statement) st, sql, (Connection) proxy));
+                }
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) return proxy;
+                }
+                case "equals" -> { return proxy == args[0]; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                default -> {}
+            }
+            return call(target, m, args);
+        }
+    }
+
+    // ---- STATEMENT ----
+
+    private static final class StatementHandle implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;        // null for plain Statements
+        private final Connection connection;
+
+        StatementHandle(Statement target, String preparedSql, Connection connection) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            String name = m.getName();
+            if (name.equals("getConnection")) return connection;
+            if (name.equals("equals")) return proxy == args[0];
+            if (name.equals("hashCode")) return System.identityHashCode(proxy);
+            if (!name.startsWith("execute")) return call(target, m, args);
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            if (sql == null) sql = "(batch)";
+            QueryStats stats = QueryStats.get();
+            QueryStats.Entry entry = stats.entry(sql);
+
+            DaoCallEvent event = new DaoCallEvent();
+            event.begin();
+            long t0 = System.nanoTime();
+            Object result;
+            try {
+                result = call(target, m, args);
+            } catch (Throwable t) {
+                stats.executed(entry, sql, System.nanoTime() - t0, 0, true);
+                commit(event, entry, 0, true);
+                throw t;
+            }
+            long elapsed = System.nanoTime() - t0;
+
+            if (result instanceof ResultSet rs) {
+                stats.executed(entry, sql, elapsed, 0, false);
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[]{ResultSet.class}, new ResultSetHandle(rs, entry, event, (Statement) proxy));
+            }
+            long rows = updateCount(result);
+            stats.executed(entry, sql, elapsed, rows, false);
+            commit(event, entry, rows, false);
+            return result;
+        }
+
+        private static long updateCount(Object result) {
+            if (result instanceof Integer n) return Math.max(n, 0);
+            if (result instanceof Long n) return Math.max(n, 0);
+            long sum = 0;
+            if (result instanceof int[] counts) for (int n : counts) sum += Math.max(n, 0);
+            if (result instanceof long[] counts) for (long n : counts) sum += Math.max(n, 0);
+            return sum;
+        }
+    }
+
+    private static void commit(DaoCallEvent event, QueryStats.Entry entry, long rows, boolean failed) {
+        event.end();
+        if (event.shouldCommit()) {
+            // the stack walk only for events that pass the threshold; still inside the DAO method here
+            event.captureCaller();
+            event.sql = entry.fingerprint;
+            event.rows = rows;
+            event.failed = failed;
+            event.commit();
+        }
+    }
+
+    // ---- RESULT SET ----
+
+    private static final class ResultSetHandle implements InvocationHandler {
+        private final ResultSet target;
+        private final QueryStats.Entry entry;
+        private final Statement statement;
+        private DaoCallEvent event;              // committed when the rows are exhausted or closed
+        private long rows;
+        private long total;
+
+        ResultSetHandle(ResultSet target, QueryStats.Entry entry, DaoCallEvent event, Statement statement) {
+            this.target = target;
+            this.entry = entry;
+            this.event = event;
+            this.statement = statement;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "next" -> {
+                    boolean more = target.next();
+                    if (more) rows++;
+                    else flush();
+                    return more;
+                }
+                case "close" -> {
+                    flush();
+                    target.close();
+                    return null;
+                }
+                case "getStatement" -> { return statement; }
+                case "equals" -> { return proxy == args[0]; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                default -> { return call(target, m, args); }
+            }
+        }
+
+        private void flush() {
+            if (rows > 0) entry.rows.add(rows);
+            total += rows;
+            rows = 0;
+            if (event != null) {
+                commit(event, entry, total, false);
+                event = null;
+            }
+        }
+    }
+}
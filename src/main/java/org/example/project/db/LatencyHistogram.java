@@ -0,0 +1,69 @@
+package org.example.project.db;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram in microseconds with HDR-style log-linear buckets: exact below
+ * 128 µs, then 64 buckets per power of two (about 1.6% relative precision) up to ~2^36 µs.
+ * Percentiles report the highest value of the bucket they fall in, as HdrHistogram does.
+ */
+public final class LatencyHistogram {
+
+    private static final int LINEAR = 128;        // values 0..127 get a bucket each
+    private static final int SUB_BUCKETS = 64;    // buckets per power of two above that
+    private static final int MAX_SHIFT = 30;
+    private static final int BUCKETS = LINEAR + MAX_SHIFT * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long micros) {
+        if (micros < 0) micros = 0;
+        counts.incrementAndGet(index(micros));
+        total.incrementAndGet();
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /** Value at or below which the given percentage (0-100) of recordings fall; 0 if empty. */
+    public long percentile(double percent) {
+        long n = total.get();
+        if (n == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(percent / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) return Math.min(highest(i), max.get());
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.set(0);
+        max.set(0);
+    }
+
+    static int index(long v) {
+        if (v < LINEAR) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - 6;   // v >>> shift is in [64, 127]
+        if (shift > MAX_SHIFT) return BUCKETS - 1;
+        return LINEAR + (shift - 1) * SUB_BUCKETS + (int) ((v >>> shift) - SUB_BUCKETS);
+    }
+
+    static long highest(int index) {
+        if (index < LINEAR) return index;
+        int shift = (index - LINEAR) / SUB_BUCKETS + 1;
+        long sub = (index - LINEAR) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,342 @@
+package org.example.project.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Versioned schema changes, applied in order at launch and recorded in {@code schema_version}.
+ * <p>
+ * MySQL commits DDL immediately, so a migration is not a transaction; every step checks
+ * information_schema first and only creates what is missing, which makes a migration that died
+ * half-way safe to run again. Each step is followed at once by its {@code schema_version} row, and
+ * the whole sequence runs under the MySQL named lock {@value #LOCK_NAME}, so two instances starting
+ * against the same database migrate one after the other and the second finds nothing left to do.
+ * After migrating, the indexes the DAOs' hot queries rely on are
+ * checked by column list (an equivalent index under another name, or a longer one starting with
+ * the same columns, counts) and any that are missing are logged and listed in {@link #missingIndexes()};
+ * so are the tables the DAOs write to besides the base tables ({@link #missingTables()}).
+ * <p>
+ * {@code -Dlibrary.db.migrate=false} skips the migrations and only verifies; the DAOs never create
+ * schema objects on a write, so with migrations off the rollup tables must already exist.
+ */
+public final class Migrations {
+
+    private static final Logger LOG = Logger.getLogger("org.example.project.db.schema");
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("library.db.migrate", "true"));
+
+    static final String LOCK_NAME = "library.schema";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+
+    private static final String CREATE_VERSION_TABLE = """
+            CREATE TABLE IF NOT EXISTS schema_version (
+              version     INT          NOT NULL PRIMARY KEY,
+              description VARCHAR(200) NOT NULL,
+              applied_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+            )
+            """;
+
+    /** An index by table and columns; name is what a migration creates it as. */
+    private record IndexSpec(String table, String name, String columns, boolean fullText) {
+        String describe() {
+            return table + "(" + columns + ")" + (fullText ? " FULLTEXT" : "");
+        }
+    }
+
+    private static final List<IndexSpec> PERFORMANCE_INDEXES = List.of(
+            new IndexSpec("loan", "idx_loan_borrower_date", "borrower_id, loan_date", false),  // borrower history
+            new IndexSpec("loan", "idx_loan_return_due", "return_date, due_date", false),      // open / overdue loans
+            new IndexSpec("loan", "idx_loan_date", "loan_date", false),                        // date search, monthly totals
+            new IndexSpec("sale", "idx_sale_date", "sale_date", false),
+            new IndexSpec("sale", "idx_sale_borrower_date", "borrower_id, sale_date", false),
+            new IndexSpec("book", "idx_book_category", "category", false),
+            new IndexSpec("book", "idx_book_available", "available", false),
+            new IndexSpec("publisher", "idx_publisher_country", "country", false),
+            new IndexSpec("bookauthor", "idx_bookauthor_author_book", "author_id, book_id", false));
+
+    // same names as dao.FullText, which creates them lazily when migrations are off
+    private static final List<IndexSpec> FULL_TEXT_INDEXES = List.of(
+            new IndexSpec("book", "ft_book_title", "title", true),
+            new IndexSpec("author", "ft_author_name_bio", "first_name, last_name, bio", true));
+
+    // monthly rollups kept by dao.MonthlyRollups; the fill is the same as its rebuild()
+    private static final List<String> ROLLUP_TABLES = List.of("loan_month", "sale_month");
+
+    private static final String CREATE_LOAN_MONTH = """
+            CREATE TABLE IF NOT EXISTS loan_month (
+              month      CHAR(7) NOT NULL PRIMARY KEY,
+              loan_count INT     NOT NULL DEFAULT 0
+            )
+            """;
+
+    private static final String CREATE_SALE_MONTH = """
+            CREATE TABLE IF NOT EXISTS sale_month (
+              month      CHAR(7)        NOT NULL PRIMARY KEY,
+              sale_count INT            NOT NULL DEFAULT 0,
+              revenue    DECIMAL(14, 2) NOT NULL DEFAULT 0
+            )
+            """;
+
+    /** Schema work on a connection; see {@link #withSchemaLock}. */
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection c) throws SQLException;
+    }
+
+    private record Migration(int version, String description, Step step) {}
+
+    /** The migration that creates the FULLTEXT indexes. */
+    public static final int FULL_TEXT_VERSION = 2;
+
+    // append only; never renumber or edit a migration that has shipped
+    private static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Indexes for loan, sale, book, publisher and bookauthor queries",
+                    c -> createIndexes(c, PERFORMANCE_INDEXES)),
+            new Migration(FULL_TEXT_VERSION, "FULLTEXT indexes for book and author search",
+                    c -> createIndexes(c, FULL_TEXT_INDEXES)),
+            new Migration(3, "Monthly loan and sale rollup tables, filled from loan and sale",
+                    Migrations::createRollups));
+
+    private static volatile int version = -1;
+    private static volatile List<String> missing = List.of();
+    private static volatile List<String> missingTables = List.of();
+
+    private Migrations() {}
+
+    /** Migrates and verifies on a background thread; failures are logged, the app keeps running. */
+    public static void runAtLaunch() {
+        Thread.ofVirtual().name("schema-migrations").start(() -> {
+            try {
+                if (ENABLED) migrate();
+                verify();
+            } catch (SQLException e) {
+                LOG.log(Level.WARNING, "Schema check failed", e);
+            }
+        });
+    }
+
+    /** Applies every migration newer than the recorded version; returns the version reached. */
+    public static synchronized int migrate() throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            lock(c);
+            try {
+                try (Statement st = c.createStatement()) {
+                    st.execute(CREATE_VERSION_TABLE);
+                }
+                int current = recordedVersion(c);   // read under the lock: another instance may have just migrated
+                for (Migration m : MIGRATIONS) {
+                    if (m.version() <= current) continue;
+                    long t0 = System.nanoTime();
+                    m.step().apply(c);
+                    try (PreparedStatement ps = c.prepareStatement(
+                            "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                        ps.setInt(1, m.version());
+                        ps.setString(2, m.description());
+                        ps.executeUpdate();
+                    }
+                    current = m.version();
+                    version = current;
+                    LOG.info(String.format("Applied schema migration %d (%s) in %d ms",
+                            m.version(), m.description(), (System.nanoTime() - t0) / 1_000_000));
+                }
+                version = current;
+                return current;
+            } finally {
+                unlock(c);
+            }
+        }
+    }
+
+    /** Checks every index and table the migrations create; returns (and logs) the indexes not present. */
+    public static List<String> verify() throws SQLException {
+        List<String> absent = new ArrayList<>();
+        List<String> absentTables = new ArrayList<>();
+        try (Connection c = DatabaseConnection.getConnection()) {
+            for (String table : ROLLUP_TABLES) {
+                if (!tableExists(c, table)) absentTables.add(table);
+            }
+            Map<String, List<String[]>> existing = indexes(c);
+            for (List<IndexSpec> group : List.of(PERFORMANCE_INDEXES, FULL_TEXT_INDEXES)) {
+                for (IndexSpec spec : group) {
+                    if (!covered(existing, spec)) absent.add(spec.describe());
+                }
+            }
+            if (version < 0) version = recordedVersion(c);
+        }
+        missing = List.copyOf(absent);
+        missingTables = List.copyOf(absentTables);
+        if (!absent.isEmpty()) LOG.warning("Missing indexes: " + String.join("; ", absent));
+        if (!absentTables.isEmpty()) {
+            LOG.warning("Missing tables (loan/sale writes will fail): " + String.join(", ", absentTables));
+        }
+        return missing;
+    }
+
+    /** Version recorded by the last migrate() or verify() of this run; -1 before either finished. */
+    public static int currentVersion() {
+        return version;
+    }
+
+    /** Latest version this build knows about. */
+    public static int latestVersion() {
+        return MIGRATIONS.get(MIGRATIONS.size() - 1).version();
+    }
+
+    /** Indexes found missing by the last verify(), as {@code table(columns)}. */
+    public static List<String> missingIndexes() {
+        return missing;
+    }
+
+    /** Tables found missing by the last verify(). */
+    public static List<String> missingTables() {
+        return missingTables;
+    }
+
+    /**
+     * Runs schema work outside the migrations (the lazy FULLTEXT fallback) under the schema lock,
+     * so it waits for a migration in progress and never races one.
+     */
+    public static void withSchemaLock(Step work) throws SQLException {
+        try (Connection c = DatabaseConnection.getConnection()) {
+            lock(c);
+            try {
+                work.apply(c);
+            } finally {
+                unlock(c);
+            }
+        }
+    }
+
+    // ---- STEPS ----
+
+    private static void createIndexes(Connection c, List<IndexSpec> specs) throws SQLException {
+        Map<String, List<String[]>> existing = indexes(c);
+        try (Statement st = c.createStatement()) {
+            for (IndexSpec spec : specs) {
+                if (covered(existing, spec)) continue;
+                st.execute("ALTER TABLE " + spec.table() + " ADD " + (spec.fullText() ? "FULLTEXT " : "")
+                        + "INDEX " + spec.name() + " (" + spec.columns() + ")");
+                LOG.info("Created index " + spec.name() + " on " + spec.describe());
+            }
+        }
+    }
+
+    // ---- LOCKING ----
+
+    /** Takes the schema lock for this connection's session, waiting up to a minute for another holder. */
+    private static void lock(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Timed out after " + LOCK_TIMEOUT_SECONDS + " s waiting for lock " + LOCK_NAME);
+                }
+            }
+        }
+    }
+
+    /** Releases the schema lock; must run before the connection goes back to the pool. */
+    private static void unlock(Connection c) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            ps.setString(1, LOCK_NAME);
+            ps.executeQuery().close();
+        }
+    }
+
+    private static void createRollups(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute(CREATE_LOAN_MONTH);
+            st.execute(CREATE_SALE_MONTH);
+        }
+        // recompute rather than fill only new tables: totals kept before this migration may have drifted
+        c.setAutoCommit(false);
+        try (Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM loan_month");
+            st.executeUpdate("""
+                    INSERT INTO loan_month (month, loan_count)
+                    SELECT DATE_FORMAT(loan_date, '%Y-%m'), COUNT(*)
+                    FROM loan
+                    WHERE loan_date IS NOT NULL
+                    GROUP BY DATE_FORMAT(loan_date, '%Y-%m')
+                    """);
+            st.executeUpdate("DELETE FROM sale_month");
+            st.executeUpdate("""
+                    INSERT INTO sale_month (month, sale_count, revenue)
+                    SELECT DATE_FORMAT(sale_date, '%Y-%m'), COUNT(*), COALESCE(SUM(sale_price), 0)
+                    FROM sale
+                    WHERE sale_date IS NOT NULL
+                    GROUP BY DATE_FORMAT(sale_date, '%Y-%m')
+                    """);
+            c.commit();
+        } catch (SQLException e) {
+            c.rollback();
+            throw e;
+        } finally {
+            c.setAutoCommit(true);
+        }
+        LOG.info("Created and filled " + String.join(", ", ROLLUP_TABLES));
+    }
+
+    // ---- INFORMATION_SCHEMA ----
+
+    private static boolean tableExists(Connection c, String table) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                SELECT 1 FROM information_schema.tables
+                WHERE table_schema = DATABASE() AND table_name = ?
+                """)) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    /** Highest version in {@code schema_version}; 0 when the table does not exist yet. */
+    public static int recordedVersion(Connection c) throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException noTable) {
+            return 0;
+        }
+    }
+
+    /** table -> {columns "a,b", index type} for every index in the current schema. */
+    private static Map<String, List<String[]>> indexes(Connection c) throws SQLException {
+        Map<String, List<String[]>> byTable = new HashMap<>();
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("""
+                     SELECT table_name, GROUP_CONCAT(column_name ORDER BY seq_in_index), MAX(index_type)
+                     FROM information_schema.statistics
+                     WHERE table_schema = DATABASE()
+                     GROUP BY table_name, index_name
+                     """)) {
+            while (rs.next()) {
+                byTable.computeIfAbsent(rs.getString(1).toLowerCase(), t -> new ArrayList<>())
+                        .add(new String[]{rs.getString(2).toLowerCase(), rs.getString(3)});
+            }
+        }
+        return byTable;
+    }
+
+    private static boolean covered(Map<String, List<String[]>> existing, IndexSpec spec) {
+        String wanted = spec.columns().replace(" ", "").toLowerCase();
+        for (String[] index : existing.getOrDefault(spec.table(), List.of())) {
+            boolean fullText = "FULLTEXT".equalsIgnoreCase(index[1]);
+            if (fullText != spec.fullText()) continue;
+            if (fullText ? index[0].equals(wanted) : (index[0].equals(wanted) || index[0].startsWith(wanted + ","))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.project.db;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Per-statement metrics collected by the instrumented connections from
+ * {@link DatabaseConnection#getConnection()}: calls, rows, errors and a latency histogram per
+ * SQL fingerprint (the statement text with literals replaced by ? and whitespace collapsed),
+ * plus a log of statements slower than a threshold ({@code -Dlibrary.db.slowQueryMs}, default 500).
+ * <p>
+ * Latency is the time spent in execute*(); for streamed results that is the time to the first row.
+ * Slow statements are also logged to the {@code org.example.project.db.slow} logger.
+ */
+public final class QueryStats implements QueryStatsMXBean {
+
+    public static final String OBJECT_NAME = "org.example.project:type=QueryStats";
+
+    private static final Logger SLOW_LOG = Logger.getLogger("org.example.project.db.slow");
+    private static final QueryStats INSTANCE = new QueryStats();
+
+    private static final int MAX_FINGERPRINTS = 2_000;
+    private static final int SLOW_KEPT = 100;
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /** Numbers for one fingerprint. */
+    static final class Entry {
+        final String fingerprint;
+        final LongAdder calls = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder totalMicros = new LongAdder();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        Entry(String fingerprint) { this.fingerprint = fingerprint; }
+
+        QuerySummary summary() {
+            return new QuerySummary(fingerprint, calls.sum(), rows.sum(), errors.sum(),
+                    latency.percentile(50), latency.percentile(95), latency.percentile(99), latency.max());
+        }
+    }
+
+    private final Map<String, Entry> bySql = new ConcurrentHashMap<>();          // raw SQL -> entry
+    private final Map<String, Entry> byFingerprint = new ConcurrentHashMap<>();
+    private final Deque<String> slow = new ArrayDeque<>();
+    private volatile long slowThresholdMillis = Long.getLong("library.db.slowQueryMs", 500L);
+
+    private QueryStats() {}
+
+    public static QueryStats get() {
+        return INSTANCE;
+    }
+
+    /** Registers the MXBean with the platform MBean server; safe to call more than once. */
+    static void registerMBean() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            var server = ManagementFactory.getPlatformMBeanServer();
+            if (!server.isRegistered(name)) server.registerMBean(INSTANCE, name);
+        } catch (Exception | LinkageError e) {
+            SLOW_LOG.log(Level.WARNING, "Could not register " + OBJECT_NAME, e);
+        }
+    }
+
+    // ---- RECORDING (called by the instrumented statements) ----
+
+    Entry entry(String sql) {
+        Entry e = bySql.get(sql);
+        if (e != null) return e;
+        String fp = fingerprint(sql);
+        if (byFingerprint.size() >= MAX_FINGERPRINTS && !byFingerprint.containsKey(fp)) fp = "(other)";
+        e = byFingerprint.computeIfAbsent(fp, Entry::new);
+        if (bySql.size() < MAX_FINGERPRINTS * 4) bySql.put(sql, e);
+        return e;
+    }
+
+    void executed(Entry e, String sql, long nanos, long rows, boolean failed) {
+        long micros = nanos / 1_000;
+        e.calls.increment();
+        e.totalMicros.add(micros);
+        e.latency.record(micros);
+        if (rows > 0) e.rows.add(rows);
+        if (failed) e.errors.increment();
+
+        long millis = micros / 1_000;
+        if (millis >= slowThresholdMillis) {
+            String line = LocalTime.now().truncatedTo(ChronoUnit.SECONDS) + "  " + millis + " ms"
+                    + (failed ? " (failed)" : "") + "  " + WHITESPACE.matcher(sql).replaceAll(" ").trim();
+            synchronized (slow) {
+                slow.addFirst(line);
+                if (slow.size() > SLOW_KEPT) slow.removeLast();
+            }
+            SLOW_LOG.warning("Slow query: " + line);
+        }
+    }
+
+    static String fingerprint(String sql) {
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    // ---- QueryStatsMXBean ----
+
+    @Override
+    public List<QuerySummary> getQueries() {
+        List<Entry> entries = new ArrayList<>(byFingerprint.values());
+        entries.sort(Comparator.comparingLong((Entry e) -> e.totalMicros.sum()).reversed());
+        List<QuerySummary> out = new ArrayList<>(entries.size());
+        for (Entry e : entries) out.add(e.summary());
+        return out;
+    }
+
+    @Override
+    public List<String> getSlowQueries() {
+        synchronized (slow) {
+            return List.copyOf(slow);
+        }
+    }
+
+    @Override
+    public long getSlowQueryThresholdMillis() {
+        return slowThresholdMillis;
+    }
+
+    @Override
+    public void setSlowQueryThresholdMillis(long millis) {
+        if (millis < 0) throw new IllegalArgumentException("Threshold must be >= 0 ms.");
+        slowThresholdMillis = millis;
+    }
+
+    @Override public long getStatementCacheHits() { return StatementCache.hits(); }
+    @Override public long getStatementCacheMisses() { return StatementCache.misses(); }
+    @Override public int getActiveConnections() { return DatabaseConnection.pool().getActiveConnections(); }
+    @Override public int getIdleConnections() { return DatabaseConnection.pool().getIdleConnections(); }
+
+    @Override
+    public void reset() {
+        bySql.clear();
+        byFingerprint.clear();
+        synchronized (slow) {
+            slow.clear();
+        }
+    }
+}
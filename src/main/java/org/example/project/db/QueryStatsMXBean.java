@@ -0,0 +1,28 @@
+package org.example.project.db;
+
+import java.util.List;
+
+/** JMX view of {@link QueryStats}, registered as {@value QueryStats#OBJECT_NAME}. */
+public interface QueryStatsMXBean {
+
+    /** One entry per SQL fingerprint, busiest (most total time) first. */
+    List<QuerySummary> getQueries();
+
+    /** Most recent slow statements, newest first. */
+    List<String> getSlowQueries();
+
+    long getSlowQueryThresholdMillis();
+
+    void setSlowQueryThresholdMillis(long millis);
+
+    long getStatementCacheHits();
+
+    long getStatementCacheMisses();
+
+    int getActiveConnections();
+
+    int getIdleConnections();
+
+    /** Clears the per-query numbers and the slow-query list. */
+    void reset();
+}
@@ -0,0 +1,39 @@
+package org.example.project.db;
+
+import javax.management.ConstructorParameters;
+
+/** Point-in-time numbers for one SQL fingerprint; getters so JMX can map it to CompositeData. */
+public final class QuerySummary {
+
+    private final String fingerprint;
+    private final long calls;
+    private final long rows;
+    private final long errors;
+    private final long p50Micros;
+    private final long p95Micros;
+    private final long p99Micros;
+    private final long maxMicros;
+
+    @ConstructorParameters({"fingerprint", "calls", "rows", "errors", "p50Micros", "p95Micros", "p99Micros", "maxMicros"})
+    public QuerySummary(String fingerprint, long calls, long rows, long errors,
+                        long p50Micros, long p95Micros, long p99Micros, long maxMicros) {
+        this.fingerprint = fingerprint;
+        this.calls = calls;
+        this.rows = rows;
+        this.errors = errors;
+        this.p50Micros = p50Micros;
+        this.p95Micros = p95Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    public String getFingerprint() { return fingerprint; }
+    public long getCalls() { return calls; }
+    /** Rows read from result sets, or rows affected for updates. */
+    public long getRows() { return rows; }
+    public long getErrors() { return errors; }
+    public long getP50Micros() { return p50Micros; }
+    public long getP95Micros() { return p95Micros; }
+    public long getP99Micros() { return p99Micros; }
+    public long getMaxMicros() { return maxMicros; }
+}
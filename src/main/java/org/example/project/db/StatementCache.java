@@ -0,0 +1,139 @@
+package org.example.project.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements owned by one physical connection.
+ * Handed-out statements are proxies; close() parks the statement back in the cache
+ * so the next prepare of the same SQL skips the parse/plan round trip.
+ */
+public final class StatementCache {
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong EVICTIONS = new AtomicLong();
+
+    private final int capacity;
+    private final Map<Key, PreparedStatement> parked;
+
+    StatementCache(int capacity) {
+        this.capacity = capacity;
+        this.parked = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, PreparedStatement> eldest) {
+                if (size() <= StatementCache.this.capacity) return false;
+                EVICTIONS.incrementAndGet();
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    boolean isEnabled() {
+        return capacity > 0;
+    }
+
+    /** Returns a cached statement for (sql, autoGeneratedKeys) or prepares a new one on the physical connection. */
+    PreparedStatement prepare(Connection logical, Connection physical, String sql, int autoGeneratedKeys) throws SQLException {
+        Key key = new Key(sql, autoGeneratedKeys);
+        PreparedStatement ps;
+        synchronized (parked) {
+            ps = parked.remove(key);
+        }
+        if (ps != null && !ps.isClosed()) {
+            HITS.incrementAndGet();
+        } else {
+            MISSES.incrementAndGet();
+            ps = physical.prepareStatement(sql, autoGeneratedKeys);
+        }
+        return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new Handle(key, ps, logical));
+    }
+
+    private void park(Key key, PreparedStatement ps) {
+        try {
+            ps.clearParameters();
+            ps.clearBatch();
+            ps.clearWarnings();
+        } catch (SQLException e) {
+            closeQuietly(ps);
+            return;
+        }
+        PreparedStatement previous;
+        synchronized (parked) {
+            previous = parked.put(key, ps);
+        }
+        if (previous != null && previous != ps) closeQuietly(previous);
+    }
+
+    private static void closeQuietly(PreparedStatement ps) {
+        try { ps.close(); } catch (SQLException ignored) {}
+    }
+
+    // ---- STATS (all pooled connections) ----
+    public static long hits() { return HITS.get(); }
+    public static long misses() { return MISSES.get(); }
+    public static long evictions() { return EVICTIONS.get(); }
+
+    public static double hitRatio() {
+        long h = HITS.get(), m = MISSES.get();
+        return h + m == 0 ? 0.0 : (double) h / (h + m);
+    }
+
+    // ---- INTERNALS ----
+    private record Key(String sql, int autoGeneratedKeys) {
+        Key {
+            Objects.requireNonNull(sql);
+        }
+    }
+
+    private final class Handle implements InvocationHandler {
+        private final Key key;
+        private final PreparedStatement physical;
+        private final Connection logicalConnection;
+        private boolean closed;
+
+        Handle(Key key, PreparedStatement physical, Connection logicalConnection) {
+            this.key = key;
+            this.physical = physical;
+            this.logicalConnection = logicalConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method m, Object[] args) throws Throwable {
+            switch (m.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        if (physical.isClosed()) return null;
+                        park(key, physical);
+                    }
+                    return null;
+                }
+                case "isClosed" -> { return closed || physical.isClosed(); }
+                case "getConnection" -> { return logicalConnection; }
+                case "equals" -> { return proxy == args[0]; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                case "toString" -> { return "Cached[" + physical + "]"; }
+            }
+            if (closed) throw new SQLException("Statement is closed.");
+            try {
+                return m.invoke(physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
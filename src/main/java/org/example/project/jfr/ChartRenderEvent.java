@@ -0,0 +1,20 @@
+package org.example.project.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Building one chart's nodes from a report result on the FX thread. */
+@Name("org.example.project.ChartRender")
+@Label("Chart Render")
+@Category({"Library", "JavaFX"})
+@Description("A chart built from report data on the FX application thread")
+public final class ChartRenderEvent extends jdk.jfr.Event {
+
+    @Label("Chart")
+    public String chart;
+
+    @Label("Data Rows")
+    public int rows;
+}
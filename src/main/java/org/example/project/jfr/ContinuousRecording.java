@@ -0,0 +1,89 @@
+package org.example.project.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The app's always-on flight recording: the JDK's "default" settings (about 1% overhead) plus
+ * the library events from {@code /library.jfc}, keeping the last hour on disk
+ * ({@code -Dlibrary.jfr.maxAgeMinutes}, at most {@code -Dlibrary.jfr.maxSizeMb}). The recording
+ * is named {@value #NAME}, so {@code jcmd <pid> JFR.dump name=library filename=x.jfr} works
+ * from outside; it is also written to {@code -Dlibrary.jfr.dir} when the app exits.
+ * Off with {@code -Dlibrary.jfr=false}.
+ */
+public final class ContinuousRecording {
+
+    public static final String NAME = "library";
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("library.jfr", "true"));
+    private static final long MAX_AGE_MINUTES = Long.getLong("library.jfr.maxAgeMinutes", 60L);
+    private static final long MAX_SIZE_MB = Long.getLong("library.jfr.maxSizeMb", 100L);
+    private static final Path DIR = Path.of(System.getProperty("library.jfr.dir",
+            Path.of(System.getProperty("user.home"), ".library", "recordings").toString()));
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static Recording recording;
+
+    private ContinuousRecording() {}
+
+    /** Starts the recording once; failures (e.g. JFR unavailable) are reported and ignored. */
+    public static synchronized void start() {
+        if (!ENABLED || recording != null) return;
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.putAll(librarySettings());
+
+            Files.createDirectories(DIR);
+            Recording r = new Recording(settings);
+            r.setName(NAME);
+            r.setToDisk(true);
+            r.setMaxAge(Duration.ofMinutes(MAX_AGE_MINUTES));
+            r.setMaxSize(MAX_SIZE_MB * 1024 * 1024);
+            r.setDumpOnExit(true);
+            r.setDestination(DIR.resolve(fileName("exit")));
+            r.start();
+            recording = r;
+        } catch (IOException | ParseException | RuntimeException e) {
+            System.err.println("Flight recording not started: " + e);
+        }
+    }
+
+    public static synchronized boolean isRunning() {
+        return recording != null;
+    }
+
+    /** Writes what the recording currently holds (up to the last max-age) to {@code file}. */
+    public static synchronized void dump(Path file) throws IOException {
+        if (recording == null) throw new IOException("The flight recording is not running.");
+        recording.dump(file);
+    }
+
+    /** A default file name for a snapshot taken now. */
+    public static Path suggestedFile() {
+        return DIR.resolve(fileName("snapshot"));
+    }
+
+    private static String fileName(String kind) {
+        return "library-" + kind + "-" + LocalDateTime.now().format(FILE_TIME) + ".jfr";
+    }
+
+    private static Map<String, String> librarySettings() throws IOException, ParseException {
+        try (Reader in = new InputStreamReader(
+                ContinuousRecording.class.getResourceAsStream("/library.jfc"), StandardCharsets.UTF_8)) {
+            return Configuration.create(in).getSettings();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.project.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Optional;
+
+/**
+ * One SQL statement run by a DAO: from execute*() until its ResultSet is exhausted or closed
+ * (or until execute returns, for updates). Emitted by the instrumented connections in
+ * {@code org.example.project.db}.
+ */
+@Name("org.example.project.DaoCall")
+@Label("DAO Call")
+@Category({"Library", "Database"})
+@Description("A SQL statement executed by a DAO method")
+public final class DaoCallEvent extends jdk.jfr.Event {
+
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final String DAO_PACKAGE = "org.example.project.dao.";
+
+    @Label("DAO Class")
+    public String daoClass;
+
+    @Label("DAO Method")
+    public String daoMethod;
+
+    @Label("SQL Fingerprint")
+    public String sql;
+
+    @Label("Rows")
+    @Description("Rows read from the result set, or rows affected by an update")
+    public long rows;
+
+    @Label("Failed")
+    public boolean failed;
+
+    /**
+     * Fills in the DAO class and method that issued the statement. Walks the stack, so call it
+     * only once {@code shouldCommit()} is true, from inside the DAO method.
+     */
+    public void captureCaller() {
+        Optional<StackWalker.StackFrame> frame = WALKER.walk(s -> s
+                .filter(f -> f.getClassName().startsWith(DAO_PACKAGE)
+                        && !f.getClassName().endsWith(".JdbcStreams"))
+                .findFirst());
+        if (frame.isPresent()) {
+            String cls = frame.get().getClassName();
+            daoClass = cls.substring(DAO_PACKAGE.length());
+            daoMethod = frame.get().getMethodName();
+        }
+    }
+}
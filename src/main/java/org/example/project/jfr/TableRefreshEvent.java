@@ -0,0 +1,24 @@
+package org.example.project.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/** Rows being put into a TableView on the FX thread (load, search, next page, report or a single-row edit). */
+@Name("org.example.project.TableRefresh")
+@Label("Table Refresh")
+@Category({"Library", "JavaFX"})
+@Description("Rows applied to a TableView on the FX application thread")
+public final class TableRefreshEvent extends jdk.jfr.Event {
+
+    @Label("Table")
+    public String table;
+
+    @Label("Source")
+    @Description("load, search, page, report or edit")
+    public String source;
+
+    @Label("Rows")
+    public int rows;
+}
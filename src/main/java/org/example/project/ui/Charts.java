@@ -11,9 +11,11 @@ import javafx.scene.control.Label;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import org.example.project.dao.ReportTable;
+import org.example.project.jfr.ChartRenderEvent;
+
+import java.util.function.Function;
 
-import java.util.List;
-import java.util.Map;
 
 public class Charts {
 
@@ -106,15 +108,16 @@ public class Charts {
         });
     }
 
-    /** 1) Books per category (bar): expects keys: category, cnt */
-    public static void showCategoryChart(List<Map<String, Object>> data) {
+    /** 1) Books per category (bar): expects columns: category, cnt */
+    public static void showCategoryChart(ReportTable data) {
         if (data == null || data.isEmpty()) {
             info("No data found for Books per category.");
             return;
         }
+        show("Books Distribution by Category", render("categoryChart", data, Charts::categoryChart));
+    }
 
-        Stage stage = new Stage();
-
+    static BarChart<String, Number> categoryChart(ReportTable data) {
         CategoryAxis xAxis = new CategoryAxis();
         NumberAxis yAxis = new NumberAxis();
         BarChart<String, Number> chart = new BarChart<>(xAxis, yAxis);
@@ -127,34 +130,33 @@ public class Charts {
         chart.setBarGap(6);
 
         XYChart.Series<String, Number> series = new XYChart.Series<>();
-        for (Map<String, Object> row : data) {
-            Object cat = row.get("category");
-            Object cnt = row.get("cnt");
-            if (cat == null || cnt == null) continue;
+        int cat = data.indexOf("category"), cnt = data.indexOf("cnt");
+        for (int r = 0; r < data.rowCount(); r++) {
+            if (data.isNull(r, cat) || data.isNull(r, cnt)) continue;
 
             series.getData().add(new XYChart.Data<>(
-                    String.valueOf(cat),
-                    ((Number) cnt).intValue()
+                    data.getString(r, cat),
+                    data.getLong(r, cnt)
             ));
         }
 
         chart.getData().add(series);
         colorBars(series);
-
-        stage.setScene(wrap(stage, "Books Distribution by Category", chart));
-        stage.show();
+        return chart;
     }
 
-    /** 2) Availability split (pie): expects keys: available_cnt, borrowed_cnt */
-    public static void showAvailabilityPie(List<Map<String, Object>> data) {
+    /** 2) Availability split (pie): expects columns: available_cnt, borrowed_cnt */
+    public static void showAvailabilityPie(ReportTable data) {
         if (data == null || data.isEmpty()) {
             info("No data found for Availability overview.");
             return;
         }
-        Map<String, Object> r = data.get(0);
+        show("Availability Overview", render("availabilityPie", data, Charts::availabilityPie));
+    }
 
-        int available = ((Number) r.get("available_cnt")).intValue();
-        int borrowed = ((Number) r.get("borrowed_cnt")).intValue();
+    static PieChart availabilityPie(ReportTable data) {
+        int available = (int) data.getDouble(0, data.indexOf("available_cnt"));
+        int borrowed = (int) data.getDouble(0, data.indexOf("borrowed_cnt"));
 
         PieChart chart = new PieChart(FXCollections.observableArrayList(
                 new PieChart.Data("Available", available),
@@ -167,21 +169,19 @@ public class Charts {
         chart.setStartAngle(90);
 
         colorPie(chart);
-
-        Stage stage = new Stage();
-        stage.setScene(wrap(stage, "Availability Overview", chart));
-        stage.show();
+        return chart;
     }
 
-    /** 3) Loans per month (line): expects keys: month_label, cnt */
-    public static void showLoansPerMonthLine(List<Map<String, Object>> data) {
+    /** 3) Loans per month (line): expects columns: month_label, cnt */
+    public static void showLoansPerMonthLine(ReportTable data) {
         if (data == null || data.isEmpty()) {
             info("No data found for Loans per month.");
             return;
         }
+        show("Loans Per Month", render("loansPerMonthLine", data, Charts::loansPerMonthLine));
+    }
 
-        Stage stage = new Stage();
-
+    static LineChart<String, Number> loansPerMonthLine(ReportTable data) {
         CategoryAxis x = new CategoryAxis();
         NumberAxis y = new NumberAxis();
         LineChart<String, Number> chart = new LineChart<>(x, y);
@@ -194,33 +194,31 @@ public class Charts {
         y.setLabel("Loans");
 
         XYChart.Series<String, Number> s = new XYChart.Series<>();
-        for (Map<String, Object> row : data) {
-            Object m = row.get("month_label");
-            Object cnt = row.get("cnt");
-            if (m == null || cnt == null) continue;
+        int m = data.indexOf("month_label"), cnt = data.indexOf("cnt");
+        for (int r = 0; r < data.rowCount(); r++) {
+            if (data.isNull(r, m) || data.isNull(r, cnt)) continue;
 
             s.getData().add(new XYChart.Data<>(
-                    String.valueOf(m),
-                    ((Number) cnt).intValue()
+                    data.getString(r, m),
+                    data.getLong(r, cnt)
             ));
         }
 
         chart.getData().add(s);
         colorLine(chart, s);
-
-        stage.setScene(wrap(stage, "Loans Per Month", chart));
-        stage.show();
+        return chart;
     }
 
-    /** 4) Sales per month (bar): expects keys: month_label, revenue */
-    public static void showSalesRevenueBar(List<Map<String, Object>> data) {
+    /** 4) Sales per month (bar): expects columns: month_label, revenue */
+    public static void showSalesRevenueBar(ReportTable data) {
         if (data == null || data.isEmpty()) {
             info("No data found for Sales revenue per month.");
             return;
         }
+        show("Sales Revenue Per Month", render("salesRevenueBar", data, Charts::salesRevenueBar));
+    }
 
-        Stage stage = new Stage();
-
+    static BarChart<String, Number> salesRevenueBar(ReportTable data) {
         CategoryAxis x = new CategoryAxis();
         NumberAxis y = new NumberAxis();
         BarChart<String, Number> chart = new BarChart<>(x, y);
@@ -234,33 +232,31 @@ public class Charts {
         y.setLabel("Revenue");
 
         XYChart.Series<String, Number> s = new XYChart.Series<>();
-        for (Map<String, Object> row : data) {
-            Object m = row.get("month_label");
-            Object rev = row.get("revenue");
-            if (m == null || rev == null) continue;
+        int m = data.indexOf("month_label"), rev = data.indexOf("revenue");
+        for (int r = 0; r < data.rowCount(); r++) {
+            if (data.isNull(r, m) || data.isNull(r, rev)) continue;
 
             s.getData().add(new XYChart.Data<>(
-                    String.valueOf(m),
-                    ((Number) rev).doubleValue()
+                    data.getString(r, m),
+                    data.getDouble(r, rev)
             ));
         }
 
         chart.getData().add(s);
         colorBars(s);
-
-        stage.setScene(wrap(stage, "Sales Revenue Per Month", chart));
-        stage.show();
+        return chart;
     }
 
-    /** 5) Top borrowers (bar): expects keys: borrower, cnt */
-    public static void showTopBorrowersBar(List<Map<String, Object>> data) {
+    /** 5) Top borrowers (bar): expects columns: borrower, cnt */
+    public static void showTopBorrowersBar(ReportTable data) {
         if (data == null || data.isEmpty()) {
             info("No data found for Top borrowers.");
             return;
         }
+        show("Top Borrowers", render("topBorrowersBar", data, Charts::topBorrowersBar));
+    }
 
-        Stage stage = new Stage();
-
+    static BarChart<String, Number> topBorrowersBar(ReportTable data) {
         CategoryAxis x = new CategoryAxis();
         NumberAxis y = new NumberAxis();
         BarChart<String, Number> chart = new BarChart<>(x, y);
@@ -274,21 +270,39 @@ public class Charts {
         y.setLabel("Loans");
 
         XYChart.Series<String, Number> s = new XYChart.Series<>();
-        for (Map<String, Object> row : data) {
-            Object name = row.get("borrower");
-            Object cnt = row.get("cnt");
-            if (name == null || cnt == null) continue;
+        int name = data.indexOf("borrower"), cnt = data.indexOf("cnt");
+        for (int r = 0; r < data.rowCount(); r++) {
+            if (data.isNull(r, name) || data.isNull(r, cnt)) continue;
 
             s.getData().add(new XYChart.Data<>(
-                    String.valueOf(name),
-                    ((Number) cnt).intValue()
+                    data.getString(r, name),
+                    data.getLong(r, cnt)
             ));
         }
 
         chart.getData().add(s);
         colorBars(s);
+        return chart;
+    }
 
-        stage.setScene(wrap(stage, "Top Borrowers", chart));
+    /** Builds a chart through one of the builders above, recorded as a {@link ChartRenderEvent}. */
+    static <N extends Node> N render(String chart, ReportTable data, Function<ReportTable, N> builder) {
+        ChartRenderEvent event = new ChartRenderEvent();
+        event.begin();
+        N node = builder.apply(data);
+        event.end();
+        if (event.shouldCommit()) {
+            event.chart = chart;
+            event.rows = data.rowCount();
+            event.commit();
+        }
+        return node;
+    }
+
+    // each chart opens in its own window
+    private static void show(String title, Node chart) {
+        Stage stage = new Stage();
+        stage.setScene(wrap(stage, title, chart));
         stage.show();
     }
 }
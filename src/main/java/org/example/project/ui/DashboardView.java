@@ -0,0 +1,167 @@
+package org.example.project.ui;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import org.example.project.dao.AsyncDAO;
+import org.example.project.dao.ReportDAO;
+import org.example.project.dao.ReportTable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * The five chart reports on one page. {@link #refresh()} starts all five queries at once
+ * (each on its own background thread and pooled connection) and every panel renders as soon
+ * as its own result arrives, so the page is complete after the slowest query, not the sum.
+ */
+public class DashboardView extends BorderPane {
+
+    private static final String CARD_BG = "rgba(255,255,255,0.65)";
+    private static final String CARD_BORDER = "rgba(165,61,56,0.18)";
+    private static final String TEXT_DARK = "#2b2b2b";
+    private static final String MUTED = "rgba(43,43,43,0.70)";
+
+    private record Panel(String title, AsyncDAO.SqlCall<ReportTable> query,
+                         Function<ReportTable, Node> chart, BorderPane card, Label footer) {}
+
+    private final List<Panel> panels = new ArrayList<>();
+    private final List<CompletableFuture<?>> inFlight = new ArrayList<>();
+    private final Label status = new Label();
+    private int pending;
+    private long startedAt;
+
+    public DashboardView() {
+        setPadding(new Insets(14));
+        getStyleClass().add("chart-root");
+        getStylesheets().add(Charts.class.getResource("/chart-style.css").toExternalForm());
+
+        // ---------- HEADER ----------
+        Label title = new Label("🧭 Dashboard");
+        title.setTextFill(Color.web(TEXT_DARK));
+        title.setFont(Font.font("Poppins", 18));
+
+        status.setTextFill(Color.web(MUTED));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        Button refresh = new Button("⟳ Refresh");
+        refresh.setStyle("""
+            -fx-background-color: rgba(165,61,56,0.92);
+            -fx-text-fill: white;
+            -fx-font-weight: 900;
+            -fx-background-radius: 14;
+            -fx-padding: 8 14;
+            -fx-cursor: hand;
+            -fx-font-family: 'Poppins';
+        """);
+        refresh.setOnAction(e -> refresh());
+
+        HBox header = new HBox(12, title, status, spacer, refresh);
+        header.setAlignment(Pos.CENTER_LEFT);
+        header.setPadding(new Insets(0, 0, 12, 0));
+        setTop(header);
+
+        // ---------- PANELS ----------
+        panel("Books per category", ReportDAO::booksPerCategory, Charts::categoryChart);
+        panel("Availability", ReportDAO::availabilitySummary, Charts::availabilityPie);
+        panel("Loans per month", ReportDAO::loansPerMonth, Charts::loansPerMonthLine);
+        panel("Sales revenue per month", ReportDAO::salesRevenuePerMonth, Charts::salesRevenueBar);
+        panel("Top borrowers", () -> ReportDAO.topBorrowers(10), Charts::topBorrowersBar);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(12);
+        grid.setVgap(12);
+        for (int i = 0; i < 2; i++) {
+            ColumnConstraints col = new ColumnConstraints();
+            col.setPercentWidth(50);
+            grid.getColumnConstraints().add(col);
+        }
+        for (int i = 0; i < 3; i++) {
+            RowConstraints row = new RowConstraints();
+            row.setVgrow(Priority.ALWAYS);
+            grid.getRowConstraints().add(row);
+        }
+        for (int i = 0; i < panels.size(); i++) {
+            grid.add(panels.get(i).card(), i % 2, i / 2);
+        }
+        setCenter(grid);
+    }
+
+    private void panel(String title, AsyncDAO.SqlCall<ReportTable> query, Function<ReportTable, Node> chart) {
+        Label heading = new Label(title);
+        heading.getStyleClass().add("chart-title");
+        heading.setStyle("-fx-font-size: 14px;");
+
+        Label footer = new Label();
+        footer.setTextFill(Color.web(MUTED));
+
+        BorderPane card = new BorderPane();
+        card.setTop(heading);
+        card.setBottom(footer);
+        card.setPadding(new Insets(10));
+        card.setMinHeight(220);
+        card.setStyle("""
+            -fx-background-color: %s;
+            -fx-background-radius: 18;
+            -fx-border-radius: 18;
+            -fx-border-color: %s;
+        """.formatted(CARD_BG, CARD_BORDER));
+
+        panels.add(new Panel(title, query, chart, card, footer));
+    }
+
+    /** Runs all five queries in parallel; results of an earlier refresh still in flight are dropped. */
+    public void refresh() {
+        for (CompletableFuture<?> f : inFlight) f.cancel(false);
+        inFlight.clear();
+
+        pending = panels.size();
+        startedAt = System.nanoTime();
+        status.setText("Loading…");
+
+        for (Panel p : panels) {
+            ProgressIndicator spinner = new ProgressIndicator();
+            spinner.setMaxSize(48, 48);
+            p.card().setCenter(spinner);
+            p.footer().setText("");
+
+            long start = System.nanoTime();
+            inFlight.add(FxAsync.run(p.query(), data -> {
+                p.card().setCenter(data.isEmpty() ? message("No data.") : Charts.render(p.title(), data, p.chart()));
+                p.footer().setText(elapsed(start) + " ms");
+                done();
+            }, error -> {
+                p.card().setCenter(message("⚠ " + (error.getMessage() != null ? error.getMessage() : error)));
+                p.footer().setText("failed after " + elapsed(start) + " ms");
+                error.printStackTrace();
+                done();
+            }));
+        }
+    }
+
+    private void done() {
+        if (--pending == 0) status.setText("All charts loaded in " + elapsed(startedAt) + " ms");
+        else status.setText("Loading… " + (panels.size() - pending) + "/" + panels.size());
+    }
+
+    private static Node message(String text) {
+        Label l = new Label(text);
+        l.setWrapText(true);
+        l.setTextFill(Color.web(MUTED));
+        return l;
+    }
+
+    private static long elapsed(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
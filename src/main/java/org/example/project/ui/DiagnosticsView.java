@@ -0,0 +1,172 @@
+package org.example.project.ui;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.layout.*;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import org.example.project.cache.EntityCache;
+import org.example.project.db.ConnectionPool;
+import org.example.project.db.DatabaseConnection;
+import org.example.project.db.Migrations;
+import org.example.project.db.QueryStats;
+import org.example.project.db.QuerySummary;
+import org.example.project.db.StatementCache;
+import org.example.project.jfr.ContinuousRecording;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read-only view of {@link QueryStats} (per-query calls, rows and latency percentiles, the
+ * slow-query log) next to the pool, statement-cache and entity-cache counters.
+ * Everything shown is in memory, so {@link #refresh()} runs on the FX thread.
+ */
+public class DiagnosticsView extends BorderPane {
+
+    private static final String TEXT_DARK = "#2b2b2b";
+    private static final String MUTED = "rgba(43,43,43,0.70)";
+
+    private final TableView<QuerySummary> queries = new TableView<>();
+    private final ListView<String> slow = new ListView<>();
+    private final Label counters = new Label();
+    private final TextField threshold = new TextField();
+
+    public DiagnosticsView() {
+        setPadding(new Insets(14));
+
+        // ---------- HEADER ----------
+        Label title = new Label("🩺 Query diagnostics");
+        title.setTextFill(Color.web(TEXT_DARK));
+        title.setFont(Font.font("Poppins", 18));
+
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+
+        threshold.setPrefColumnCount(5);
+        threshold.setOnAction(e -> applyThreshold());
+        Label thresholdLabel = new Label("Slow ≥ (ms)");
+        thresholdLabel.setTextFill(Color.web(MUTED));
+
+        Button refresh = new Button("⟳ Refresh");
+        refresh.setOnAction(e -> refresh());
+        Button reset = new Button("Reset");
+        reset.setOnAction(e -> {
+            QueryStats.get().reset();
+            refresh();
+        });
+
+        Button saveRecording = new Button("💾 Save flight recording…");
+        saveRecording.setDisable(!ContinuousRecording.isRunning());
+        saveRecording.setOnAction(e -> saveRecording());
+
+        HBox header = new HBox(10, title, spacer, thresholdLabel, threshold, refresh, reset, saveRecording);
+        header.setAlignment(Pos.CENTER_LEFT);
+        header.setPadding(new Insets(0, 0, 12, 0));
+        setTop(header);
+
+        // ---------- QUERY TABLE ----------
+        TableColumn<QuerySummary, String> sql = new TableColumn<>("Query");
+        sql.setCellValueFactory(d -> new ReadOnlyStringWrapper(d.getValue().getFingerprint()));
+        sql.setPrefWidth(460);
+        queries.getColumns().add(sql);
+        queries.getColumns().add(count("Calls", QuerySummary::getCalls));
+        queries.getColumns().add(count("Rows", QuerySummary::getRows));
+        queries.getColumns().add(count("Errors", QuerySummary::getErrors));
+        queries.getColumns().add(millis("p50 ms", QuerySummary::getP50Micros));
+        queries.getColumns().add(millis("p95 ms", QuerySummary::getP95Micros));
+        queries.getColumns().add(millis("p99 ms", QuerySummary::getP99Micros));
+        queries.getColumns().add(millis("max ms", QuerySummary::getMaxMicros));
+        queries.setPlaceholder(new Label("No statements recorded yet."));
+
+        // ---------- SLOW LOG + COUNTERS ----------
+        slow.setPlaceholder(new Label("No slow statements."));
+        slow.setPrefHeight(160);
+        counters.setTextFill(Color.web(MUTED));
+        counters.setWrapText(true);
+
+        Label slowTitle = new Label("Slow statements (newest first)");
+        slowTitle.setTextFill(Color.web(TEXT_DARK));
+        VBox bottom = new VBox(8, slowTitle, slow, counters);
+        bottom.setPadding(new Insets(12, 0, 0, 0));
+
+        setCenter(queries);
+        setBottom(bottom);
+    }
+
+    public void refresh() {
+        QueryStats stats = QueryStats.get();
+        queries.setItems(FXCollections.observableArrayList(stats.getQueries()));
+        slow.setItems(FXCollections.observableArrayList(stats.getSlowQueries()));
+        threshold.setText(String.valueOf(stats.getSlowQueryThresholdMillis()));
+
+        ConnectionPool pool = DatabaseConnection.pool();
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("Pool: %d connections, %d active, %d idle",
+                pool.getTotalConnections(), pool.getActiveConnections(), pool.getIdleConnections()));
+        lines.add(String.format("Statement cache: %d hits, %d misses, %d evictions (%.1f%% hit)",
+                StatementCache.hits(), StatementCache.misses(), StatementCache.evictions(), StatementCache.hitRatio() * 100));
+        for (EntityCache<?> cache : EntityCache.registered()) lines.add("Entity cache " + cache);
+        List<String> missing = Migrations.missingIndexes();
+        List<String> missingTables = Migrations.missingTables();
+        lines.add(String.format("Schema: version %s of %d, %s%s",
+                Migrations.currentVersion() < 0 ? "?" : Migrations.currentVersion(), Migrations.latestVersion(),
+                missing.isEmpty() ? "no missing indexes" : "missing indexes: " + String.join(", ", missing),
+                missingTables.isEmpty() ? "" : ", missing tables: " + String.join(", ", missingTables)));
+        counters.setText(String.join("\n", lines));
+    }
+
+    private void applyThreshold() {
+        try {
+            QueryStats.get().setSlowQueryThresholdMillis(Long.parseLong(threshold.getText().trim()));
+        } catch (IllegalArgumentException ex) {
+            threshold.setText(String.valueOf(QueryStats.get().getSlowQueryThresholdMillis()));
+        }
+    }
+
+    /** Dumps the continuous recording (last hour by default) to a .jfr file for JDK Mission Control. */
+    private void saveRecording() {
+        javafx.stage.FileChooser fc = new javafx.stage.FileChooser();
+        fc.setTitle("Save flight recording");
+        Path suggested = ContinuousRecording.suggestedFile();
+        if (suggested.getParent().toFile().isDirectory()) fc.setInitialDirectory(suggested.getParent().toFile());
+        fc.setInitialFileName(suggested.getFileName().toString());
+        fc.getExtensionFilters().add(new javafx.stage.FileChooser.ExtensionFilter("Flight Recordings", "*.jfr"));
+        java.io.File chosen = fc.showSaveDialog(getScene().getWindow());
+        if (chosen == null) return;
+
+        Task<Void> task = new Task<>() {
+            @Override
+            protected Void call() throws Exception {
+                ContinuousRecording.dump(chosen.toPath());
+                return null;
+            }
+        };
+        task.setOnSucceeded(e -> Dialogs.showInfo("Recording saved", "Flight recording written to " + chosen.getName() + "."));
+        task.setOnFailed(e -> FxAsync.showFailure(task.getException()));
+        Thread.ofVirtual().name("jfr-dump").start(task);
+    }
+
+    private static TableColumn<QuerySummary, Long> count(String title, ToLongFunction<QuerySummary> value) {
+        TableColumn<QuerySummary, Long> col = new TableColumn<>(title);
+        col.setCellValueFactory(d -> new ReadOnlyObjectWrapper<>(value.applyAsLong(d.getValue())));
+        col.setPrefWidth(70);
+        return col;
+    }
+
+    private static TableColumn<QuerySummary, String> millis(String title, ToLongFunction<QuerySummary> micros) {
+        TableColumn<QuerySummary, String> col = new TableColumn<>(title);
+        col.setCellValueFactory(d -> new ReadOnlyStringWrapper(
+                String.format("%.2f", micros.applyAsLong(d.getValue()) / 1000.0)));
+        col.setComparator((a, b) -> Double.compare(Double.parseDouble(a), Double.parseDouble(b)));
+        col.setPrefWidth(70);
+        return col;
+    }
+}
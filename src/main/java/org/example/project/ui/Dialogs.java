@@ -1,5 +1,6 @@
 package org.example.project.ui;
 
+import javafx.concurrent.Task;
 import javafx.geometry.Insets;
 import javafx.scene.Node;
 import javafx.scene.control.*;
@@ -8,9 +9,12 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Window;
 import org.example.project.dao.*;
 import org.example.project.model.*;
+import org.example.project.util.BookCsvImport;
+import org.example.project.util.CsvExport;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
 
 public class Dialogs {
 
@@ -43,11 +47,73 @@ public class Dialogs {
         a.showAndWait();
     }
 
+    // =============================
+    // ===== REFERENCED ROWS =======
+    // =============================
+    @FunctionalInterface
+    private interface Lookup<T> {
+        T find(int id) throws java.sql.SQLException;
+    }
+
+    /**
+     * A hint under an id field naming the row it points to, looked up by primary key as the
+     * user types (a map lookup once the table or the row is cached).
+     */
+    private static <T> Label referenceHint(TextField idField, Lookup<T> lookup,
+                                           java.util.function.Function<T, String> describe, String what) {
+        Label hint = new Label();
+        hint.setStyle("-fx-text-fill: rgba(43,43,43,0.70);");
+        FxAsync.Latest latest = new FxAsync.Latest();
+        Runnable check = () -> {
+            String text = idField.getText().trim();
+            latest.cancel();
+            if (text.isEmpty()) { hint.setText(""); return; }
+            int id;
+            try { id = Integer.parseInt(text); }
+            catch (NumberFormatException ex) { hint.setText("⚠ Not a valid ID"); return; }
+            latest.run(() -> lookup.find(id),
+                    row -> hint.setText(row != null ? "✔ " + describe.apply(row) : "⚠ No " + what + " with ID " + id),
+                    error -> hint.setText("⚠ Could not look up the " + what));
+        };
+        idField.textProperty().addListener((o, a, n) -> check.run());
+        check.run();
+        return hint;
+    }
+
+    private static Label bookHint(TextField idField) {
+        return referenceHint(idField, BookDAO::findById,
+                b -> b.getTitle() + (b.isAvailable() ? "" : " (not available)"), "book");
+    }
+
+    private static Label borrowerHint(TextField idField) {
+        return referenceHint(idField, BorrowerDAO::findById,
+                b -> b.getFirstName() + " " + b.getLastName(), "borrower");
+    }
+
+    // run inside the background call of a write, so a wrong id is reported before the insert/update
+    private static void requireBookAndBorrower(int bookId, int borrowerId) throws java.sql.SQLException {
+        if (BookDAO.findById(bookId) == null)
+            throw new IllegalArgumentException("No book with ID " + bookId + ".");
+        if (BorrowerDAO.findById(borrowerId) == null)
+            throw new IllegalArgumentException("No borrower with ID " + borrowerId + ".");
+    }
+
+    // the row as stored after an update replaces the shown one in place; null means it is gone
+    private static <T> void showRow(TableView<T> table, int id, T row, java.util.function.ToIntFunction<T> idOf) {
+        if (row != null) TableLoader.of(table).upsert(row, idOf);
+        else TableLoader.of(table).remove(id, idOf);
+    }
+
+    private static void requirePublisher(Integer publisherId) throws java.sql.SQLException {
+        if (publisherId != null && PublisherDAO.findById(publisherId) == null)
+            throw new IllegalArgumentException("No publisher with ID " + publisherId + ".");
+    }
+
     // =============================
     // ========= BOOK DIALOGS ======
     // =============================
     public static void showAddBookDialog(TableView<Book> table) {
-        Dialog<Book> dialog = new Dialog<>();
+        Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("Add Book");
         dialog.setHeaderText("Fill in book details:");
 
@@ -68,6 +134,7 @@ public class Dialogs {
 
         grid.add(new Label("Title:"), 0, 0);        grid.add(titleField, 1, 0);
         grid.add(new Label("Publisher ID:"), 0, 1); grid.add(publisherField, 1, 1);
+        grid.add(referenceHint(publisherField, PublisherDAO::findById, Publisher::getName, "publisher"), 2, 1);
         grid.add(new Label("Category:"), 0, 2);     grid.add(categoryField, 1, 2);
         grid.add(new Label("Book Type:"), 0, 3);    grid.add(typeField, 1, 3);
         grid.add(new Label("Price:"), 0, 4);        grid.add(priceField, 1, 4);
@@ -107,10 +174,16 @@ public class Dialogs {
                     }
 
                     boolean available = availableBox.isSelected();
+                    Integer publisher = publisherId;
 
-                    int id = BookDAO.insert(title, publisherId, category, type, price, available);
-                    showInfo("Added", "Book ID " + id + " created.");
-                    return BookDAO.findAll().stream().filter(b -> b.getBookId() == id).findFirst().orElse(null);
+                    FxAsync.run(() -> {
+                        requirePublisher(publisher);
+                        return BookDAO.findById(BookDAO.insert(title, publisher, category, type, price, available));
+                    }, added -> {
+                        if (added == null) return;
+                        showInfo("Added", "Book ID " + added.getBookId() + " created.");
+                        TableLoader.of(table).upsert(added, Book::getBookId);
+                    });
 
                 } catch (Exception e) {
                     e.printStackTrace();
@@ -120,18 +193,14 @@ public class Dialogs {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(book -> {
-            if (book != null) {
-                try { table.getItems().setAll(BookDAO.findAll()); } catch (Exception ignored) {}
-            }
-        });
+        dialog.showAndWait();
     }
 
     public static void showUpdateBookDialog(TableView<Book> table) {
         Book b = table.getSelectionModel().getSelectedItem();
         if (b == null) { showInfo("Info", "Select a book first."); return; }
 
-        Dialog<Book> dialog = new Dialog<>();
+        Dialog<Void> dialog = new Dialog<>();
         dialog.setTitle("Update Book");
         dialog.setHeaderText("Edit book details:");
 
@@ -152,6 +221,7 @@ public class Dialogs {
 
         grid.add(new Label("Title:"), 0, 0);        grid.add(titleField, 1, 0);
         grid.add(new Label("Publisher ID:"), 0, 1); grid.add(publisherField, 1, 1);
+        grid.add(referenceHint(publisherField, PublisherDAO::findById, Publisher::getName, "publisher"), 2, 1);
         grid.add(new Label("Category:"), 0, 2);     grid.add(categoryField, 1, 2);
         grid.add(new Label("Book Type:"), 0, 3);    grid.add(typeField, 1, 3);
         grid.add(new Label("Price:"), 0, 4);        grid.add(priceField, 1, 4);
@@ -191,10 +261,16 @@ public class Dialogs {
                     }
 
                     boolean available = availableBox.isSelected();
+                    Integer publisher = publisherId;
 
-                    BookDAO.update(b.getBookId(), title, publisherId, category, type, price, available);
-                    showInfo("Updated", "Book updated successfully.");
-                    return new Book(b.getBookId(), title, publisherId, category, type, price, available);
+                    FxAsync.run(() -> {
+                        requirePublisher(publisher);
+                        BookDAO.update(b.getBookId(), title, publisher, category, type, price, available);
+                        return BookDAO.findById(b.getBookId());
+                    }, updated -> {
+                        showInfo("Updated", "Book updated successfully.");
+                        showRow(table, b.getBookId(), updated, Book::getBookId);
+                    });
 
                 } catch (Exception e) {
                     e.printStackTrace();
@@ -204,11 +280,7 @@ public class Dialogs {
             return null;
         });
 
-        dialog.showAndWait().ifPresent(updatedBook -> {
-            if (updatedBook != null) {
-                try { table.getItems().setAll(BookDAO.findAll()); } catch (Exception ignored) {}
-            }
-        });
+        dialog.showAndWait();
     }
 
     public static void showDeleteBookDialog(TableView<Book> table) {
@@ -223,13 +295,170 @@ public class Dialogs {
 
         c.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                try {
-                    BookDAO.delete(b.getBookId());
-                    table.getItems().remove(b);
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                    showError("Error", ex.getMessage());
+                FxAsync.run(() -> BookDAO.delete(b.getBookId()),
+                        ok -> TableLoader.of(table).remove(b.getBookId(), Book::getBookId));
+            }
+        });
+    }
+
+    public static void showImportBooksDialog(TableView<Book> table) {
+        javafx.stage.FileChooser fc = new javafx.stage.FileChooser();
+        fc.setTitle("Import Books from CSV");
+        fc.getExtensionFilters().add(new javafx.stage.FileChooser.ExtensionFilter("CSV Files", "*.csv"));
+        java.io.File file = fc.showOpenDialog(table.getScene().getWindow());
+        if (file == null) return;
+
+        Task<BookCsvImport.Result> task = new Task<>() {
+            @Override
+            protected BookCsvImport.Result call() throws Exception {
+                updateMessage("Reading " + file.getName() + "…");
+                return BookCsvImport.run(file.toPath(), BookDAO.DEFAULT_BATCH_CHUNK_SIZE, (done, total) -> {
+                    updateProgress(done, total);
+                    updateMessage(done + " of ~" + total + " rows processed");
+                }, this::isCancelled);
+            }
+        };
+
+        ProgressBar bar = new ProgressBar();
+        bar.setPrefWidth(360);
+        bar.progressProperty().bind(task.progressProperty());
+        Label status = new Label();
+        status.textProperty().bind(task.messageProperty());
+
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle("Import Books");
+        dialog.setHeaderText("Importing " + file.getName());
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CANCEL);
+        dialog.getDialogPane().setContent(new VBox(10, bar, status));
+        applyDialogTheme(dialog);
+        // do not interrupt: the writer may be in the middle of a JDBC call on a pooled connection
+        dialog.setOnCloseRequest(e -> { if (task.isRunning()) task.cancel(false); });
+
+        task.setOnSucceeded(e -> {
+            dialog.close();
+            showImportReport(task.getValue());
+            TableLoader.of(table).showAll(BookDAO::findAll);
+        });
+        task.setOnFailed(e -> {
+            dialog.close();
+            Throwable t = task.getException();
+            t.printStackTrace();
+            showError("Import failed", t.getMessage() != null ? t.getMessage() : t.toString());
+            TableLoader.of(table).showAll(BookDAO::findAll);
+        });
+        task.setOnCancelled(e -> {
+            showInfo("Import cancelled", "Chunks written before cancelling stay imported.");
+            TableLoader.of(table).showAll(BookDAO::findAll);
+        });
+
+        Thread.ofVirtual().name("book-import").start(task);
+        dialog.show();
+    }
+
+    /**
+     * Asks for a target file and streams the source into it as CSV in the background
+     * (gzip-compressed when the name ends in .gz), with a row counter and Cancel.
+     */
+    public static void showExportDialog(Window owner, String title, String fileName,
+                                        CsvExport.Source source) {
+        javafx.stage.FileChooser fc = new javafx.stage.FileChooser();
+        fc.setTitle(title);
+        fc.setInitialFileName(fileName + ".csv");
+        fc.getExtensionFilters().addAll(
+                new javafx.stage.FileChooser.ExtensionFilter("CSV Files", "*.csv"),
+                new javafx.stage.FileChooser.ExtensionFilter("Gzipped CSV Files", "*.csv.gz"));
+        java.io.File chosen = fc.showSaveDialog(owner);
+        if (chosen == null) return;
+        java.nio.file.Path file = chosen.toPath();
+        if (fc.getSelectedExtensionFilter() != null
+                && fc.getSelectedExtensionFilter().getExtensions().contains("*.csv.gz")
+                && !CsvExport.isGzipName(file)) {
+            file = file.resolveSibling(file.getFileName() + ".gz");
+        }
+        java.nio.file.Path target = file;
+
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws Exception {
+                updateMessage("Running query…");
+                return CsvExport.run(target, CsvExport.isGzipName(target), source,
+                        rows -> updateMessage(String.format("%,d rows written", rows)),
+                        this::isCancelled);
+            }
+        };
+
+        ProgressBar bar = new ProgressBar(ProgressBar.INDETERMINATE_PROGRESS);
+        bar.setPrefWidth(360);
+        Label status = new Label();
+        status.textProperty().bind(task.messageProperty());
+
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.setTitle(title);
+        dialog.setHeaderText("Exporting to " + target.getFileName());
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CANCEL);
+        dialog.getDialogPane().setContent(new VBox(10, bar, status));
+        applyDialogTheme(dialog);
+        // do not interrupt: the query is cancelled on the server and the cursor closed cleanly
+        dialog.setOnCloseRequest(e -> { if (task.isRunning()) task.cancel(false); });
+
+        task.setOnSucceeded(e -> {
+            dialog.close();
+            showInfo("Export finished", String.format("%,d rows written to %s.", task.getValue(), target.getFileName()));
+        });
+        task.setOnFailed(e -> {
+            dialog.close();
+            Throwable t = task.getException();
+            if (t instanceof java.util.concurrent.CancellationException) return;
+            t.printStackTrace();
+            showError("Export failed", t.getMessage() != null ? t.getMessage() : t.toString());
+        });
+        task.setOnCancelled(e -> showInfo("Export cancelled", "No file was written."));
+
+        Thread.ofVirtual().name("csv-export").start(task);
+        dialog.show();
+    }
+
+    private static void showImportReport(BookCsvImport.Result result) {
+        List<BookCsvImport.RowError> errors = result.errors();
+        String summary = result.imported() + " book(s) imported, " + errors.size() + " row(s) rejected."
+                + (result.cancelled() ? " Import was cancelled." : "");
+        if (errors.isEmpty()) {
+            showInfo("Import finished", summary);
+            return;
+        }
+
+        int shown = Math.min(errors.size(), 1000);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < shown; i++) {
+            BookCsvImport.RowError err = errors.get(i);
+            sb.append("Line ").append(err.line()).append(": ").append(err.message()).append('\n');
+        }
+        if (shown < errors.size()) sb.append("… ").append(errors.size() - shown).append(" more (save the report to see all)");
+
+        TextArea area = new TextArea(sb.toString());
+        area.setEditable(false);
+        area.setPrefSize(560, 280);
+
+        ButtonType save = new ButtonType("Save report…", ButtonBar.ButtonData.LEFT);
+        Alert a = new Alert(Alert.AlertType.WARNING, summary, save, ButtonType.OK);
+        a.setTitle("Import finished");
+        a.setHeaderText(summary);
+        a.getDialogPane().setContent(area);
+        applyAlertTheme(a);
+
+        a.showAndWait().filter(btn -> btn == save).ifPresent(btn -> {
+            javafx.stage.FileChooser fc = new javafx.stage.FileChooser();
+            fc.setTitle("Save Import Report");
+            fc.setInitialFileName("import-errors.csv");
+            java.io.File out = fc.showSaveDialog(null);
+            if (out == null) return;
+            try (java.io.PrintWriter w = new java.io.PrintWriter(out, java.nio.charset.StandardCharsets.UTF_8)) {
+                w.println("line,error");
+                for (BookCsvImport.RowError err : errors) {
+                    w.println(err.line() + ",\"" + err.message().replace("\"", "\"\"") + "\"");
                 }
+            } catch (java.io.IOException ex) {
+                showError("Error", "Could not save report: " + ex.getMessage());
             }
         });
     }
@@ -274,18 +503,14 @@ public class Dialogs {
                     return null;
                 }
 
-                try {
-                    BorrowerDAO.insert(firstName, lastName, type.getValue(), contactVal);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showError("Error", e.getMessage());
-                }
+                int typeId = type.getValue();
+                FxAsync.run(() -> BorrowerDAO.findById(BorrowerDAO.insert(firstName, lastName, typeId, contactVal)),
+                        added -> TableLoader.of(table).upsert(added, Borrower::getId));
             }
             return null;
         });
 
         dialog.showAndWait();
-        try { table.getItems().setAll(BorrowerDAO.findAll()); } catch (Exception ignored) {}
     }
 
     public static void showUpdateBorrowerForm(TableView<Borrower> table) {
@@ -329,18 +554,16 @@ public class Dialogs {
                     return null;
                 }
 
-                try {
-                    BorrowerDAO.update(b.getId(), firstName, lastName, type.getValue(), contactVal);
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showError("Error", e.getMessage());
-                }
+                int typeId = type.getValue();
+                FxAsync.run(() -> {
+                            BorrowerDAO.update(b.getId(), firstName, lastName, typeId, contactVal);
+                            return BorrowerDAO.findById(b.getId());
+                        }, updated -> showRow(table, b.getId(), updated, Borrower::getId));
             }
             return null;
         });
 
         dialog.showAndWait();
-        try { table.getItems().setAll(BorrowerDAO.findAll()); } catch (Exception ignored) {}
     }
 
     public static void showDeleteBorrowerDialog(TableView<Borrower> table) {
@@ -355,13 +578,8 @@ public class Dialogs {
 
         c.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                try {
-                    BorrowerDAO.delete(b.getId());
-                    table.getItems().remove(b);
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                    showError("Error", ex.getMessage());
-                }
+                FxAsync.run(() -> BorrowerDAO.delete(b.getId()),
+                        ok -> TableLoader.of(table).remove(b.getId(), Borrower::getId));
             }
         });
     }
@@ -416,14 +634,13 @@ public class Dialogs {
                     return null;
                 }
 
-                try { PublisherDAO.insert(nameVal, cityVal, countryVal, contactVal); }
-                catch (Exception e) { e.printStackTrace(); showError("Error", e.getMessage()); }
+                FxAsync.run(() -> PublisherDAO.findById(PublisherDAO.insert(nameVal, cityVal, countryVal, contactVal)),
+                        added -> TableLoader.of(table).upsert(added, Publisher::getId));
             }
             return null;
         });
 
         dialog.showAndWait();
-        try { table.getItems().setAll(PublisherDAO.findAll()); } catch (Exception ignored) {}
     }
 
     public static void showUpdatePublisherForm(TableView<Publisher> table) {
@@ -468,14 +685,15 @@ public class Dialogs {
                     return null;
                 }
 
-                try { PublisherDAO.update(p.getId(), nameVal, cityVal, countryVal, contactVal); }
-                catch (Exception e) { e.printStackTrace(); showError("Error", e.getMessage()); }
+                FxAsync.run(() -> {
+                            PublisherDAO.update(p.getId(), nameVal, cityVal, countryVal, contactVal);
+                            return PublisherDAO.findById(p.getId());
+                        }, updated -> showRow(table, p.getId(), updated, Publisher::getId));
             }
             return null;
         });
 
         dialog.showAndWait();
-        try { table.getItems().setAll(PublisherDAO.findAll()); } catch (Exception ignored) {}
     }
 
     public static void showDeletePublisherDialog(TableView<Publisher> table) {
@@ -490,13 +708,8 @@ public class Dialogs {
 
         c.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                try {
-                    PublisherDAO.delete(p.getId());
-                    table.getItems().remove(p);
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                    showError("Error", ex.getMessage());
-                }
+                FxAsync.run(() -> PublisherDAO.delete(p.getId()),
+                        ok -> TableLoader.of(table).remove(p.getId(), Publisher::getId));
             }
         });
     }
@@ -517,8 +730,8 @@ public class Dialogs {
         DatePicker datePicker = new DatePicker(LocalDate.now());
 
         VBox form = new VBox(10,
-                new Label("Book ID:"), bookIdField,
-                new Label("Borrower ID:"), borrowerIdField,
+                new Label("Book ID:"), bookIdField, bookHint(bookIdField),
+                new Label("Borrower ID:"), borrowerIdField, borrowerHint(borrowerIdField),
                 new Label("Price:"), priceField,
                 new Label("Sale Date:"), datePicker
         );
@@ -543,7 +756,11 @@ public class Dialogs {
                     int borrowerId = Integer.parseInt(borrowerIdText);
                     double price = Double.parseDouble(priceText);
 
-                    SaleDAO.insert(bookId, borrowerId, price, date);
+                    FxAsync.run(() -> {
+                                requireBookAndBorrower(bookId, borrowerId);
+                                return SaleDAO.findById(SaleDAO.insert(bookId, borrowerId, price, date));
+                            },
+                            added -> TableLoader.of(table).upsert(added, Sale::getSaleId));
 
                 } catch (NumberFormatException nfe) {
                     showError("Validation error", "Book ID / Borrower ID / Price must be valid numbers.");
@@ -556,7 +773,6 @@ public class Dialogs {
         });
 
         dialog.showAndWait();
-        try { table.getItems().setAll(SaleDAO.findAll()); } catch (Exception ignored) {}
     }
 
     public static void showUpdateSaleForm(TableView<Sale> table) {
@@ -575,8 +791,8 @@ public class Dialogs {
         DatePicker datePicker = new DatePicker(s.getSaleDate());
 
         VBox form = new VBox(10,
-                new Label("Book ID:"), bookIdField,
-                new Label("Borrower ID:"), borrowerIdField,
+                new Label("Book ID:"), bookIdField, bookHint(bookIdField),
+                new Label("Borrower ID:"), borrowerIdField, borrowerHint(borrowerIdField),
                 new Label("Price:"), priceField,
                 new Label("Sale Date:"), datePicker
         );
@@ -597,7 +813,12 @@ public class Dialogs {
                         return null;
                     }
 
-                    SaleDAO.update(s.getSaleId(), bookId, borrowerId, price, date);
+                    FxAsync.run(() -> {
+                                requireBookAndBorrower(bookId, borrowerId);
+                                SaleDAO.update(s.getSaleId(), bookId, borrowerId, price, date);
+                                return SaleDAO.findById(s.getSaleId());
+                            },
+                            updated -> showRow(table, s.getSaleId(), updated, Sale::getSaleId));
 
                 } catch (NumberFormatException nfe) {
                     showError("Validation error", "Book ID / Borrower ID / Price must be valid numbers.");
@@ -610,7 +831,6 @@ public class Dialogs {
         });
 
         dialog.showAndWait();
-        try { table.getItems().setAll(SaleDAO.findAll()); } catch (Exception ignored) {}
     }
 
     public static void showDeleteSaleDialog(TableView<Sale> table) {
@@ -625,13 +845,8 @@ public class Dialogs {
 
         c.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                try {
-                    SaleDAO.delete(s.getSaleId());
-                    table.getItems().remove(s);
-                } catch (Exception ex) {
-                    ex.printStackTrace();
-                    showError("Error", ex.getMessage());
-                }
+                FxAsync.run(() -> SaleDAO.delete(s.getSaleId()),
+                        ok -> TableLoader.of(table).remove(s.getSaleId(), Sale::getSaleId));
             }
         });
     }
@@ -669,18 +884,15 @@ public class Dialogs {
                     showError("Validation error", "First name and last name are required.");
                     return null;
                 }
-                try {
-                    AuthorDAO.insert(fn, ln, country.getText().trim(), bio.getText().trim());
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showError("Error", e.getMessage());
-                }
+                String countryVal = country.getText().trim();
+                String bioVal = bio.getText().trim();
+                FxAsync.run(() -> AuthorDAO.findById(AuthorDAO.insert(fn, ln, countryVal, bioVal)),
+                        added -> TableLoader.of(table).upsert(added, Author::getAuthorId));
             }
             return null;
         });
 
         dialog.showAndWait();
-        try { table.getItems().setAll(AuthorDAO.findAll()); } catch (Exception ignored) {}
     }
 
     public static void showUpdateAuthorForm(TableView<Author> table) {
@@ -716,18 +928,17 @@ public class Dialogs {
                     showError("Validation error", "First name and last name are required.");
                     return null;
                 }
-                try {
-                    AuthorDAO.update(selected.getAuthorId(), fn, ln, country.getText().trim(), bio.getText().trim());
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showError("Error", e.getMessage());
-                }
+                String countryVal = country.getText().trim();
+                String bioVal = bio.getText().trim();
+                FxAsync.run(() -> {
+                            AuthorDAO.update(selected.getAuthorId(), fn, ln, countryVal, bioVal);
+                            return AuthorDAO.findById(selected.getAuthorId());
+                        }, updated -> showRow(table, selected.getAuthorId(), updated, Author::getAuthorId));
             }
             return null;
         });
 
         dialog.showAndWait();
-        try { table.getItems().setAll(AuthorDAO.findAll()); } catch (Exception ignored) {}
     }
 
     public static void showDeleteAuthorDialog(TableView<Author> table) {
@@ -743,13 +954,8 @@ public class Dialogs {
 
         confirm.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                try {
-                    AuthorDAO.delete(selected.getAuthorId());
-                    table.getItems().setAll(AuthorDAO.findAll());
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showError("Error", e.getMessage());
-                }
+                FxAsync.run(() -> AuthorDAO.delete(selected.getAuthorId()),
+                        ok -> TableLoader.of(table).remove(selected.getAuthorId(), Author::getAuthorId));
             }
         });
     }
@@ -771,8 +977,8 @@ public class Dialogs {
         DatePicker dueDatePicker = new DatePicker(LocalDate.now().plusWeeks(2));
 
         VBox v = new VBox(10,
-                new Label("Book ID:"), bookIdField,
-                new Label("Borrower ID:"), borrowerIdField,
+                new Label("Book ID:"), bookIdField, bookHint(bookIdField),
+                new Label("Borrower ID:"), borrowerIdField, borrowerHint(borrowerIdField),
                 new Label("Loan Date:"), loanDatePicker,
                 new Label("Due Date:"), dueDatePicker
         );
@@ -801,7 +1007,11 @@ public class Dialogs {
                         return null;
                     }
 
-                    LoanDAO.insert(borrowerId, bookId, loanDate, dueDate);
+                    FxAsync.run(() -> {
+                                requireBookAndBorrower(bookId, borrowerId);
+                                return LoanDAO.findById(LoanDAO.insert(borrowerId, bookId, loanDate, dueDate));
+                            },
+                            added -> TableLoader.of(table).upsert(added, Loan::getId));
 
                 } catch (NumberFormatException nfe) {
                     showError("Validation error", "Book ID and Borrower ID must be valid numbers.");
@@ -814,7 +1024,6 @@ public class Dialogs {
         });
 
         dialog.showAndWait();
-        try { table.getItems().setAll(LoanDAO.findAll()); } catch (Exception ignored) {}
     }
 
     public static void showUpdateLoanForm(TableView<Loan> table) {
@@ -847,8 +1056,12 @@ public class Dialogs {
                         return null;
                     }
 
-                    LoanDAO.update(selected.getId(), selected.getBorrowerId(),
-                            selected.getBookId(), selected.getLoanDate(), newDueDate);
+                    FxAsync.run(() -> {
+                                LoanDAO.update(selected.getId(), selected.getBorrowerId(),
+                                        selected.getBookId(), selected.getLoanDate(), newDueDate);
+                                return LoanDAO.findById(selected.getId());
+                            },
+                            updated -> showRow(table, selected.getId(), updated, Loan::getId));
 
                 } catch (Exception e) {
                     e.printStackTrace();
@@ -859,7 +1072,6 @@ public class Dialogs {
         });
 
         dialog.showAndWait();
-        try { table.getItems().setAll(LoanDAO.findAll()); } catch (Exception ignored) {}
     }
 
     public static void showDeleteLoanDialog(TableView<Loan> table) {
@@ -874,13 +1086,8 @@ public class Dialogs {
 
         confirm.showAndWait().ifPresent(btn -> {
             if (btn == ButtonType.OK) {
-                try {
-                    LoanDAO.delete(selected.getId());
-                    table.getItems().setAll(LoanDAO.findAll());
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showError("Error", e.getMessage());
-                }
+                FxAsync.run(() -> LoanDAO.delete(selected.getId()),
+                        ok -> TableLoader.of(table).remove(selected.getId(), Loan::getId));
             }
         });
     }
@@ -0,0 +1,65 @@
+package org.example.project.ui;
+
+import javafx.animation.PauseTransition;
+import javafx.scene.control.ComboBox;
+import javafx.util.Duration;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Fills a tab's filter value combo from a DAO's distinct-value query instead of the whole
+ * table. Picking a field lists the first {@link #LIMIT} sorted values; typing into the (editable)
+ * combo re-queries by prefix after a short pause, newest keystroke wins.
+ */
+final class FilterValues {
+
+    static final int LIMIT = Integer.getInteger("library.filter.valueLimit", 200);
+
+    /** A DAO distinct-value query, e.g. {@code (p, n) -> BookDAO.distinctValues(CATEGORY, p, n)}. */
+    interface Source {
+        List<String> values(String prefix, int limit) throws SQLException;
+    }
+
+    private final ComboBox<String> combo;
+    private final FxAsync.Latest latest = new FxAsync.Latest();
+    private final PauseTransition debounce = new PauseTransition(Duration.millis(SearchPipeline.DEFAULT_DEBOUNCE_MS));
+    private Source source;
+    private boolean filling;
+
+    FilterValues(ComboBox<String> combo) {
+        this.combo = combo;
+        combo.setEditable(true);
+        combo.getEditor().textProperty().addListener((o, a, typed) -> {
+            if (filling || source == null || !combo.getEditor().isFocused()) return;
+            debounce.setOnFinished(e -> load(typed));
+            debounce.playFromStart();
+        });
+    }
+
+    /** Switches to another column's values and lists the first page of them. */
+    void show(Source source) {
+        this.source = source;
+        load("");
+    }
+
+    void clear() {
+        source = null;
+        debounce.stop();
+        latest.cancel();
+        combo.getItems().clear();
+    }
+
+    private void load(String prefix) {
+        Source s = source;
+        latest.run(() -> s.values(prefix, LIMIT), values -> {
+            filling = true;
+            try {
+                combo.getItems().setAll(values);
+            } finally {
+                filling = false;
+            }
+            if (!prefix.isBlank() && !values.isEmpty() && combo.getEditor().isFocused()) combo.show();
+        });
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.project.ui;
+
+import javafx.application.Platform;
+import org.example.project.dao.AsyncDAO;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Bridges {@link AsyncDAO} futures back onto the JavaFX application thread.
+ */
+public final class FxAsync {
+
+    private FxAsync() {}
+
+    /** Runs the call in the background; onSuccess runs on the FX thread, failures are shown as an error alert. */
+    public static <T> CompletableFuture<T> run(AsyncDAO.SqlCall<T> call, Consumer<? super T> onSuccess) {
+        return run(call, onSuccess, FxAsync::showFailure);
+    }
+
+    public static <T> CompletableFuture<T> run(AsyncDAO.SqlCall<T> call,
+                                               Consumer<? super T> onSuccess,
+                                               Consumer<Throwable> onError) {
+        CompletableFuture<T> future = AsyncDAO.supply(call);
+        future.whenComplete((value, error) -> Platform.runLater(() -> {
+            if (future.isCancelled()) return;
+            if (error == null) onSuccess.accept(value);
+            else onError.accept(unwrap(error));
+        }));
+        return future;
+    }
+
+    public static Throwable unwrap(Throwable t) {
+        while ((t instanceof CompletionException || t instanceof ExecutionException)
+                && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+
+    static boolean isCancellation(Throwable t) {
+        return unwrap(t) instanceof CancellationException;
+    }
+
+    static void showFailure(Throwable t) {
+        if (isCancellation(t)) return;
+        t.printStackTrace();
+        Dialogs.showError("Error", t.getMessage() != null ? t.getMessage() : t.toString());
+    }
+
+    /**
+     * Keeps only the most recent request: starting a new one cancels the previous,
+     * and results of superseded requests are dropped instead of applied.
+     */
+    public static final class Latest {
+        private CompletableFuture<?> current;
+
+        public <T> CompletableFuture<T> run(AsyncDAO.SqlCall<T> call, Consumer<? super T> onSuccess) {
+            return run(call, onSuccess, FxAsync::showFailure);
+        }
+
+        public <T> CompletableFuture<T> run(AsyncDAO.SqlCall<T> call,
+                                            Consumer<? super T> onSuccess,
+                                            Consumer<Throwable> onError) {
+            cancel();
+            CompletableFuture<?>[] self = new CompletableFuture<?>[1];
+            CompletableFuture<T> future = FxAsync.run(call,
+                    value -> { if (current == self[0]) { current = null; onSuccess.accept(value); } },
+                    error -> { if (current == self[0]) { current = null; onError.accept(error); } });
+            self[0] = future;
+            current = future;
+            return future;
+        }
+
+        public void cancel() {
+            if (current != null) {
+                current.cancel(false);
+                current = null;
+            }
+        }
+
+        public boolean isRunning() {
+            return current != null;
+        }
+    }
+}
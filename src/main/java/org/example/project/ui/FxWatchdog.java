@@ -0,0 +1,124 @@
+package org.example.project.ui;
+
+import javafx.animation.AnimationTimer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Detects FX application thread stalls. An AnimationTimer stamps every pulse; a daemon thread
+ * checks the stamp, and when no pulse has run for longer than {@code -Dlibrary.fx.stallMs}
+ * (default 500) it captures the FX thread's stack and logs the app frame it is stuck in.
+ * When pulses resume the total stall time is logged too. The log rotates through
+ * {@code ~/.library/logs/fx-stalls-N.log} (1 MiB x 5, {@code -Dlibrary.fx.stallLogDir}).
+ * Off with {@code -Dlibrary.fx.watchdog=false}.
+ */
+public final class FxWatchdog {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("library.fx.watchdog", "true"));
+    private static final long THRESHOLD_MS = Long.getLong("library.fx.stallMs", 500L);
+    private static final Path LOG_DIR = Path.of(System.getProperty("library.fx.stallLogDir",
+            Path.of(System.getProperty("user.home"), ".library", "logs").toString()));
+    private static final String APP_PACKAGE = "org.example.project.";
+
+    private static final Logger LOG = Logger.getLogger("org.example.project.fx.stall");
+
+    private static volatile long lastPulse;
+    private static volatile boolean running;
+    private static AnimationTimer heartbeat;
+    private static Thread fxThread;
+
+    private FxWatchdog() {}
+
+    /** Starts the heartbeat and the checker; call on the FX thread. */
+    public static void start() {
+        if (!ENABLED || running) return;
+        running = true;
+        fxThread = Thread.currentThread();
+        lastPulse = System.nanoTime();
+        openLog();
+
+        heartbeat = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                lastPulse = System.nanoTime();
+            }
+        };
+        heartbeat.start();
+
+        Thread checker = new Thread(FxWatchdog::watch, "fx-watchdog");
+        checker.setDaemon(true);
+        checker.start();
+    }
+
+    public static void stop() {
+        running = false;
+        if (heartbeat != null) heartbeat.stop();
+    }
+
+    private static void watch() {
+        long interval = Math.max(10, Math.min(100, THRESHOLD_MS / 5));
+        long stalledSince = 0;             // pulse stamp of the stall being reported, 0 if none
+        String site = null;
+        while (running) {
+            try {
+                Thread.sleep(interval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            long pulse = lastPulse;
+            long silentMs = (System.nanoTime() - pulse) / 1_000_000;
+
+            if (stalledSince != 0 && pulse != stalledSince) {
+                long totalMs = (pulse - stalledSince) / 1_000_000;
+                LOG.warning(String.format("FX thread stalled for %d ms in %s", totalMs, site));
+                stalledSince = 0;
+            } else if (stalledSince == 0 && silentMs >= THRESHOLD_MS) {
+                StackTraceElement[] stack = fxThread.getStackTrace();
+                stalledSince = pulse;
+                site = appFrame(stack);
+                LOG.warning(String.format("FX thread stall in progress (%d ms so far) in %s%n%s",
+                        silentMs, site, format(stack)));
+            }
+        }
+    }
+
+    /**
+     * Where the FX thread is stuck: the innermost frame in the app's own code and, if different,
+     * the outermost one, which is normally the event handler that made the blocking call.
+     */
+    private static String appFrame(StackTraceElement[] stack) {
+        StackTraceElement inner = null, outer = null;
+        for (StackTraceElement f : stack) {
+            if (f.getClassName().startsWith(APP_PACKAGE)) {
+                if (inner == null) inner = f;
+                outer = f;
+            }
+        }
+        if (inner == null) return stack.length > 0 ? stack[0].toString() : "(no stack)";
+        return inner == outer ? inner.toString() : inner + " (handler " + outer + ")";
+    }
+
+    private static String format(StackTraceElement[] stack) {
+        StringBuilder sb = new StringBuilder();
+        for (StackTraceElement f : stack) sb.append("\tat ").append(f).append(System.lineSeparator());
+        return sb.toString();
+    }
+
+    private static void openLog() {
+        try {
+            Files.createDirectories(LOG_DIR);
+            FileHandler file = new FileHandler(LOG_DIR.resolve("fx-stalls-%g.log").toString(), 1 << 20, 5, true);
+            file.setFormatter(new SimpleFormatter());
+            file.setEncoding("UTF-8");
+            LOG.addHandler(file);
+        } catch (IOException | SecurityException e) {
+            LOG.log(Level.WARNING, "Stall log file not available, logging to the console only", e);
+        }
+    }
+}
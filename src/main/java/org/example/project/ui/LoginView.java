@@ -160,17 +160,16 @@ public class LoginView extends StackPane {
             return;
         }
 
-        try {
-            User user = UserDAO.login(username, password);
+        FxAsync.run(() -> UserDAO.login(username, password), user -> {
             if (user != null) {
                 getScene().setRoot(new MainView(user));
             } else {
                 showAlert("Error", "Invalid username or password.");
             }
-        } catch (Exception ex) {
+        }, ex -> {
             ex.printStackTrace();
             showAlert("Error", "An error occurred while logging in: " + ex.getMessage());
-        }
+        });
     }
 
     private void showAlert(String title, String message) {
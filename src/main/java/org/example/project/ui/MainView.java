@@ -3,6 +3,7 @@ package org.example.project.ui;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.geometry.Side;
 import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
@@ -10,12 +11,16 @@ import javafx.scene.layout.*;
 import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import org.example.project.ProjectApplication;
+import org.example.project.cache.TrigramIndex;
 import org.example.project.dao.*;
 import org.example.project.model.*;
+import org.example.project.util.Csv;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Consumer;
 
 public class MainView extends BorderPane {
@@ -78,8 +83,11 @@ public class MainView extends BorderPane {
                 loansTab(),
                 salesTab(),
                 reportsTab(),
+                dashboardTab(),
                 aboutTab()
         );
+        // per-query timings and pool/cache counters are for admins only
+        if (canEdit) tabs.getTabs().add(tabs.getTabs().size() - 1, diagnosticsTab());
 
         StackPane centerHolder = new StackPane(tabs);
         centerHolder.setPadding(new Insets(14));
@@ -91,6 +99,7 @@ public class MainView extends BorderPane {
     // =========================================================
     private Tab borrowersTab() {
         TableView<Borrower> table = new TableView<>();
+        table.setId("borrowers");
         styleTable(table);
 
         TableColumn<Borrower, Integer> id = new TableColumn<>("ID");
@@ -105,33 +114,11 @@ public class MainView extends BorderPane {
 
         table.getColumns().addAll(id, name, contact);
 
-        try { table.getItems().setAll(BorrowerDAO.findAll()); } catch (Exception ignored) {}
+        TableLoader<Borrower> loader = TableLoader.of(table);
+        PagedTable.attach(table, (after, n) -> BorrowerDAO.findPage(after, n, BorrowerDAO.SortKey.ID)).reset();
 
-        TextField search = searchBar("Search borrowers (id, name, contact)...", text -> {
-            try {
-                List<Borrower> all = BorrowerDAO.findAll();
-                String q = text.toLowerCase();
-                if (q.isEmpty()) {
-                    table.getItems().setAll(all);
-                    return;
-                }
-                String[] tokens = q.split("\\s+");
-
-                List<Borrower> filtered = all.stream().filter(b -> {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(b.getId()).append(' ');
-                    if (b.getFirstName() != null) sb.append(b.getFirstName()).append(' ');
-                    if (b.getLastName() != null) sb.append(b.getLastName()).append(' ');
-                    if (b.getContact() != null) sb.append(b.getContact()).append(' ');
-
-                    String haystack = sb.toString().toLowerCase();
-                    for (String token : tokens) if (!haystack.contains(token)) return false;
-                    return true;
-                }).toList();
-
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
-        });
+        SearchPipeline<Borrower> searchPipeline = new SearchPipeline<>(table, BorrowerDAO::findAll, BorrowerDAO.searchIndex());
+        TextField search = searchBar("Search borrowers (id, name, contact)...", searchPipeline::submit);
 
         HBox filterBox = new HBox(10);
         filterBox.setAlignment(Pos.CENTER_LEFT);
@@ -139,42 +126,47 @@ public class MainView extends BorderPane {
         Label filterLabel = softLabel("Filter by:");
 
         ComboBox<String> fieldCombo = themedCombo();
-        fieldCombo.getItems().addAll("All", "ID", "Name", "Contact");
+        fieldCombo.getItems().addAll("All", "ID", "Name", "Contact", "Type");
         fieldCombo.setValue("All");
 
         ComboBox<String> valueCombo = themedCombo();
         valueCombo.setPromptText("Select value");
 
+        FilterValues values = new FilterValues(valueCombo);
         fieldCombo.setOnAction(e -> {
             valueCombo.getItems().clear();
             String field = fieldCombo.getValue();
-            try {
-                List<Borrower> allBorrowers = BorrowerDAO.findAll();
-                switch (field) {
-                    case "ID" -> allBorrowers.forEach(b -> valueCombo.getItems().add(String.valueOf(b.getId())));
-                    case "Name" -> allBorrowers.forEach(b -> valueCombo.getItems().add(b.getFirstName() + " " + b.getLastName()));
-                    case "Contact" -> allBorrowers.forEach(b -> valueCombo.getItems().add(b.getContact()));
-                    case "All" -> table.getItems().setAll(allBorrowers);
-                }
-            } catch (Exception ex) { ex.printStackTrace(); }
+            if (field.equals("All")) {
+                values.clear();
+                loader.showAll(BorrowerDAO::findAll);
+                return;
+            }
+            // distinct, sorted values from the server; typing narrows them by prefix
+            BorrowerDAO.FilterColumn column = switch (field) {
+                case "ID" -> BorrowerDAO.FilterColumn.ID;
+                case "Name" -> BorrowerDAO.FilterColumn.NAME;
+                case "Contact" -> BorrowerDAO.FilterColumn.CONTACT;
+                case "Type" -> BorrowerDAO.FilterColumn.TYPE;
+                default -> throw new IllegalStateException(field);
+            };
+            values.show((prefix, limit) -> BorrowerDAO.distinctValues(column, prefix, limit));
         });
 
         valueCombo.setOnAction(e -> {
             String selectedValue = valueCombo.getValue();
-            if (selectedValue == null || fieldCombo.getValue().equals("All")) {
-                try { table.getItems().setAll(BorrowerDAO.findAll()); } catch (Exception ignored) {}
+            if (selectedValue == null || selectedValue.isBlank() || fieldCombo.getValue().equals("All")) {
+                loader.showAll(BorrowerDAO::findAll);
                 return;
             }
-            try {
-                List<Borrower> allBorrowers = BorrowerDAO.findAll();
-                List<Borrower> filtered = allBorrowers.stream().filter(b -> switch (fieldCombo.getValue()) {
-                    case "ID" -> String.valueOf(b.getId()).equals(selectedValue);
-                    case "Name" -> (b.getFirstName() + " " + b.getLastName()).equals(selectedValue);
-                    case "Contact" -> b.getContact().equals(selectedValue);
-                    default -> true;
-                }).toList();
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
+            // on the server, matched like the value list: ids exactly, text by prefix (a typed "Sci" finds "Science")
+            BorrowerDAO.FilterColumn column = switch (fieldCombo.getValue()) {
+                case "ID" -> BorrowerDAO.FilterColumn.ID;
+                case "Name" -> BorrowerDAO.FilterColumn.NAME;
+                case "Contact" -> BorrowerDAO.FilterColumn.CONTACT;
+                case "Type" -> BorrowerDAO.FilterColumn.TYPE;
+                default -> throw new IllegalStateException(fieldCombo.getValue());
+            };
+            loader.load(() -> BorrowerDAO.findByFilter(column, selectedValue));
         });
 
         Button add = accentBtn("➕ Add");
@@ -200,6 +192,7 @@ public class MainView extends BorderPane {
     // =========================================================
     private Tab booksTab() {
         TableView<Book> table = new TableView<>();
+        table.setId("books");
         styleTable(table);
 
         TableColumn<Book, Integer> id = new TableColumn<>("ID");
@@ -219,31 +212,11 @@ public class MainView extends BorderPane {
 
         table.getColumns().addAll(id, titleCol, cat, avail, price);
 
-        try { table.getItems().setAll(BookDAO.findAll()); } catch (Exception ignored) {}
+        TableLoader<Book> loader = TableLoader.of(table);
+        PagedTable.attach(table, (after, n) -> BookDAO.findPage(after, n, BookDAO.SortKey.ID)).reset();
 
-        TextField search = searchBar("Search books (title, id, category)...", text -> {
-            try {
-                List<Book> allBooks = BookDAO.findAll();
-                String q = text.toLowerCase();
-                if (q.isEmpty()) {
-                    table.getItems().setAll(allBooks);
-                    return;
-                }
-                String[] tokens = q.split("\\s+");
-
-                List<Book> filtered = allBooks.stream().filter(b -> {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(b.getBookId()).append(' ');
-                    if (b.getTitle() != null) sb.append(b.getTitle()).append(' ');
-                    if (b.getCategory() != null) sb.append(b.getCategory()).append(' ');
-                    String haystack = sb.toString().toLowerCase();
-                    for (String token : tokens) if (!haystack.contains(token)) return false;
-                    return true;
-                }).toList();
-
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
-        });
+        SearchPipeline<Book> searchPipeline = new SearchPipeline<>(table, BookDAO::findAll, BookDAO.searchIndex());
+        TextField search = searchBar("Search books (title, id, category, type)...", searchPipeline::submit);
 
         HBox filterBox = new HBox(10);
         filterBox.setAlignment(Pos.CENTER_LEFT);
@@ -251,54 +224,61 @@ public class MainView extends BorderPane {
         Label filterLabel = softLabel("Filter by:");
 
         ComboBox<String> fieldCombo = themedCombo();
-        fieldCombo.getItems().addAll("All", "ID", "Title", "Category");
+        fieldCombo.getItems().addAll("All", "ID", "Title", "Category", "Type");
         fieldCombo.setValue("All");
 
         ComboBox<String> valueCombo = themedCombo();
         valueCombo.setPromptText("Select value");
 
+        FilterValues values = new FilterValues(valueCombo);
         fieldCombo.setOnAction(e -> {
             valueCombo.getItems().clear();
             String field = fieldCombo.getValue();
-            try {
-                List<Book> allBooks = BookDAO.findAll();
-                switch (field) {
-                    case "ID" -> allBooks.forEach(b -> valueCombo.getItems().add(String.valueOf(b.getBookId())));
-                    case "Title" -> allBooks.forEach(b -> valueCombo.getItems().add(b.getTitle()));
-                    case "Category" -> allBooks.stream().map(Book::getCategory).distinct().forEach(valueCombo.getItems()::add);
-                    case "All" -> table.getItems().setAll(allBooks);
-                }
-            } catch (Exception ex) { ex.printStackTrace(); }
+            if (field.equals("All")) {
+                values.clear();
+                loader.showAll(BookDAO::findAll);
+                return;
+            }
+            // distinct, sorted values from the server; typing narrows them by prefix
+            BookDAO.FilterColumn column = switch (field) {
+                case "ID" -> BookDAO.FilterColumn.ID;
+                case "Title" -> BookDAO.FilterColumn.TITLE;
+                case "Category" -> BookDAO.FilterColumn.CATEGORY;
+                case "Type" -> BookDAO.FilterColumn.TYPE;
+                default -> throw new IllegalStateException(field);
+            };
+            values.show((prefix, limit) -> BookDAO.distinctValues(column, prefix, limit));
         });
 
         valueCombo.setOnAction(e -> {
             String selectedValue = valueCombo.getValue();
-            if (selectedValue == null || fieldCombo.getValue().equals("All")) {
-                try { table.getItems().setAll(BookDAO.findAll()); } catch (Exception ignored) {}
+            if (selectedValue == null || selectedValue.isBlank() || fieldCombo.getValue().equals("All")) {
+                loader.showAll(BookDAO::findAll);
                 return;
             }
-            try {
-                List<Book> allBooks = BookDAO.findAll();
-                List<Book> filtered = allBooks.stream().filter(b -> switch (fieldCombo.getValue()) {
-                    case "ID" -> String.valueOf(b.getBookId()).equals(selectedValue);
-                    case "Title" -> b.getTitle().equals(selectedValue);
-                    case "Category" -> b.getCategory().equals(selectedValue);
-                    default -> true;
-                }).toList();
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
+            // on the server, matched like the value list: ids exactly, text by prefix (a typed "Sci" finds "Science")
+            BookDAO.FilterColumn column = switch (fieldCombo.getValue()) {
+                case "ID" -> BookDAO.FilterColumn.ID;
+                case "Title" -> BookDAO.FilterColumn.TITLE;
+                case "Category" -> BookDAO.FilterColumn.CATEGORY;
+                case "Type" -> BookDAO.FilterColumn.TYPE;
+                default -> throw new IllegalStateException(fieldCombo.getValue());
+            };
+            loader.load(() -> BookDAO.findByFilter(column, selectedValue));
         });
 
         Button add = accentBtn("➕ Add");
         Button upd = accentBtn("✏️ Update");
         Button del = accentBtn("🗑 Delete");
-        disableForNonAdmin(add, upd, del);
+        Button importCsv = accentBtn("📥 Import CSV");
+        disableForNonAdmin(add, upd, del, importCsv);
 
         add.setOnAction(e -> Dialogs.showAddBookDialog(table));
         upd.setOnAction(e -> Dialogs.showUpdateBookDialog(table));
         del.setOnAction(e -> Dialogs.showDeleteBookDialog(table));
+        importCsv.setOnAction(e -> Dialogs.showImportBooksDialog(table));
 
-        HBox actions = new HBox(10, add, upd, del);
+        HBox actions = new HBox(10, add, upd, del, importCsv);
         actions.setAlignment(Pos.CENTER_LEFT);
 
         filterBox.getChildren().addAll(filterLabel, fieldCombo, valueCombo);
@@ -312,6 +292,7 @@ public class MainView extends BorderPane {
     // =========================================================
     private Tab publishersTab() {
         TableView<Publisher> table = new TableView<>();
+        table.setId("publishers");
         styleTable(table);
 
         TableColumn<Publisher, String> name = new TableColumn<>("Name");
@@ -322,30 +303,12 @@ public class MainView extends BorderPane {
 
         table.getColumns().addAll(name, city);
 
-        try { table.getItems().setAll(PublisherDAO.findAll()); } catch (Exception ignored) {}
+        TableLoader<Publisher> loader = TableLoader.of(table);
+        PagedTable.attach(table, (after, n) -> PublisherDAO.findPage(after, n, PublisherDAO.SortKey.ID)).reset();
 
-        TextField search = searchBar("Search publishers (name, city)...", text -> {
-            try {
-                List<Publisher> all = PublisherDAO.findAll();
-                String q = text.toLowerCase();
-                if (q.isEmpty()) {
-                    table.getItems().setAll(all);
-                    return;
-                }
-                String[] tokens = q.split("\\s+");
-
-                List<Publisher> filtered = all.stream().filter(p -> {
-                    StringBuilder sb = new StringBuilder();
-                    if (p.getName() != null) sb.append(p.getName()).append(' ');
-                    if (p.getCity() != null) sb.append(p.getCity()).append(' ');
-                    String haystack = sb.toString().toLowerCase();
-                    for (String token : tokens) if (!haystack.contains(token)) return false;
-                    return true;
-                }).toList();
-
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
-        });
+        SearchPipeline<Publisher> searchPipeline = new SearchPipeline<>(table, PublisherDAO::findAll,
+                p -> TrigramIndex.text(p.getName(), p.getCity()));
+        TextField search = searchBar("Search publishers (name, city)...", searchPipeline::submit);
 
         HBox filterBox = new HBox(10);
         filterBox.setAlignment(Pos.CENTER_LEFT);
@@ -353,40 +316,45 @@ public class MainView extends BorderPane {
         Label filterLabel = softLabel("Filter by:");
 
         ComboBox<String> fieldCombo = themedCombo();
-        fieldCombo.getItems().addAll("All", "Name", "City");
+        fieldCombo.getItems().addAll("All", "Name", "City", "Country");
         fieldCombo.setValue("All");
 
         ComboBox<String> valueCombo = themedCombo();
         valueCombo.setPromptText("Select value");
 
+        FilterValues values = new FilterValues(valueCombo);
         fieldCombo.setOnAction(e -> {
             valueCombo.getItems().clear();
             String field = fieldCombo.getValue();
-            try {
-                List<Publisher> allPublishers = PublisherDAO.findAll();
-                switch (field) {
-                    case "Name" -> allPublishers.forEach(p -> valueCombo.getItems().add(p.getName()));
-                    case "City" -> allPublishers.stream().map(Publisher::getCity).distinct().forEach(valueCombo.getItems()::add);
-                    case "All" -> table.getItems().setAll(allPublishers);
-                }
-            } catch (Exception ex) { ex.printStackTrace(); }
+            if (field.equals("All")) {
+                values.clear();
+                loader.showAll(PublisherDAO::findAll);
+                return;
+            }
+            // distinct, sorted values from the server; typing narrows them by prefix
+            PublisherDAO.FilterColumn column = switch (field) {
+                case "Name" -> PublisherDAO.FilterColumn.NAME;
+                case "City" -> PublisherDAO.FilterColumn.CITY;
+                case "Country" -> PublisherDAO.FilterColumn.COUNTRY;
+                default -> throw new IllegalStateException(field);
+            };
+            values.show((prefix, limit) -> PublisherDAO.distinctValues(column, prefix, limit));
         });
 
         valueCombo.setOnAction(e -> {
             String selectedValue = valueCombo.getValue();
-            if (selectedValue == null || fieldCombo.getValue().equals("All")) {
-                try { table.getItems().setAll(PublisherDAO.findAll()); } catch (Exception ignored) {}
+            if (selectedValue == null || selectedValue.isBlank() || fieldCombo.getValue().equals("All")) {
+                loader.showAll(PublisherDAO::findAll);
                 return;
             }
-            try {
-                List<Publisher> allPublishers = PublisherDAO.findAll();
-                List<Publisher> filtered = allPublishers.stream().filter(p -> switch (fieldCombo.getValue()) {
-                    case "Name" -> p.getName().equals(selectedValue);
-                    case "City" -> p.getCity().equals(selectedValue);
-                    default -> true;
-                }).toList();
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
+            // on the server, matched like the value list: ids exactly, text by prefix (a typed "Sci" finds "Science")
+            PublisherDAO.FilterColumn column = switch (fieldCombo.getValue()) {
+                case "Name" -> PublisherDAO.FilterColumn.NAME;
+                case "City" -> PublisherDAO.FilterColumn.CITY;
+                case "Country" -> PublisherDAO.FilterColumn.COUNTRY;
+                default -> throw new IllegalStateException(fieldCombo.getValue());
+            };
+            loader.load(() -> PublisherDAO.findByFilter(column, selectedValue));
         });
 
         Button add = accentBtn("➕ Add");
@@ -412,6 +380,7 @@ public class MainView extends BorderPane {
     // =========================================================
     private Tab authorsTab() {
         TableView<Author> table = new TableView<>();
+        table.setId("authors");
         styleTable(table);
 
         TableColumn<Author, Integer> id = new TableColumn<>("ID");
@@ -429,33 +398,12 @@ public class MainView extends BorderPane {
 
         table.getColumns().addAll(id, name, country, bio);
 
-        try { table.getItems().setAll(AuthorDAO.findAll()); } catch (Exception ignored) {}
+        TableLoader<Author> loader = TableLoader.of(table);
+        PagedTable.attach(table, (after, n) -> AuthorDAO.findPage(after, n, AuthorDAO.SortKey.ID)).reset();
 
-        TextField search = searchBar("Search authors (id, name, country, bio)...", text -> {
-            try {
-                List<Author> all = AuthorDAO.findAll();
-                String q = text.toLowerCase();
-                if (q.isEmpty()) {
-                    table.getItems().setAll(all);
-                    return;
-                }
-                String[] tokens = q.split("\\s+");
-
-                List<Author> filtered = all.stream().filter(a -> {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(a.getAuthorId()).append(' ');
-                    if (a.getFirstName() != null) sb.append(a.getFirstName()).append(' ');
-                    if (a.getLastName() != null) sb.append(a.getLastName()).append(' ');
-                    if (a.getCountry() != null) sb.append(a.getCountry()).append(' ');
-                    if (a.getBio() != null) sb.append(a.getBio()).append(' ');
-                    String haystack = sb.toString().toLowerCase();
-                    for (String token : tokens) if (!haystack.contains(token)) return false;
-                    return true;
-                }).toList();
-
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
-        });
+        SearchPipeline<Author> searchPipeline = new SearchPipeline<>(table, AuthorDAO::findAll,
+                a -> TrigramIndex.text(a.getAuthorId(), a.getFirstName(), a.getLastName(), a.getCountry(), a.getBio()));
+        TextField search = searchBar("Search authors (id, name, country, bio)...", searchPipeline::submit);
 
         HBox filterBox = new HBox(10);
         filterBox.setAlignment(Pos.CENTER_LEFT);
@@ -469,36 +417,39 @@ public class MainView extends BorderPane {
         ComboBox<String> valueCombo = themedCombo();
         valueCombo.setPromptText("Select value");
 
+        FilterValues values = new FilterValues(valueCombo);
         fieldCombo.setOnAction(e -> {
             valueCombo.getItems().clear();
             String field = fieldCombo.getValue();
-            try {
-                List<Author> allAuthors = AuthorDAO.findAll();
-                switch (field) {
-                    case "ID" -> allAuthors.forEach(a -> valueCombo.getItems().add(String.valueOf(a.getAuthorId())));
-                    case "Name" -> allAuthors.forEach(a -> valueCombo.getItems().add(a.getFirstName() + " " + a.getLastName()));
-                    case "Country" -> allAuthors.stream().map(Author::getCountry).distinct().forEach(valueCombo.getItems()::add);
-                    case "All" -> table.getItems().setAll(allAuthors);
-                }
-            } catch (Exception ex) { ex.printStackTrace(); }
+            if (field.equals("All")) {
+                values.clear();
+                loader.showAll(AuthorDAO::findAll);
+                return;
+            }
+            // distinct, sorted values from the server; typing narrows them by prefix
+            AuthorDAO.FilterColumn column = switch (field) {
+                case "ID" -> AuthorDAO.FilterColumn.ID;
+                case "Name" -> AuthorDAO.FilterColumn.NAME;
+                case "Country" -> AuthorDAO.FilterColumn.COUNTRY;
+                default -> throw new IllegalStateException(field);
+            };
+            values.show((prefix, limit) -> AuthorDAO.distinctValues(column, prefix, limit));
         });
 
         valueCombo.setOnAction(e -> {
             String selectedValue = valueCombo.getValue();
-            if (selectedValue == null || fieldCombo.getValue().equals("All")) {
-                try { table.getItems().setAll(AuthorDAO.findAll()); } catch (Exception ignored) {}
+            if (selectedValue == null || selectedValue.isBlank() || fieldCombo.getValue().equals("All")) {
+                loader.showAll(AuthorDAO::findAll);
                 return;
             }
-            try {
-                List<Author> allAuthors = AuthorDAO.findAll();
-                List<Author> filtered = allAuthors.stream().filter(a -> switch (fieldCombo.getValue()) {
-                    case "ID" -> String.valueOf(a.getAuthorId()).equals(selectedValue);
-                    case "Name" -> (a.getFirstName() + " " + a.getLastName()).equals(selectedValue);
-                    case "Country" -> a.getCountry().equals(selectedValue);
-                    default -> true;
-                }).toList();
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
+            // on the server, matched like the value list: ids exactly, text by prefix (a typed "Sci" finds "Science")
+            AuthorDAO.FilterColumn column = switch (fieldCombo.getValue()) {
+                case "ID" -> AuthorDAO.FilterColumn.ID;
+                case "Name" -> AuthorDAO.FilterColumn.NAME;
+                case "Country" -> AuthorDAO.FilterColumn.COUNTRY;
+                default -> throw new IllegalStateException(fieldCombo.getValue());
+            };
+            loader.load(() -> AuthorDAO.findByFilter(column, selectedValue));
         });
 
         Button add = accentBtn("➕ Add");
@@ -524,6 +475,7 @@ public class MainView extends BorderPane {
     // =========================================================
     private Tab loansTab() {
         TableView<Loan> table = new TableView<>();
+        table.setId("loans");
         styleTable(table);
 
         TableColumn<Loan, Integer> id = new TableColumn<>("Loan ID");
@@ -547,34 +499,12 @@ public class MainView extends BorderPane {
 
         table.getColumns().addAll(id, book, borrower, loanDate, dueDate, returnDate);
 
-        try { table.getItems().setAll(LoanDAO.findAll()); } catch (Exception ignored) {}
+        TableLoader<Loan> loader = TableLoader.of(table);
+        PagedTable.attach(table, (after, n) -> LoanDAO.findPage(after, n, LoanDAO.SortKey.ID)).reset();
 
-        TextField search = searchBar("Search loans (ids, dates)...", text -> {
-            try {
-                List<Loan> all = LoanDAO.findAll();
-                String q = text.toLowerCase();
-                if (q.isEmpty()) {
-                    table.getItems().setAll(all);
-                    return;
-                }
-                String[] tokens = q.split("\\s+");
-
-                List<Loan> filtered = all.stream().filter(l -> {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(l.getId()).append(' ');
-                    sb.append(l.getBookId()).append(' ');
-                    sb.append(l.getBorrowerId()).append(' ');
-                    if (l.getLoanDate() != null) sb.append(l.getLoanDate()).append(' ');
-                    if (l.getDueDate() != null) sb.append(l.getDueDate()).append(' ');
-                    if (l.getReturnDate() != null) sb.append(l.getReturnDate()).append(' ');
-                    String haystack = sb.toString().toLowerCase();
-                    for (String token : tokens) if (!haystack.contains(token)) return false;
-                    return true;
-                }).toList();
-
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
-        });
+        // server-side: the loans table is paged, not held in memory
+        SearchPipeline<Loan> searchPipeline = SearchPipeline.using(table, LoanDAO::findAll, LoanDAO::search);
+        TextField search = searchBar("Search loans (ids, dates, names, titles)...", searchPipeline::submit);
 
         HBox filterBox = new HBox(10);
         filterBox.setAlignment(Pos.CENTER_LEFT);
@@ -588,36 +518,42 @@ public class MainView extends BorderPane {
         ComboBox<String> valueCombo = themedCombo();
         valueCombo.setPromptText("Select value");
 
+        FilterValues values = new FilterValues(valueCombo);
         fieldCombo.setOnAction(e -> {
             valueCombo.getItems().clear();
             String field = fieldCombo.getValue();
-            try {
-                List<Loan> allLoans = LoanDAO.findAll();
-                switch (field) {
-                    case "Loan ID" -> allLoans.forEach(l -> valueCombo.getItems().add(String.valueOf(l.getId())));
-                    case "Book ID" -> allLoans.forEach(l -> valueCombo.getItems().add(String.valueOf(l.getBookId())));
-                    case "Borrower ID" -> allLoans.forEach(l -> valueCombo.getItems().add(String.valueOf(l.getBorrowerId())));
-                    case "All" -> table.getItems().setAll(allLoans);
-                }
-            } catch (Exception ex) { ex.printStackTrace(); }
+            if (field.equals("All")) {
+                values.clear();
+                loader.showAll(LoanDAO::findAll);
+                return;
+            }
+            // distinct, sorted values from the server; typing narrows them by prefix
+            LoanDAO.FilterColumn column = switch (field) {
+                case "Loan ID" -> LoanDAO.FilterColumn.LOAN_ID;
+                case "Book ID" -> LoanDAO.FilterColumn.BOOK_ID;
+                case "Borrower ID" -> LoanDAO.FilterColumn.BORROWER_ID;
+                default -> throw new IllegalStateException(field);
+            };
+            values.show((prefix, limit) -> LoanDAO.distinctValues(column, prefix, limit));
         });
 
         valueCombo.setOnAction(e -> {
             String selectedValue = valueCombo.getValue();
-            if (selectedValue == null || fieldCombo.getValue().equals("All")) {
-                try { table.getItems().setAll(LoanDAO.findAll()); } catch (Exception ignored) {}
+            if (selectedValue == null || selectedValue.isBlank() || fieldCombo.getValue().equals("All")) {
+                loader.showAll(LoanDAO::findAll);
                 return;
             }
-            try {
-                List<Loan> allLoans = LoanDAO.findAll();
-                List<Loan> filtered = allLoans.stream().filter(l -> switch (fieldCombo.getValue()) {
-                    case "Loan ID" -> String.valueOf(l.getId()).equals(selectedValue);
-                    case "Book ID" -> String.valueOf(l.getBookId()).equals(selectedValue);
-                    case "Borrower ID" -> String.valueOf(l.getBorrowerId()).equals(selectedValue);
-                    default -> true;
-                }).toList();
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
+            LoanDAO.FilterColumn column = switch (fieldCombo.getValue()) {
+                case "Loan ID" -> LoanDAO.FilterColumn.LOAN_ID;
+                case "Book ID" -> LoanDAO.FilterColumn.BOOK_ID;
+                default -> LoanDAO.FilterColumn.BORROWER_ID;
+            };
+            if (!selectedValue.trim().matches("\\d{1,9}")) {   // typed, not picked: ids only
+                loader.load(List::of);
+                return;
+            }
+            int value = Integer.parseInt(selectedValue.trim());
+            loader.load(() -> LoanDAO.findBy(column, value));
         });
 
         Button add = accentBtn("➕ Add");
@@ -634,7 +570,13 @@ public class MainView extends BorderPane {
 
         filterBox.getChildren().addAll(filterLabel, fieldCombo, valueCombo);
 
-        VBox box = contentCard("Loans", search, filterBox, table, actions);
+        // the search stops at library.search.maxRows rows; say so instead of showing a partial list silently
+        Label capped = softLabel("");
+        capped.textProperty().bind(searchPipeline.noticeProperty());
+        capped.visibleProperty().bind(capped.textProperty().isNotEmpty());
+        capped.managedProperty().bind(capped.visibleProperty());
+
+        VBox box = contentCard("Loans", search, capped, filterBox, table, actions);
         return new Tab("Loans", box);
     }
 
@@ -643,6 +585,7 @@ public class MainView extends BorderPane {
     // =========================================================
     private Tab salesTab() {
         TableView<Sale> table = new TableView<>();
+        table.setId("sales");
         styleTable(table);
 
         TableColumn<Sale, Integer> id = new TableColumn<>("Sale ID");
@@ -664,33 +607,12 @@ public class MainView extends BorderPane {
 
         table.getColumns().addAll(id, book, borrower, price, date);
 
-        try { table.getItems().setAll(SaleDAO.findAll()); } catch (Exception ignored) {}
+        TableLoader<Sale> loader = TableLoader.of(table);
+        PagedTable.attach(table, (after, n) -> SaleDAO.findPage(after, n, SaleDAO.SortKey.ID)).reset();
 
-        TextField search = searchBar("Search sales (id, book, borrower, price, date)...", text -> {
-            try {
-                List<Sale> all = SaleDAO.findAll();
-                String q = text.toLowerCase();
-                if (q.isEmpty()) {
-                    table.getItems().setAll(all);
-                    return;
-                }
-                String[] tokens = q.split("\\s+");
-
-                List<Sale> filtered = all.stream().filter(s -> {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append(s.getSaleId()).append(' ');
-                    sb.append(s.getBookId()).append(' ');
-                    sb.append(s.getBorrowerId()).append(' ');
-                    sb.append(s.getSalePrice()).append(' ');
-                    if (s.getSaleDate() != null) sb.append(s.getSaleDate()).append(' ');
-                    String haystack = sb.toString().toLowerCase();
-                    for (String token : tokens) if (!haystack.contains(token)) return false;
-                    return true;
-                }).toList();
-
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
-        });
+        // server-side: the sales table is paged, not held in memory
+        SearchPipeline<Sale> searchPipeline = SearchPipeline.using(table, SaleDAO::findAll, SaleDAO::search);
+        TextField search = searchBar("Search sales (ids, dates, names, titles)...", searchPipeline::submit);
 
         HBox filterBox = new HBox(10);
         filterBox.setAlignment(Pos.CENTER_LEFT);
@@ -704,36 +626,42 @@ public class MainView extends BorderPane {
         ComboBox<String> valueCombo = themedCombo();
         valueCombo.setPromptText("Select value");
 
+        FilterValues values = new FilterValues(valueCombo);
         fieldCombo.setOnAction(e -> {
             valueCombo.getItems().clear();
             String field = fieldCombo.getValue();
-            try {
-                List<Sale> allSales = SaleDAO.findAll();
-                switch (field) {
-                    case "Sale ID" -> allSales.forEach(s -> valueCombo.getItems().add(String.valueOf(s.getSaleId())));
-                    case "Book ID" -> allSales.forEach(s -> valueCombo.getItems().add(String.valueOf(s.getBookId())));
-                    case "Borrower ID" -> allSales.forEach(s -> valueCombo.getItems().add(String.valueOf(s.getBorrowerId())));
-                    case "All" -> table.getItems().setAll(allSales);
-                }
-            } catch (Exception ex) { ex.printStackTrace(); }
+            if (field.equals("All")) {
+                values.clear();
+                loader.showAll(SaleDAO::findAll);
+                return;
+            }
+            // distinct, sorted values from the server; typing narrows them by prefix
+            SaleDAO.FilterColumn column = switch (field) {
+                case "Sale ID" -> SaleDAO.FilterColumn.SALE_ID;
+                case "Book ID" -> SaleDAO.FilterColumn.BOOK_ID;
+                case "Borrower ID" -> SaleDAO.FilterColumn.BORROWER_ID;
+                default -> throw new IllegalStateException(field);
+            };
+            values.show((prefix, limit) -> SaleDAO.distinctValues(column, prefix, limit));
         });
 
         valueCombo.setOnAction(e -> {
             String selectedValue = valueCombo.getValue();
-            if (selectedValue == null || fieldCombo.getValue().equals("All")) {
-                try { table.getItems().setAll(SaleDAO.findAll()); } catch (Exception ignored) {}
+            if (selectedValue == null || selectedValue.isBlank() || fieldCombo.getValue().equals("All")) {
+                loader.showAll(SaleDAO::findAll);
                 return;
             }
-            try {
-                List<Sale> allSales = SaleDAO.findAll();
-                List<Sale> filtered = allSales.stream().filter(s -> switch (fieldCombo.getValue()) {
-                    case "Sale ID" -> String.valueOf(s.getSaleId()).equals(selectedValue);
-                    case "Book ID" -> String.valueOf(s.getBookId()).equals(selectedValue);
-                    case "Borrower ID" -> String.valueOf(s.getBorrowerId()).equals(selectedValue);
-                    default -> true;
-                }).toList();
-                table.getItems().setAll(filtered);
-            } catch (Exception ex) { ex.printStackTrace(); }
+            SaleDAO.FilterColumn column = switch (fieldCombo.getValue()) {
+                case "Sale ID" -> SaleDAO.FilterColumn.SALE_ID;
+                case "Book ID" -> SaleDAO.FilterColumn.BOOK_ID;
+                default -> SaleDAO.FilterColumn.BORROWER_ID;
+            };
+            if (!selectedValue.trim().matches("\\d{1,9}")) {   // typed, not picked: ids only
+                loader.load(List::of);
+                return;
+            }
+            int value = Integer.parseInt(selectedValue.trim());
+            loader.load(() -> SaleDAO.findBy(column, value));
         });
 
         Button add = accentBtn("➕ Add");
@@ -750,7 +678,13 @@ public class MainView extends BorderPane {
 
         filterBox.getChildren().addAll(filterLabel, fieldCombo, valueCombo);
 
-        VBox box = contentCard("Sales", search, filterBox, table, actions);
+        // the search stops at library.search.maxRows rows; say so instead of showing a partial list silently
+        Label capped = softLabel("");
+        capped.textProperty().bind(searchPipeline.noticeProperty());
+        capped.visibleProperty().bind(capped.textProperty().isNotEmpty());
+        capped.managedProperty().bind(capped.visibleProperty());
+
+        VBox box = contentCard("Sales", search, capped, filterBox, table, actions);
         return new Tab("Sales", box);
     }
 
@@ -771,7 +705,9 @@ public class MainView extends BorderPane {
         reportHint.setTextFill(Color.web(MUTED));
 
         TextField reportFilter = searchBar("Filter in current report...", t -> {});
-        TableView<Map<String, Object>> table = new TableView<>();
+        // rows are indices into the current ReportTable
+        TableView<Integer> table = new TableView<>();
+        table.setId("reports");
         applyPrettyReportTable(table);
         table.widthProperty().addListener((obs, oldW, newW) -> autosizeReportColumns(table));
 
@@ -784,7 +720,8 @@ public class MainView extends BorderPane {
 
         Button exportBtn = ghostBtn("⬇ Export CSV");
         Button clearBtn = ghostBtn("✖ Clear");
-        HBox actions = new HBox(10, exportBtn, clearBtn);
+        Button exportHistoryBtn = ghostBtn("⬇ Export history…");
+        HBox actions = new HBox(10, exportHistoryBtn, exportBtn, clearBtn);
         actions.setAlignment(Pos.CENTER_RIGHT);
 
         VBox card = new VBox(10, reportTitle, reportHint, reportFilter, actions, tableHolder);
@@ -799,11 +736,12 @@ public class MainView extends BorderPane {
         root.setCenter(card);
 
         // ---------- CURRENT DATA ----------
-        final List<Map<String, Object>>[] currentData = new List[1];
+        final ReportTable[] currentData = new ReportTable[1];
 
-        Consumer<List<Map<String, Object>>> showData = data -> {
+        Consumer<ReportTable> showData = data -> {
             table.getColumns().clear();
             table.getItems().clear();
+            emptyState.setText("Select a report to display data.");
 
             if (data == null || data.isEmpty()) {
                 currentData[0] = null;
@@ -814,42 +752,56 @@ public class MainView extends BorderPane {
             emptyState.setVisible(false);
             currentData[0] = data;
 
-            Map<String, Object> sample = data.get(0);
-            for (String colName : sample.keySet()) {
-                TableColumn<Map<String, Object>, String> col = new TableColumn<>(colName);
-                col.setCellValueFactory(cd -> new SimpleStringProperty(String.valueOf(cd.getValue().get(colName))));
+            for (int c = 0; c < data.columnCount(); c++) {
+                int colIndex = c;
+                TableColumn<Integer, String> col = new TableColumn<>(data.name(c));
+                col.setCellValueFactory(cd -> new SimpleStringProperty(data.getString(cd.getValue(), colIndex)));
                 col.setStyle("-fx-alignment: CENTER-LEFT;");
                 table.getColumns().add(col);
             }
 
-            table.getItems().addAll(data);
+            TableLoader.refresh(table, "report", data.rowCount(), () -> table.getItems().setAll(rowIndices(data, null)));
             autosizeReportColumns(table);
         };
 
+        FxAsync.Latest report = new FxAsync.Latest();
+        Consumer<AsyncDAO.SqlCall<ReportTable>> runReport = call -> {
+            table.getColumns().clear();
+            table.getItems().clear();
+            currentData[0] = null;
+            emptyState.setText("Loading…");
+            emptyState.setVisible(true);
+            report.run(call, showData, error -> {
+                emptyState.setText("Select a report to display data.");
+                FxAsync.showFailure(error);
+            });
+        };
+
         reportFilter.textProperty().addListener((o, a, n) -> {
             if (currentData[0] == null) return;
 
             String q = n.trim().toLowerCase();
-            if (q.isEmpty()) {
-                table.getItems().setAll(currentData[0]);
-                return;
-            }
-            String[] tokens = q.split("\\s+");
-
-            List<Map<String, Object>> filtered = currentData[0].stream()
-                    .filter(row -> {
-                        StringBuilder sb = new StringBuilder();
-                        for (Object value : row.values()) if (value != null) sb.append(value).append(" ");
-                        String rowText = sb.toString().toLowerCase();
-                        for (String token : tokens) if (!rowText.contains(token)) return false;
-                        return true;
-                    }).toList();
-
-            table.getItems().setAll(filtered);
+            List<Integer> rows = rowIndices(currentData[0], q.isEmpty() ? null : q.split("\\s+"));
+            TableLoader.refresh(table, "search", rows.size(), () -> table.getItems().setAll(rows));
         });
 
-        exportBtn.setOnAction(e -> exportCurrentTableToCSV(table));
+        exportBtn.setOnAction(e -> exportCurrentTableToCSV(table, currentData[0]));
+
+        // whole histories go straight from a streaming query to the file, never through the table
+        MenuItem saleHistory = new MenuItem("Sale history");
+        saleHistory.setOnAction(e -> Dialogs.showExportDialog(getScene().getWindow(),
+                "Export Sale History", "sale-history", ReportDAO::saleHistory));
+        MenuItem loanHistory = new MenuItem("Loan history");
+        loanHistory.setOnAction(e -> Dialogs.showExportDialog(getScene().getWindow(),
+                "Export Loan History", "loan-history", ReportDAO::loanHistory));
+        MenuItem soldBooks = new MenuItem("Sold books with prices");
+        soldBooks.setOnAction(e -> Dialogs.showExportDialog(getScene().getWindow(),
+                "Export Sold Books", "sold-books", ReportDAO::soldBooksWithPrices));
+        ContextMenu historyMenu = new ContextMenu(saleHistory, loanHistory, soldBooks);
+        exportHistoryBtn.setOnAction(e -> historyMenu.show(exportHistoryBtn, Side.BOTTOM, 0, 0));
         clearBtn.setOnAction(e -> {
+            report.cancel();
+            emptyState.setText("Select a report to display data.");
             table.getColumns().clear();
             table.getItems().clear();
             currentData[0] = null;
@@ -895,12 +847,17 @@ public class MainView extends BorderPane {
         Button salesBarBtn   = reportBtn("💰 Sales revenue per month (Bar)");
         Button topBorBtn     = reportBtn("🏆 Top borrowers (Bar)");
 
+        Button rebuildRollupsBtn = ghostBtn("↻ Rebuild monthly totals");
+        rebuildRollupsBtn.setMaxWidth(Double.MAX_VALUE);
+        disableForNonAdmin(rebuildRollupsBtn);
+
         VBox btns = new VBox(8,
                 totalValueBtn, byAuthorBtn, byBorrowerBtn, loansBtn, byCountryBtn,
                 neverBorrowedBtn, multiAuthorsBtn, soldBooksBtn, availableBtn,
                 loanHistoryBtn, betweenDatesBtn,
                 sep,
-                catChartBtn, availPieBtn, loansLineBtn, salesBarBtn, topBorBtn
+                catChartBtn, availPieBtn, loansLineBtn, salesBarBtn, topBorBtn,
+                rebuildRollupsBtn
         );
 
         ScrollPane scroll = new ScrollPane(btns);
@@ -913,15 +870,17 @@ public class MainView extends BorderPane {
         BorderPane.setMargin(sidebar, new Insets(0, 12, 0, 0));
 
         // ---------- REPORT ACTIONS ----------
-        totalValueBtn.setOnAction(e -> { try { showData.accept(ReportDAO.totalValueOfAllBooks()); } catch (Exception ex) { ex.printStackTrace(); } });
+        totalValueBtn.setOnAction(e -> report.run(ReportDAO::totalValueOfAllBooks, data -> {
+            showComputedAt(totalValueBtn, data);
+            showData.accept(data);
+        }));
 
         byAuthorBtn.setOnAction(e -> {
             Dialog<Integer> dialog = new Dialog<>();
             dialog.setTitle("Choose Author");
             dialog.setHeaderText("Select an author:");
 
-            ComboBox<Author> combo = new ComboBox<>();
-            try { combo.getItems().setAll(AuthorDAO.findAll()); } catch (Exception ignored) {}
+            ComboBox<Author> combo = new ComboBox<>(AuthorDAO.cache().items());
             combo.setCellFactory(lv -> new ListCell<>() {
                 @Override protected void updateItem(Author a, boolean empty) {
                     super.updateItem(a, empty);
@@ -941,53 +900,46 @@ public class MainView extends BorderPane {
 
             dialog.setResultConverter(bt -> bt == ButtonType.OK && combo.getValue() != null ? combo.getValue().getAuthorId() : null);
 
-            dialog.showAndWait().ifPresent(id -> {
-                try { showData.accept(ReportDAO.booksByAuthor(id)); } catch (Exception ex) { ex.printStackTrace(); }
-            });
+            dialog.showAndWait().ifPresent(id ->
+                    runReport.accept(() -> ReportDAO.booksByAuthor(id)));
         });
 
         byBorrowerBtn.setOnAction(e -> {
             TextInputDialog dlg = new TextInputDialog();
             dlg.setTitle("Choose Borrower");
             dlg.setHeaderText("Enter borrower ID:");
-            dlg.showAndWait().ifPresent(id -> {
-                try { showData.accept(ReportDAO.booksByBorrower(Integer.parseInt(id))); } catch (Exception ex) { ex.printStackTrace(); }
-            });
+            dlg.showAndWait().ifPresent(id ->
+                    runReport.accept(() -> ReportDAO.booksByBorrower(Integer.parseInt(id))));
         });
 
-        loansBtn.setOnAction(e -> { try { showData.accept(ReportDAO.currentLoans()); } catch (Exception ex) { ex.printStackTrace(); } });
+        loansBtn.setOnAction(e -> runReport.accept(ReportDAO::currentLoans));
 
         byCountryBtn.setOnAction(e -> {
             TextInputDialog dlg = new TextInputDialog();
             dlg.setTitle("Publisher Country");
             dlg.setHeaderText("Enter publisher country:");
-            dlg.showAndWait().ifPresent(country -> {
-                try { showData.accept(ReportDAO.booksByPublisherCountry(country)); } catch (Exception ex) { ex.printStackTrace(); }
-            });
+            dlg.showAndWait().ifPresent(country ->
+                    runReport.accept(() -> ReportDAO.booksByPublisherCountry(country)));
         });
 
-        neverBorrowedBtn.setOnAction(e -> { try { showData.accept(ReportDAO.borrowersNeverBorrowed()); } catch (Exception ex) { ex.printStackTrace(); } });
+        neverBorrowedBtn.setOnAction(e -> runReport.accept(ReportDAO::borrowersNeverBorrowed));
 
-        multiAuthorsBtn.setOnAction(e -> {
-            try {
-                List<Map<String, Object>> data = ReportDAO.booksWithMultipleAuthors();
-                if (data.isEmpty()) {
-                    new Alert(Alert.AlertType.INFORMATION, "No books have more than one author.").showAndWait();
-                    clearBtn.fire();
-                } else showData.accept(data);
-            } catch (Exception ex) { ex.printStackTrace(); }
-        });
+        multiAuthorsBtn.setOnAction(e -> report.run(ReportDAO::booksWithMultipleAuthors, data -> {
+            if (data.isEmpty()) {
+                new Alert(Alert.AlertType.INFORMATION, "No books have more than one author.").showAndWait();
+                clearBtn.fire();
+            } else showData.accept(data);
+        }));
 
-        soldBooksBtn.setOnAction(e -> { try { showData.accept(ReportDAO.soldBooksWithPrices()); } catch (Exception ex) { ex.printStackTrace(); } });
-        availableBtn.setOnAction(e -> { try { showData.accept(ReportDAO.booksCurrentlyAvailable()); } catch (Exception ex) { ex.printStackTrace(); } });
+        soldBooksBtn.setOnAction(e -> runReport.accept(ReportDAO::soldBooksWithPrices));
+        availableBtn.setOnAction(e -> runReport.accept(ReportDAO::booksCurrentlyAvailable));
 
         loanHistoryBtn.setOnAction(e -> {
             TextInputDialog dlg = new TextInputDialog();
             dlg.setTitle("Loan History");
             dlg.setHeaderText("Enter borrower ID:");
-            dlg.showAndWait().ifPresent(id -> {
-                try { showData.accept(ReportDAO.loanHistoryForBorrower(Integer.parseInt(id))); } catch (Exception ex) { ex.printStackTrace(); }
-            });
+            dlg.showAndWait().ifPresent(id ->
+                    runReport.accept(() -> ReportDAO.loanHistoryForBorrower(Integer.parseInt(id))));
         });
 
         betweenDatesBtn.setOnAction(e -> {
@@ -1004,21 +956,80 @@ public class MainView extends BorderPane {
                     ? List.of(from.getValue().toString(), to.getValue().toString())
                     : null);
 
-            dlg.showAndWait().ifPresent(dates -> {
-                try { showData.accept(ReportDAO.booksBorrowedBetween(dates.get(0), dates.get(1))); } catch (Exception ex) { ex.printStackTrace(); }
-            });
+            dlg.showAndWait().ifPresent(dates ->
+                    runReport.accept(() -> ReportDAO.booksBorrowedBetween(dates.get(0), dates.get(1))));
         });
 
         // ---------- CHART WIRING ----------
-        catChartBtn.setOnAction(e -> { try { Charts.showCategoryChart(ReportDAO.booksPerCategory()); } catch (Exception ex) { ex.printStackTrace(); } });
-        availPieBtn.setOnAction(e -> { try { Charts.showAvailabilityPie(ReportDAO.availabilitySummary()); } catch (Exception ex) { ex.printStackTrace(); } });
-        loansLineBtn.setOnAction(e -> { try { Charts.showLoansPerMonthLine(ReportDAO.loansPerMonth()); } catch (Exception ex) { ex.printStackTrace(); } });
-        salesBarBtn.setOnAction(e -> { try { Charts.showSalesRevenueBar(ReportDAO.salesRevenuePerMonth()); } catch (Exception ex) { ex.printStackTrace(); } });
-        topBorBtn.setOnAction(e -> { try { Charts.showTopBorrowersBar(ReportDAO.topBorrowers(10)); } catch (Exception ex) { ex.printStackTrace(); } });
+        // these reports are cached (ReportDAO), so each button shows when its data was computed
+        catChartBtn.setOnAction(e -> FxAsync.run(ReportDAO::booksPerCategory, data -> {
+            showComputedAt(catChartBtn, data);
+            Charts.showCategoryChart(data);
+        }));
+        availPieBtn.setOnAction(e -> FxAsync.run(ReportDAO::availabilitySummary, data -> {
+            showComputedAt(availPieBtn, data);
+            Charts.showAvailabilityPie(data);
+        }));
+        loansLineBtn.setOnAction(e -> FxAsync.run(ReportDAO::loansPerMonth, data -> {
+            showComputedAt(loansLineBtn, data);
+            Charts.showLoansPerMonthLine(data);
+        }));
+        salesBarBtn.setOnAction(e -> FxAsync.run(ReportDAO::salesRevenuePerMonth, data -> {
+            showComputedAt(salesBarBtn, data);
+            Charts.showSalesRevenueBar(data);
+        }));
+        topBorBtn.setOnAction(e -> FxAsync.run(() -> ReportDAO.topBorrowers(10), data -> {
+            showComputedAt(topBorBtn, data);
+            Charts.showTopBorrowersBar(data);
+        }));
+
+        // loan_month/sale_month are kept current by the DAOs; this recomputes them from scratch
+        rebuildRollupsBtn.setOnAction(e -> {
+            rebuildRollupsBtn.setDisable(true);
+            FxAsync.run(() -> {
+                ReportDAO.rebuildMonthlyRollups();
+                return null;
+            }, ignored -> {
+                rebuildRollupsBtn.setDisable(false);
+                Dialogs.showInfo("Monthly totals", "Loan and sale monthly totals were rebuilt.");
+            }, error -> {
+                rebuildRollupsBtn.setDisable(false);
+                FxAsync.showFailure(error);
+            });
+        });
 
         return new Tab("Reports", root);
     }
 
+    // =========================================================
+    // ===================== DASHBOARD TAB =====================
+    // =========================================================
+    private Tab dashboardTab() {
+        DashboardView dashboard = new DashboardView();
+        Tab tab = new Tab("Dashboard", dashboard);
+        // charts load on the first visit; the view's Refresh button reloads them
+        boolean[] loaded = {false};
+        tab.setOnSelectionChanged(e -> {
+            if (tab.isSelected() && !loaded[0]) {
+                loaded[0] = true;
+                dashboard.refresh();
+            }
+        });
+        return tab;
+    }
+
+    // =========================================================
+    // ==================== DIAGNOSTICS TAB ====================
+    // =========================================================
+    private Tab diagnosticsTab() {
+        DiagnosticsView diagnostics = new DiagnosticsView();
+        Tab tab = new Tab("Diagnostics", diagnostics);
+        tab.setOnSelectionChanged(e -> {
+            if (tab.isSelected()) diagnostics.refresh();
+        });
+        return tab;
+    }
+
     // =========================================================
     // ======================= ABOUT TAB =======================
     // =========================================================
@@ -1219,6 +1230,15 @@ public class MainView extends BorderPane {
         return b;
     }
 
+    private static final DateTimeFormatter COMPUTED_AT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    // second line under a report button: when the shown result was read from the database
+    private static void showComputedAt(Button b, ReportTable data) {
+        String label = (String) b.getProperties().computeIfAbsent("reportLabel", k -> b.getText());
+        String time = LocalDateTime.ofInstant(data.computedAt(), ZoneId.systemDefault()).format(COMPUTED_AT);
+        b.setText(label + "\n🕒 computed " + time);
+    }
+
     private Button ghostBtn(String text) {
         Button b = new Button(text);
         b.setStyle("""
@@ -1257,7 +1277,28 @@ public class MainView extends BorderPane {
         return b;
     }
 
-    private void applyPrettyReportTable(TableView<Map<String, Object>> table) {
+    /** Row indices of the report, keeping only rows whose text contains every token (all rows if tokens is null). */
+    static List<Integer> rowIndices(ReportTable data, String[] tokens) {
+        List<Integer> rows = new java.util.ArrayList<>(data.rowCount());
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < data.rowCount(); r++) {
+            if (tokens != null) {
+                sb.setLength(0);
+                for (int c = 0; c < data.columnCount(); c++) {
+                    String v = data.getString(r, c);
+                    if (v != null) sb.append(v).append(' ');
+                }
+                String rowText = sb.toString().toLowerCase();
+                boolean all = true;
+                for (String token : tokens) if (!rowText.contains(token)) { all = false; break; }
+                if (!all) continue;
+            }
+            rows.add(r);
+        }
+        return rows;
+    }
+
+    private void applyPrettyReportTable(TableView<Integer> table) {
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
         table.setStyle("""
             -fx-background-color: rgba(255,255,255,0.55);
@@ -1269,8 +1310,7 @@ public class MainView extends BorderPane {
         """);
     }
 
-    @SuppressWarnings("unchecked")
-    private void autosizeReportColumns(TableView<Map<String, Object>> table) {
+    private void autosizeReportColumns(TableView<Integer> table) {
         int colCount = table.getColumns().size();
         if (colCount == 0) return;
 
@@ -1281,12 +1321,12 @@ public class MainView extends BorderPane {
         double colWidth = (tableWidth - padding) / colCount;
 
         for (TableColumn<?, ?> c : table.getColumns()) {
-            ((TableColumn<Map<String, Object>, ?>) c).setPrefWidth(colWidth);
+            c.setPrefWidth(colWidth);
         }
     }
 
-    private void exportCurrentTableToCSV(TableView<Map<String, Object>> table) {
-        if (table.getItems().isEmpty() || table.getColumns().isEmpty()) {
+    private void exportCurrentTableToCSV(TableView<Integer> table, ReportTable data) {
+        if (data == null || table.getItems().isEmpty() || table.getColumns().isEmpty()) {
             new Alert(Alert.AlertType.INFORMATION, "No data to export.").showAndWait();
             return;
         }
@@ -1297,22 +1337,14 @@ public class MainView extends BorderPane {
         java.io.File file = fc.showSaveDialog(getScene().getWindow());
         if (file == null) return;
 
-        try (java.io.PrintWriter out = new java.io.PrintWriter(file)) {
-            for (int i = 0; i < table.getColumns().size(); i++) {
-                out.print(table.getColumns().get(i).getText());
-                if (i < table.getColumns().size() - 1) out.print(",");
-            }
-            out.println();
-
-            for (Map<String, Object> row : table.getItems()) {
-                for (int i = 0; i < table.getColumns().size(); i++) {
-                    String col = table.getColumns().get(i).getText();
-                    Object v = row.get(col);
-                    String s = v == null ? "" : String.valueOf(v).replace("\"", "\"\"");
-                    out.print("\"" + s + "\"");
-                    if (i < table.getColumns().size() - 1) out.print(",");
-                }
-                out.println();
+        try (Csv.RecordWriter out = new Csv.RecordWriter(
+                java.nio.file.Files.newBufferedWriter(file.toPath(), java.nio.charset.StandardCharsets.UTF_8))) {
+            out.write(data.names());
+
+            String[] fields = new String[data.columnCount()];
+            for (int row : table.getItems()) {
+                for (int i = 0; i < fields.length; i++) fields[i] = data.getString(row, i);
+                out.write((Object[]) fields);
             }
 
             new Alert(Alert.AlertType.INFORMATION, "Exported successfully!").showAndWait();
@@ -0,0 +1,130 @@
+package org.example.project.ui;
+
+import javafx.collections.ListChangeListener;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import org.example.project.dao.Page;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Fills a TableView one keyset page at a time: the first page on {@link #reset()},
+ * the next one whenever the vertical scroll bar nears the bottom; a {@link Page#restart()}
+ * starts again from the first page.
+ * Installs itself as the table's "show all" view (see {@link TableLoader#showAll}),
+ * so searches and filters replace the paged rows and clearing them starts paging again.
+ */
+public final class PagedTable<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = Integer.getInteger("library.table.pageSize", 200);
+
+    // fetch the next page once the scroll position passes this fraction of the list
+    private static final double PREFETCH_AT = 0.85;
+
+    @FunctionalInterface
+    public interface PageSource<T> {
+        Page<T> fetch(int afterId, int pageSize) throws SQLException;
+    }
+
+    private final TableView<T> table;
+    private final PageSource<T> source;
+    private final int pageSize;
+    private final TableLoader<T> loader;
+
+    private boolean active;       // table currently shows our pages (not a search/filter result)
+    private boolean fetching;
+    private boolean appending;
+    private int lastId;
+    private boolean hasMore;
+
+    private PagedTable(TableView<T> table, PageSource<T> source, int pageSize) {
+        this.table = table;
+        this.source = source;
+        this.pageSize = pageSize;
+        this.loader = TableLoader.of(table);
+
+        loader.onShowAll(this::reset);
+        table.getItems().addListener((ListChangeListener<T>) c -> {
+            // dialog edits of single rows keep the pages; anything else replaced them
+            if (!appending && !loader.isEditing()) {
+                active = false;
+                fetching = false;
+            }
+        });
+        table.skinProperty().addListener((o, a, skin) -> {
+            if (skin != null) watchScrollBar();
+        });
+    }
+
+    public static <T> PagedTable<T> attach(TableView<T> table, PageSource<T> source) {
+        return attach(table, source, DEFAULT_PAGE_SIZE);
+    }
+
+    public static <T> PagedTable<T> attach(TableView<T> table, PageSource<T> source, int pageSize) {
+        return new PagedTable<>(table, source, pageSize);
+    }
+
+    /** Drops the current rows and loads the first page. */
+    public void reset() {
+        appending = true;
+        try {
+            table.getItems().clear();
+        } finally {
+            appending = false;
+        }
+        active = true;
+        fetching = false;
+        loader.pagesReset();
+        lastId = 0;
+        hasMore = true;
+        loader.showLoading();
+        fetchNext();
+    }
+
+    private void fetchNext() {
+        if (!active || fetching || !hasMore) return;
+        fetching = true;
+        int after = lastId;
+        loader.latest().run(() -> source.fetch(after, pageSize), page -> {
+            fetching = false;
+            if (!active) return;
+            if (page.isRestart()) {      // the row we were paging after was deleted
+                reset();
+                return;
+            }
+            lastId = page.lastId();
+            hasMore = page.hasMore();
+            loader.showLoaded();
+            appending = true;
+            try {
+                List<T> rows = loader.notYetShown(page.rows());
+                TableLoader.refresh(table, "page", rows.size(), () -> table.getItems().addAll(rows));
+            } finally {
+                appending = false;
+            }
+        }, error -> {
+            fetching = false;
+            if (FxAsync.isCancellation(error)) return;
+            error.printStackTrace();
+            loader.showFailed();
+        });
+    }
+
+    private void watchScrollBar() {
+        for (Node n : table.lookupAll(".scroll-bar")) {
+            if (n instanceof ScrollBar bar && bar.getOrientation() == Orientation.VERTICAL) {
+                bar.valueProperty().addListener((o, a, v) -> {
+                    if (v.doubleValue() >= bar.getMax() * PREFETCH_AT) fetchNext();
+                });
+                // a first page shorter than the viewport never scrolls; keep pulling until it does
+                bar.visibleProperty().addListener((o, a, visible) -> {
+                    if (!visible) fetchNext();
+                });
+                return;
+            }
+        }
+    }
+}
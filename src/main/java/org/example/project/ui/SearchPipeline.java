@@ -0,0 +1,181 @@
+package org.example.project.ui;
+
+import javafx.animation.PauseTransition;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.ListChangeListener;
+import javafx.scene.control.TableView;
+import javafx.util.Duration;
+import org.example.project.cache.TrigramIndex;
+import org.example.project.dao.AsyncDAO;
+import org.example.project.dao.Page;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Debounced, cancellable multi-token search for one TableView.
+ * <ul>
+ *   <li>keystrokes inside the debounce window collapse into one query;</li>
+ *   <li>a newer query supersedes the one in flight (shared latest-wins slot with {@link TableLoader});</li>
+ *   <li>a query that only extends the previous one filters the previous matches in memory
+ *       instead of going back to the database;</li>
+ *   <li>an empty query gives the table back to its default view ({@link TableLoader#showAll}).</li>
+ * </ul>
+ * A row matches when every whitespace-separated token occurs in its lowercase search text.
+ * Built over a {@link Search} (a {@link TrigramIndex}, or a database search), every query is
+ * answered by it instead, which needs neither the refinement shortcut nor a per-keystroke pass
+ * over the rows. When such a search stops at its row cap, {@link #noticeProperty()} says so.
+ */
+public final class SearchPipeline<T> {
+
+    public static final long DEFAULT_DEBOUNCE_MS = Long.getLong("library.search.debounceMs", 250L);
+
+    /**
+     * Answers a whole (trimmed, lowercase, non-empty) query; runs off the FX thread.
+     * {@code hasMore} on the result means the search stopped at a row cap.
+     */
+    @FunctionalInterface
+    public interface Search<T> {
+        Page<T> find(String query) throws SQLException;
+    }
+
+    private final TableView<T> table;
+    private final AsyncDAO.SqlCall<? extends List<T>> source;
+    private final Function<T, String> searchText;
+    private final Search<T> finder;          // null = scan the source's rows
+    private final PauseTransition debounce;
+
+    // last applied query and its matches (with precomputed search text), null = nothing to refine
+    private String lastQuery;
+    private List<Row<T>> lastMatches;
+    private boolean applying;
+
+    private final ReadOnlyStringWrapper notice = new ReadOnlyStringWrapper(this, "notice", "");
+
+    public SearchPipeline(TableView<T> table, AsyncDAO.SqlCall<? extends List<T>> source, Function<T, String> searchText) {
+        this(table, source, searchText, DEFAULT_DEBOUNCE_MS);
+    }
+
+    public SearchPipeline(TableView<T> table, AsyncDAO.SqlCall<? extends List<T>> source,
+                          Function<T, String> searchText, long debounceMs) {
+        this(table, source, searchText, null, debounceMs);
+    }
+
+    /** Searches through the index; {@code source} is still what an empty query shows. */
+    public SearchPipeline(TableView<T> table, AsyncDAO.SqlCall<? extends List<T>> source, TrigramIndex<T> index) {
+        this(table, source, null, q -> new Page<>(index.search(q), 0, false), DEFAULT_DEBOUNCE_MS);
+    }
+
+    /**
+     * Hands every query to {@code search}; {@code source} is still what an empty query shows.
+     * (A factory, as a constructor would make the row-text lambdas above ambiguous.)
+     */
+    public static <T> SearchPipeline<T> using(TableView<T> table, AsyncDAO.SqlCall<? extends List<T>> source,
+                                              Search<T> search) {
+        return new SearchPipeline<>(table, source, null, search, DEFAULT_DEBOUNCE_MS);
+    }
+
+    private SearchPipeline(TableView<T> table, AsyncDAO.SqlCall<? extends List<T>> source,
+                           Function<T, String> searchText, Search<T> finder, long debounceMs) {
+        this.table = table;
+        this.source = source;
+        this.searchText = searchText;
+        this.finder = finder;
+        this.debounce = new PauseTransition(Duration.millis(debounceMs));
+
+        // rows changed by someone else (dialogs, filters): previous matches no longer describe the table
+        table.getItems().addListener((ListChangeListener<T>) c -> {
+            if (!applying) reset();
+        });
+    }
+
+    /** Schedules a search; call on every text change. */
+    public void submit(String text) {
+        String query = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        debounce.setOnFinished(e -> execute(query));
+        debounce.playFromStart();
+    }
+
+    /** Forgets the previous result so the next query goes back to the source. */
+    public void reset() {
+        lastQuery = null;
+        lastMatches = null;
+        notice.set("");
+    }
+
+    /** "Showing the first N matches ..." while the table shows a capped search result, else empty. */
+    public ReadOnlyStringProperty noticeProperty() {
+        return notice.getReadOnlyProperty();
+    }
+
+    private void execute(String query) {
+        if (query.isEmpty()) {
+            reset();
+            TableLoader.of(table).showAll(source);
+            return;
+        }
+        if (finder != null) {
+            TableLoader.of(table).latest().run(() -> finder.find(query), page -> {
+                apply(query, page.rows(), null);
+                if (page.hasMore()) {
+                    notice.set("Showing the first " + page.rows().size() + " matches; refine your search to see the rest.");
+                }
+            });
+            return;
+        }
+        String[] tokens = query.split("\\s+");
+        List<Row<T>> previous = lastMatches;
+        boolean refine = previous != null && query.startsWith(lastQuery);
+
+        AsyncDAO.SqlCall<List<Row<T>>> call = refine
+                ? () -> filter(previous, tokens)
+                : () -> filter(index(source.call(), searchText), tokens);
+
+        TableLoader.of(table).latest().run(call, matches -> {
+            List<T> items = new ArrayList<>(matches.size());
+            for (Row<T> r : matches) items.add(r.item);
+            apply(query, items, matches);
+        });
+    }
+
+    private void apply(String query, List<T> items, List<Row<T>> matches) {
+        applying = true;
+        try {
+            TableLoader.refresh(table, "search", items.size(), () -> table.getItems().setAll(items));
+        } finally {
+            applying = false;
+        }
+        lastQuery = query;
+        lastMatches = matches;
+        notice.set("");
+    }
+
+    // index/filter are static and package-private so the filter benchmarks can run them without a table
+    static <T> List<Row<T>> index(List<T> items, Function<T, String> searchText) {
+        List<Row<T>> rows = new ArrayList<>(items.size());
+        for (T item : items) {
+            String text = searchText.apply(item);
+            rows.add(new Row<>(item, text == null ? "" : text.toLowerCase(Locale.ROOT)));
+        }
+        return rows;
+    }
+
+    static <T> List<Row<T>> filter(List<Row<T>> rows, String[] tokens) {
+        if (tokens.length == 0) return rows;
+        List<Row<T>> out = new ArrayList<>();
+        for (Row<T> r : rows) {
+            boolean all = true;
+            for (String token : tokens) {
+                if (!r.text.contains(token)) { all = false; break; }
+            }
+            if (all) out.add(r);
+        }
+        return out;
+    }
+
+    record Row<T>(T item, String text) {}
+}
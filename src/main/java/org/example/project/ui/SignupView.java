@@ -221,22 +221,20 @@ public class SignupView extends StackPane {
             return;
         }
 
-        try {
-            if (UserDAO.exists(username)) {
+        // null = username taken, otherwise whether the insert succeeded
+        FxAsync.run(() -> UserDAO.exists(username) ? null : UserDAO.signup(username, email, password, role), created -> {
+            if (created == null) {
                 showAlert("Error", "Username already exists.");
-                return;
-            }
-
-            if (UserDAO.signup(username, email, password, role)) {
+            } else if (created) {
                 showAlert("Success", "User registered successfully!");
                 getScene().setRoot(new LoginView());
             } else {
                 showAlert("Error", "Could not register user. Please try again.");
             }
-        } catch (Exception ex) {
+        }, ex -> {
             ex.printStackTrace();
             showAlert("Error", ex.getMessage());
-        }
+        });
     }
 
     private boolean isStrongPassword(String p) {
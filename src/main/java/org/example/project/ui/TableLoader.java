@@ -0,0 +1,192 @@
+package org.example.project.ui;
+
+import javafx.scene.control.Label;
+import javafx.scene.control.TableView;
+import org.example.project.dao.AsyncDAO;
+import org.example.project.jfr.TableRefreshEvent;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Loads rows into a TableView off the FX thread. One loader is attached per table
+ * (see {@link #of}), so MainView and Dialogs share it and a newer load always
+ * supersedes an older one still in flight.
+ * <p>
+ * After a dialog writes one row, {@link #upsert} and {@link #remove} change just that row in
+ * place, keeping the selection and scroll position, instead of reloading the table.
+ */
+public final class TableLoader<T> {
+
+    private static final String KEY = TableLoader.class.getName();
+
+    private final TableView<T> table;
+    private final FxAsync.Latest latest = new FxAsync.Latest();
+    private final Label loading = placeholder("Loading…");
+    private final Label empty = placeholder("No rows to display.");
+    private final Label failed = placeholder("Could not load data.");
+    private Runnable showAll;
+
+    // in-place edits: rows appended by upsert are skipped when a later page brings them again
+    private ToIntFunction<T> idOf;
+    private final Set<Integer> appendedIds = new HashSet<>();
+    private boolean editing;
+
+    private TableLoader(TableView<T> table) {
+        this.table = table;
+        table.setPlaceholder(empty);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> TableLoader<T> of(TableView<T> table) {
+        return (TableLoader<T>) table.getProperties().computeIfAbsent(KEY, k -> new TableLoader<>(table));
+    }
+
+    /** Clears the table, shows a loading placeholder and fills it with the call's result. */
+    public void load(AsyncDAO.SqlCall<? extends List<T>> call) {
+        appendedIds.clear();
+        table.getItems().clear();
+        table.setPlaceholder(loading);
+        latest.run(call, rows -> {
+            table.setPlaceholder(empty);
+            refresh(table, "load", rows.size(), () -> table.getItems().setAll(rows));
+        }, error -> {
+            if (FxAsync.isCancellation(error)) return;
+            error.printStackTrace();
+            table.setPlaceholder(failed);
+        });
+    }
+
+    /**
+     * Shows the table's unfiltered rows: through the handler installed with {@link #onShowAll}
+     * (e.g. a {@link PagedTable}) if there is one, otherwise by loading the given call.
+     */
+    public void showAll(AsyncDAO.SqlCall<? extends List<T>> fallback) {
+        if (showAll != null) showAll.run();
+        else load(fallback);
+    }
+
+    /**
+     * Puts one freshly read row into the table: replaces the row with the same id where it is,
+     * or appends it if the table does not show it yet. Selection and scroll position are kept.
+     */
+    public void upsert(T row, ToIntFunction<T> idOf) {
+        if (row == null) return;
+        this.idOf = idOf;
+        int id = idOf.applyAsInt(row);
+        int index = indexOf(id);
+        edit(() -> {
+            if (index >= 0) {
+                table.getItems().set(index, row);
+            } else {
+                table.getItems().add(row);
+                appendedIds.add(id);
+            }
+        });
+    }
+
+    /** Removes the row with this id, if shown; the other rows keep their selection and position. */
+    public void remove(int id, ToIntFunction<T> idOf) {
+        this.idOf = idOf;
+        int index = indexOf(id);
+        if (index >= 0) edit(() -> table.getItems().remove(index));
+    }
+
+    /** True while upsert/remove change the items, so listeners can tell an edit from a reload. */
+    boolean isEditing() {
+        return editing;
+    }
+
+    /** The page's rows minus those already appended by {@link #upsert}. */
+    List<T> notYetShown(List<T> page) {
+        if (appendedIds.isEmpty() || idOf == null) return page;
+        List<T> rows = new ArrayList<>(page.size());
+        for (T row : page) {
+            if (!appendedIds.remove(idOf.applyAsInt(row))) rows.add(row);
+        }
+        return rows;
+    }
+
+    void pagesReset() {
+        appendedIds.clear();
+    }
+
+    private int indexOf(int id) {
+        List<T> items = table.getItems();
+        for (int i = 0; i < items.size(); i++) {
+            if (idOf.applyAsInt(items.get(i)) == id) return i;
+        }
+        return -1;
+    }
+
+    // replacing or removing an item can clear or shift the selection; put it back by id
+    private void edit(Runnable change) {
+        List<Integer> selected = new ArrayList<>();
+        for (T row : table.getSelectionModel().getSelectedItems()) selected.add(idOf.applyAsInt(row));
+        editing = true;
+        try {
+            refresh(table, "edit", 1, change);
+        } finally {
+            editing = false;
+        }
+        List<Integer> now = new ArrayList<>();
+        for (T row : table.getSelectionModel().getSelectedItems()) now.add(idOf.applyAsInt(row));
+        if (now.equals(selected)) return;
+
+        table.getSelectionModel().clearSelection();
+        Set<Integer> wanted = new HashSet<>(selected);
+        List<T> items = table.getItems();
+        for (int i = 0; i < items.size() && !wanted.isEmpty(); i++) {
+            if (wanted.remove(idOf.applyAsInt(items.get(i)))) table.getSelectionModel().select(i);
+        }
+    }
+
+    void onShowAll(Runnable handler) {
+        this.showAll = handler;
+    }
+
+    /** The latest-wins slot shared by everything that writes rows into this table. */
+    FxAsync.Latest latest() {
+        return latest;
+    }
+
+    public void cancel() {
+        latest.cancel();
+        table.setPlaceholder(empty);
+    }
+
+    void showLoading() {
+        table.setPlaceholder(loading);
+    }
+
+    void showLoaded() {
+        table.setPlaceholder(empty);
+    }
+
+    void showFailed() {
+        table.setPlaceholder(failed);
+    }
+
+    /** Runs {@code apply} (which puts rows into the table) as a {@link TableRefreshEvent}. */
+    static void refresh(TableView<?> table, String source, int rows, Runnable apply) {
+        TableRefreshEvent event = new TableRefreshEvent();
+        event.begin();
+        apply.run();
+        event.end();
+        if (event.shouldCommit()) {
+            event.table = table.getId() != null ? table.getId() : "table";
+            event.source = source;
+            event.rows = rows;
+            event.commit();
+        }
+    }
+
+    private static Label placeholder(String text) {
+        Label l = new Label(text);
+        l.setStyle("-fx-text-fill: rgba(43,43,43,0.70); -fx-font-family: 'Poppins'; -fx-font-weight: 700;");
+        return l;
+    }
+}
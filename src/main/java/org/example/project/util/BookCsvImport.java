@@ -0,0 +1,225 @@
+package org.example.project.util;
+
+import org.example.project.dao.BookDAO;
+import org.example.project.model.Book;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Imports books from a CSV file with a header row. Columns are matched by name:
+ * title, category, book_type and original_price are required; publisher_id and available
+ * (true/false, yes/no, 1/0; blank = available) are optional.
+ * <p>
+ * The file is read in chunks; each chunk is parsed and validated in parallel, and the valid
+ * rows are handed to a single writer thread that inserts them with {@link BookDAO#insertBatch}
+ * (one transaction per chunk) while the next chunk is being parsed. If a chunk is rejected
+ * by the database its rows are retried one by one so the report names the failing rows.
+ */
+public final class BookCsvImport {
+
+    public record RowError(int line, String message) {}
+
+    public record Result(int imported, List<RowError> errors, boolean cancelled) {}
+
+    @FunctionalInterface
+    public interface Progress {
+        /** Rows handled so far (imported or rejected) out of an estimated total. */
+        void update(long done, long total);
+    }
+
+    private static final List<String> REQUIRED = List.of("title", "category", "book_type", "original_price");
+
+    private record Parsed(int line, Book book, String error) {}
+
+    private BookCsvImport() {}
+
+    public static Result run(Path file, int chunkSize, Progress progress, BooleanSupplier cancelled)
+            throws IOException, SQLException, InterruptedException {
+
+        ValidationUtil.requirePositive(chunkSize, "Chunk size");
+        long total;
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            total = Math.max(1, lines.count() - 1);   // quoted line breaks make this an estimate
+        }
+
+        ConcurrentLinkedQueue<RowError> errors = new ConcurrentLinkedQueue<>();
+        AtomicLong done = new AtomicLong();
+        AtomicInteger imported = new AtomicInteger();
+        BlockingQueue<List<Parsed>> toWrite = new ArrayBlockingQueue<>(2);
+        List<Parsed> endOfInput = List.of();
+
+        ExecutorService writerThread = Executors.newSingleThreadExecutor(
+                Thread.ofVirtual().name("book-import-writer").factory());
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             Csv.RecordReader csv = new Csv.RecordReader(in)) {
+
+            Map<String, Integer> columns = header(csv.next());
+
+            Future<?> writer = writerThread.submit(() -> {
+                while (true) {
+                    List<Parsed> chunk = toWrite.take();
+                    if (chunk == endOfInput) return null;
+                    if (cancelled.getAsBoolean()) continue;   // drain without writing
+                    write(chunk, imported, errors);
+                    progress.update(done.addAndGet(chunk.size()), Math.max(total, done.get()));
+                }
+            });
+
+            boolean more = true;
+            while (more && !cancelled.getAsBoolean()) {
+                List<List<String>> records = new ArrayList<>(chunkSize);
+                List<Integer> lineNumbers = new ArrayList<>(chunkSize);
+                List<String> rec;
+                while (records.size() < chunkSize && (rec = csv.next()) != null) {
+                    if (rec.size() == 1 && rec.get(0).isBlank()) continue;   // empty line
+                    records.add(rec);
+                    lineNumbers.add(csv.line());
+                }
+                more = records.size() == chunkSize;
+
+                List<Parsed> parsed = IntStream.range(0, records.size()).parallel()
+                        .mapToObj(i -> parse(lineNumbers.get(i), records.get(i), columns))
+                        .toList();
+
+                List<Parsed> valid = new ArrayList<>(parsed.size());
+                for (Parsed p : parsed) {
+                    if (p.error() == null) valid.add(p);
+                    else errors.add(new RowError(p.line(), p.error()));
+                }
+                long rejected = parsed.size() - valid.size();
+                if (rejected > 0) progress.update(done.addAndGet(rejected), Math.max(total, done.get()));
+                if (!valid.isEmpty()) hand(toWrite, valid, writer);
+            }
+            hand(toWrite, endOfInput, writer);
+
+            try {
+                writer.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException sql) throw sql;
+                if (cause instanceof RuntimeException re) throw re;
+                throw new IOException(cause);
+            }
+        } finally {
+            writerThread.shutdownNow();
+        }
+
+        List<RowError> report = new ArrayList<>(errors);
+        report.sort(Comparator.comparingInt(RowError::line));
+        return new Result(imported.get(), report, cancelled.getAsBoolean());
+    }
+
+    // blocks while the writer is busy, but never on a writer that has died
+    private static void hand(BlockingQueue<List<Parsed>> queue, List<Parsed> chunk, Future<?> writer)
+            throws InterruptedException {
+        while (!queue.offer(chunk, 200, TimeUnit.MILLISECONDS)) {
+            if (writer.isDone()) return;
+        }
+    }
+
+    private static Map<String, Integer> header(List<String> header) throws IOException {
+        if (header == null) throw new IOException("The file is empty.");
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        List<String> missing = REQUIRED.stream().filter(c -> !columns.containsKey(c)).toList();
+        if (!missing.isEmpty()) {
+            throw new IOException("Missing column(s) in header: " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static Parsed parse(int line, List<String> rec, Map<String, Integer> columns) {
+        try {
+            String title = field(rec, columns, "title");
+            String category = field(rec, columns, "category");
+            String bookType = field(rec, columns, "book_type");
+            String priceText = field(rec, columns, "original_price");
+            String publisherText = field(rec, columns, "publisher_id");
+            String availableText = field(rec, columns, "available");
+
+            Integer publisherId = null;
+            if (!publisherText.isEmpty()) {
+                try { publisherId = Integer.parseInt(publisherText); }
+                catch (NumberFormatException e) { return new Parsed(line, null, "Publisher ID must be a valid number."); }
+            }
+
+            BigDecimal price = null;
+            if (!priceText.isEmpty()) {
+                try { price = new BigDecimal(priceText); }
+                catch (NumberFormatException e) { return new Parsed(line, null, "Price must be a valid number (e.g. 19.99)."); }
+            }
+
+            Boolean available = parseAvailable(availableText);
+            if (available == null) return new Parsed(line, null, "Available must be true/false, yes/no or 1/0.");
+
+            BookDAO.validate(title, publisherId, category, bookType, price);
+            return new Parsed(line, new Book(0, title, publisherId, category, bookType, price, available), null);
+        } catch (IllegalArgumentException e) {
+            return new Parsed(line, null, e.getMessage());
+        }
+    }
+
+    private static String field(List<String> rec, Map<String, Integer> columns, String name) {
+        Integer i = columns.get(name);
+        return i == null || i >= rec.size() ? "" : rec.get(i).trim();
+    }
+
+    private static Boolean parseAvailable(String s) {
+        return switch (s.toLowerCase(Locale.ROOT)) {
+            case "", "true", "yes", "y", "1" -> true;
+            case "false", "no", "n", "0" -> false;
+            default -> null;
+        };
+    }
+
+    // writer thread only
+    private static void write(List<Parsed> chunk, AtomicInteger imported, ConcurrentLinkedQueue<RowError> errors)
+            throws SQLException {
+        List<Book> books = new ArrayList<>(chunk.size());
+        for (Parsed p : chunk) books.add(p.book());
+        try {
+            BookDAO.insertBatch(books, books.size(), null);
+            imported.addAndGet(books.size());
+            return;
+        } catch (SQLException batchFailed) {
+            // fall through: find the offending rows
+        }
+        for (Parsed p : chunk) {
+            Book b = p.book();
+            try {
+                BookDAO.insert(b.getTitle(), b.getPublisherId(), b.getCategory(), b.getBookType(),
+                        b.getOriginalPrice(), b.isAvailable());
+                imported.incrementAndGet();
+            } catch (SQLException e) {
+                errors.add(new RowError(p.line(), e.getMessage()));
+            }
+        }
+    }
+}
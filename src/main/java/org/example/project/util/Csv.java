@@ -0,0 +1,149 @@
+package org.example.project.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV support: comma separated, fields optionally quoted,
+ * quotes escaped by doubling, quoted fields may span lines.
+ * A field is written quoted when it contains a comma, quote or line break, or starts or ends with whitespace.
+ */
+public final class Csv {
+
+    private Csv() {}
+
+    /** The field as it appears in a CSV file: quoted only when it has to be. */
+    public static String field(Object value) {
+        if (value == null) return "";
+        String s = value instanceof BigDecimal d ? d.toPlainString() : value.toString();
+        return needsQuotes(s) ? '"' + s.replace("\"", "\"\"") + '"' : s;
+    }
+
+    private static boolean needsQuotes(String s) {
+        if (s.isEmpty()) return false;
+        if (Character.isWhitespace(s.charAt(0)) || Character.isWhitespace(s.charAt(s.length() - 1))) return true;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') return true;
+        }
+        return false;
+    }
+
+    /** Writes records with CRLF line ends; the caller supplies (and sizes) the buffering. */
+    public static final class RecordWriter implements Closeable, Flushable {
+        private final Writer out;
+
+        public RecordWriter(Writer out) {
+            this.out = out;
+        }
+
+        public void write(Object... fields) throws IOException {
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) out.write(',');
+                out.write(field(fields[i]));
+            }
+            out.write("\r\n");
+        }
+
+        public void write(List<?> fields) throws IOException {
+            write(fields.toArray());
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /** Reads records one at a time and remembers the line each one started on (for error reports). */
+    public static final class RecordReader implements Closeable {
+        private final Reader in;
+        private int line = 1;
+        private int recordLine;
+        private int pushback = -2;   // -2 = empty
+        private boolean first = true;
+
+        public RecordReader(Reader in) {
+            this.in = in;
+        }
+
+        /** The next record's fields, or null at end of input. */
+        public List<String> next() throws IOException {
+            int ch = read();
+            if (first) {
+                first = false;
+                if (ch == '\uFEFF') ch = read();   // UTF-8 byte order mark
+            }
+            if (ch == -1) return null;
+
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            while (true) {
+                if (quoted) {
+                    if (ch == -1) throw new IOException("Line " + recordLine + ": unterminated quoted field.");
+                    if (ch == '"') {
+                        int nextCh = read();
+                        if (nextCh == '"') field.append('"');
+                        else { quoted = false; ch = nextCh; continue; }
+                    } else {
+                        if (ch == '\n') line++;
+                        field.append((char) ch);
+                    }
+                } else if (ch == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (ch == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (ch == '\r' || ch == '\n' || ch == -1) {
+                    if (ch == '\r') {
+                        int nextCh = read();
+                        if (nextCh != '\n') unread(nextCh);
+                    }
+                    if (ch != -1) line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) ch);
+                }
+                ch = read();
+            }
+        }
+
+        /** Line number (1-based) where the record last returned by {@link #next()} started. */
+        public int line() {
+            return recordLine;
+        }
+
+        private int read() throws IOException {
+            if (pushback != -2) {
+                int ch = pushback;
+                pushback = -2;
+                return ch;
+            }
+            return in.read();
+        }
+
+        private void unread(int ch) {
+            pushback = ch;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
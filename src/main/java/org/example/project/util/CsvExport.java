@@ -0,0 +1,115 @@
+package org.example.project.util;
+
+import org.example.project.dao.JdbcStreams;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a streamed query straight to a CSV file, optionally gzip-compressed. Rows go from the
+ * driver's streaming cursor ({@link JdbcStreams}) through a large buffer into a file channel,
+ * so memory use does not depend on the row count.
+ * <p>
+ * The data is written to a ".part" file next to the target and moved into place when complete;
+ * a failed or cancelled export leaves no file behind.
+ */
+public final class CsvExport {
+
+    // -Dlibrary.export.bufferSize=... (bytes)
+    public static final int BUFFER_SIZE = Integer.getInteger("library.export.bufferSize", 1 << 20);
+
+    private static final int PROGRESS_EVERY = 10_000;
+
+    /** A streaming query, e.g. {@code sink -> ReportDAO.soldBooksWithPrices(sink)}. */
+    @FunctionalInterface
+    public interface Source {
+        long stream(JdbcStreams.RowSink sink) throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface Progress {
+        void update(long rows);
+    }
+
+    private CsvExport() {}
+
+    /** True for names ending in ".gz"; what {@link #run} callers usually pass as {@code gzip}. */
+    public static boolean isGzipName(Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".gz");
+    }
+
+    /**
+     * Streams the source into file and returns the number of data rows written.
+     * Throws CancellationException if cancelled returns true while rows are still coming.
+     */
+    public static long run(Path file, boolean gzip, Source source, Progress progress, BooleanSupplier cancelled)
+            throws IOException, SQLException {
+
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        boolean complete = false;
+        try {
+            long rows;
+            try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+                 Csv.RecordWriter csv = new Csv.RecordWriter(new OutputStreamWriter(
+                         open(channel, gzip), StandardCharsets.UTF_8))) {
+                rows = source.stream(new JdbcStreams.RowSink() {
+                    long n;
+
+                    @Override
+                    public void columns(List<String> labels) {
+                        write(labels.toArray());
+                    }
+
+                    @Override
+                    public void row(Object[] values) {
+                        write(values);
+                        if (++n % PROGRESS_EVERY == 0) progress.update(n);
+                    }
+
+                    @Override
+                    public boolean cancelled() {
+                        return cancelled.getAsBoolean();
+                    }
+
+                    private void write(Object[] fields) {
+                        try {
+                            csv.write(fields);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            // closed above: the gzip trailer and the last buffer are on disk
+            complete = true;
+            progress.update(rows);
+            return rows;
+        } finally {
+            if (complete) Files.move(part, file, StandardCopyOption.REPLACE_EXISTING);
+            else Files.deleteIfExists(part);
+        }
+    }
+
+    private static OutputStream open(FileChannel channel, boolean gzip) throws IOException {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+        return gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+    }
+}